@@ -0,0 +1,266 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.EvictionPolicy;
+
+
+/**
+ * Replays a photo browsing session against the eviction policies of the photo memory cache and prints the hit ratio
+ * of the selected photos. The session follows the way the plugin uses the cache: the selected photo is requested,
+ * then its previous and next photos and the photos of the nearby sequences are prefetched, and the selected photo
+ * with its sequence window is pinned.
+ * <p>
+ * The session is read from a trace file of recorded selections, one selection per line: the sequence identifier
+ * and the photo name, separated by a comma or by white space; empty lines and lines starting with {@code #} are
+ * ignored. The previous and next photos of a selection are the photos of the same sequence that are adjacent to it
+ * in name order (shorter names first, such that a name ending with 9 precedes a name ending with 10); a trace does
+ * not record the nearby sequences, so no nearby photos are prefetched. Without a trace file a synthetic session is
+ * generated: the user mostly steps forward along a sequence, sometimes steps back, and now and then jumps to another
+ * sequence or returns to a photo viewed before.
+ * <p>
+ * Usage: {@code CachePolicyBenchmark [trace file] [capacity...]}, the default capacities are 20, 50 (the default
+ * memory count), 100 and 200 photos.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class CachePolicyBenchmark {
+
+    private static final int[] DEFAULT_CAPACITIES = { 20, 50, 100, 200 };
+    private static final int SEQUENCE_COUNT = 400;
+    private static final int SEQUENCE_LENGTH = 300;
+    private static final int STEP_COUNT = 200_000;
+    private static final int PREV_NEXT_COUNT = 2;
+    private static final int NEARBY_COUNT = 2;
+    private static final int HISTORY_SIZE = 500;
+    private static final double JUMP_PROBABILITY = 0.03;
+    private static final double REVISIT_PROBABILITY = 0.5;
+    private static final double BACK_STEP_PROBABILITY = 0.15;
+    private static final long SEED = 42;
+    private static final String TRACE_SEPARATOR = "[,\\s]+";
+    private static final String TRACE_COMMENT = "#";
+
+    private CachePolicyBenchmark() {}
+
+
+    public static void main(final String[] args) throws IOException {
+        final boolean traceFlag = args.length > 0 && !args[0].matches("\\d+");
+        final List<Selection> session = traceFlag ? readTrace(args[0]) : generateSession();
+        final int capacityOffset = traceFlag ? 1 : 0;
+        final int[] capacities =
+                args.length > capacityOffset ? new int[args.length - capacityOffset] : DEFAULT_CAPACITIES;
+        for (int i = capacityOffset; i < args.length; i++) {
+            capacities[i - capacityOffset] = Integer.parseInt(args[i]);
+        }
+        System.out.printf("session: %s, %d selections%n", traceFlag ? args[0] : "generated", session.size());
+        System.out.printf("%-10s %-20s %10s%n", "capacity", "policy", "hit ratio");
+        for (final int capacity : capacities) {
+            for (final EvictionPolicy evictionPolicy : EvictionPolicy.values()) {
+                final SimulatedCache cache =
+                        new SimulatedCache(PhotoMemoryCache.createPolicy(capacity, evictionPolicy));
+                replay(session, cache);
+                System.out.printf("%-10d %-20s %9.1f%%%n", capacity, evictionPolicy, cache.hitRatio() * 100);
+            }
+        }
+    }
+
+    /**
+     * Replays the same session for every policy.
+     */
+    private static void replay(final List<Selection> session, final SimulatedCache cache) {
+        for (final Selection selection : session) {
+            cache.request(selection.photo);
+            final Set<Key> pinned = new HashSet<>();
+            pinned.add(selection.photo);
+            for (final Key neighbour : selection.window) {
+                cache.prefetch(neighbour);
+                pinned.add(neighbour);
+            }
+            // the nearby photos belong to other sequences, they are prefetched but not pinned
+            selection.nearby.forEach(cache::prefetch);
+            cache.pin(pinned);
+        }
+    }
+
+    /**
+     * Generates the synthetic session; the random number generator is seeded.
+     */
+    private static List<Selection> generateSession() {
+        final Random random = new Random(SEED);
+        final List<Selection> session = new ArrayList<>(STEP_COUNT);
+        final List<int[]> history = new ArrayList<>();
+        int sequence = random.nextInt(SEQUENCE_COUNT);
+        int index = random.nextInt(SEQUENCE_LENGTH);
+        for (int step = 0; step < STEP_COUNT; step++) {
+            final double action = random.nextDouble();
+            if (action < JUMP_PROBABILITY || index == SEQUENCE_LENGTH - 1) {
+                if (!history.isEmpty() && random.nextDouble() < REVISIT_PROBABILITY) {
+                    final int[] position = history.get(random.nextInt(history.size()));
+                    sequence = position[0];
+                    index = position[1];
+                } else {
+                    sequence = random.nextInt(SEQUENCE_COUNT);
+                    index = random.nextInt(SEQUENCE_LENGTH);
+                }
+            } else if (action < JUMP_PROBABILITY + BACK_STEP_PROBABILITY && index > 0) {
+                index--;
+            } else {
+                index++;
+            }
+            if (history.size() == HISTORY_SIZE) {
+                history.remove(0);
+            }
+            history.add(new int[] { sequence, index });
+
+            final List<Key> window = new ArrayList<>();
+            for (int offset = 1; offset <= PREV_NEXT_COUNT; offset++) {
+                for (final int neighbour : new int[] { index + offset, index - offset }) {
+                    if (neighbour >= 0 && neighbour < SEQUENCE_LENGTH) {
+                        window.add(key(sequence, neighbour));
+                    }
+                }
+            }
+            final List<Key> nearby = new ArrayList<>();
+            for (int offset = 1; offset <= NEARBY_COUNT; offset++) {
+                nearby.add(key((sequence + offset) % SEQUENCE_COUNT, index));
+            }
+            session.add(new Selection(key(sequence, index), window, nearby));
+        }
+        return session;
+    }
+
+    private static Key key(final int sequence, final int index) {
+        return new Key((long) sequence, sequence + "/" + index);
+    }
+
+    /**
+     * Reads the recorded selections; the sequence window of a selection is built from the photos of its sequence
+     * that occur in the trace.
+     */
+    private static List<Selection> readTrace(final String fileName) throws IOException {
+        final List<Key> photos = new ArrayList<>();
+        final Map<Long, TreeSet<String>> sequencePhotos = new LinkedHashMap<>();
+        final Comparator<String> nameOrder = Comparator.comparingInt(String::length).thenComparing(name -> name);
+        for (final String line : Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8)) {
+            final String trimmedLine = line.trim();
+            if (!trimmedLine.isEmpty() && !trimmedLine.startsWith(TRACE_COMMENT)) {
+                final String[] values = trimmedLine.split(TRACE_SEPARATOR, 2);
+                if (values.length < 2) {
+                    throw new IllegalArgumentException("Invalid trace line: " + line);
+                }
+                final Long sequenceId = Long.valueOf(values[0]);
+                photos.add(new Key(sequenceId, values[1]));
+                sequencePhotos.computeIfAbsent(sequenceId, id -> new TreeSet<>(nameOrder)).add(values[1]);
+            }
+        }
+        final Map<Long, List<String>> sequenceOrder = new HashMap<>();
+        sequencePhotos.forEach((sequenceId, names) -> sequenceOrder.put(sequenceId, new ArrayList<>(names)));
+
+        final List<Selection> session = new ArrayList<>(photos.size());
+        for (final Key photo : photos) {
+            final List<String> names = sequenceOrder.get(photo.getSequenceId());
+            final int index = Collections.binarySearch(names, photo.getImageName(), nameOrder);
+            final List<Key> window = new ArrayList<>();
+            for (int offset = 1; offset <= PREV_NEXT_COUNT; offset++) {
+                for (final int neighbour : new int[] { index + offset, index - offset }) {
+                    if (neighbour >= 0 && neighbour < names.size()) {
+                        window.add(new Key(photo.getSequenceId(), names.get(neighbour)));
+                    }
+                }
+            }
+            session.add(new Selection(photo, window, Collections.emptyList()));
+        }
+        return session;
+    }
+
+
+    /**
+     * A selected photo, with the photos that are prefetched for it.
+     */
+    private static final class Selection {
+
+        private final Key photo;
+        private final List<Key> window;
+        private final List<Key> nearby;
+
+
+        private Selection(final Key photo, final List<Key> window, final List<Key> nearby) {
+            this.photo = photo;
+            this.window = window;
+            this.nearby = nearby;
+        }
+    }
+
+
+    /**
+     * Keeps track of the cached keys the same way as {@code PhotoMemoryCache}, without holding any photo content.
+     */
+    private static final class SimulatedCache {
+
+        private final CachePolicy policy;
+        private final Set<Key> keys = new HashSet<>();
+        private long requestCount;
+        private long hitCount;
+
+
+        private SimulatedCache(final CachePolicy policy) {
+            this.policy = policy;
+        }
+
+
+        /* a request of the selected photo: a cache miss downloads the photo and adds it to the cache */
+        private void request(final Key key) {
+            requestCount++;
+            if (keys.contains(key)) {
+                policy.recordAccess(key);
+                hitCount++;
+            } else {
+                policy.recordMiss(key);
+                add(key);
+            }
+        }
+
+        /* a prefetched photo is downloaded only if it is not cached, the lookup is not recorded by the policy */
+        private void prefetch(final Key key) {
+            if (!keys.contains(key)) {
+                add(key);
+            }
+        }
+
+        private void pin(final Set<Key> pinnedKeys) {
+            policy.pin(pinnedKeys);
+        }
+
+        private void add(final Key key) {
+            keys.add(key);
+            final Key victim = policy.add(key);
+            if (victim != null) {
+                keys.remove(victim);
+            }
+        }
+
+        private double hitRatio() {
+            return requestCount > 0 ? (double) hitCount / requestCount : 0;
+        }
+    }
+}
\ No newline at end of file
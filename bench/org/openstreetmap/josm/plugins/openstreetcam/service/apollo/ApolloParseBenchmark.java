@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.ClusterConfidenceLevel;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.EditStatus;
+import org.openstreetmap.josm.plugins.openstreetcam.service.apollo.entity.Response;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+
+/**
+ * Measures the parse time and the allocated memory per MB of an Apollo search response, for the streaming type
+ * adapters of {@code ApolloService} and for the reflective configuration they replaced (tree-model deserializers for
+ * the locations, confidence levels and edit statuses, the entities populated by reflection). Both configurations must
+ * read the same entities, which is verified before measuring. The tokenizer row reads the tokens of the response
+ * without building any entity: it is the allocation floor of {@code JsonReader} (property names, numbers and strings),
+ * which is the same for every configuration.
+ * <p>
+ * Usage: {@code ApolloParseBenchmark [response file]}, by default a response with 20000 detections and 5000 clusters
+ * is generated. The allocation is measured with the per-thread allocation counter of HotSpot.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class ApolloParseBenchmark {
+
+    private static final int DETECTION_COUNT = 20_000;
+    private static final int CLUSTER_COUNT = 5_000;
+    private static final int WARM_UP_ROUNDS = 6;
+    private static final int MEASURED_ROUNDS = 2;
+    private static final int RUNS_PER_ROUND = 10;
+    private static final double BYTES_PER_MB = 1e6;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final long SEED = 1;
+    private static final String[] EDIT_STATUSES = { "OPEN", "FIXED", "ALREADY_FIXED", "BAD_SIGN", "OTHER" };
+
+    private ApolloParseBenchmark() {}
+
+
+    public static void main(final String[] args) throws IOException {
+        final byte[] content = args.length > 0 ? Files.readAllBytes(Paths.get(args[0])) : generateResponse();
+        final Gson reflection = reflectionGson();
+        final Gson adapters = new ApolloService(null).createGson();
+        final Gson plain = new Gson();
+        final boolean identical =
+                plain.toJson(parse(reflection, content)).equals(plain.toJson(parse(adapters, content)));
+        System.out.printf("response: %.1f MB, identical entities: %b%n", content.length / BYTES_PER_MB, identical);
+        if (!identical) {
+            throw new IllegalStateException("The streaming adapters read different entities");
+        }
+        System.out.printf("%-12s %10s %18s%n", "parser", "ms/MB", "MB allocated/MB");
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < WARM_UP_ROUNDS + MEASURED_ROUNDS; round++) {
+            final boolean measured = round >= WARM_UP_ROUNDS;
+            measure("tokenizer", measured, threads, content, () -> tokenize(content));
+            measure("reflection", measured, threads, content, () -> parse(reflection, content));
+            measure("adapters", measured, threads, content, () -> parse(adapters, content));
+        }
+    }
+
+    private static void measure(final String name, final boolean print, final com.sun.management.ThreadMXBean threads,
+            final byte[] content, final Parser parser) throws IOException {
+        final long threadId = Thread.currentThread().getId();
+        long bestTime = Long.MAX_VALUE;
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS_PER_ROUND; i++) {
+            final long startAllocated = threads.getThreadAllocatedBytes(threadId);
+            final long startTime = System.nanoTime();
+            parser.parse();
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - startAllocated);
+        }
+        if (print) {
+            final double megabytes = content.length / BYTES_PER_MB;
+            System.out.printf("%-12s %10.1f %18.1f%n", name, bestTime / NANOS_PER_MILLI / megabytes,
+                    allocated / BYTES_PER_MB / megabytes);
+        }
+    }
+
+    /* same as BaseService: the response is parsed while it is read from the stream */
+    private static Response parse(final Gson gson, final byte[] content) {
+        return gson.fromJson(reader(content), Response.class);
+    }
+
+    private static Object tokenize(final byte[] content) throws IOException {
+        final JsonReader reader = reader(content);
+        int depth = 0;
+        do {
+            final JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                depth++;
+            } else if (token == JsonToken.END_OBJECT) {
+                reader.endObject();
+                depth--;
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                depth++;
+            } else if (token == JsonToken.END_ARRAY) {
+                reader.endArray();
+                depth--;
+            } else if (token == JsonToken.NAME) {
+                reader.nextName();
+            } else if (token == JsonToken.NUMBER) {
+                reader.nextDouble();
+            } else if (token == JsonToken.NULL) {
+                reader.nextNull();
+            } else if (token == JsonToken.BOOLEAN) {
+                reader.nextBoolean();
+            } else {
+                reader.nextString();
+            }
+        } while (depth > 0);
+        return reader;
+    }
+
+    private static JsonReader reader(final byte[] content) {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The configuration of {@code ApolloService} before the streaming adapters.
+     */
+    private static Gson reflectionGson() {
+        final GsonBuilder builder = new GsonBuilder();
+        builder.registerTypeAdapter(EditStatus.class, (JsonDeserializer<EditStatus>) ApolloParseBenchmark::editStatus);
+        builder.registerTypeAdapter(LatLon.class, (JsonDeserializer<LatLon>) ApolloParseBenchmark::latLon);
+        builder.registerTypeAdapter(ClusterConfidenceLevel.class,
+                (JsonDeserializer<ClusterConfidenceLevel>) ApolloParseBenchmark::confidenceLevel);
+        return builder.create();
+    }
+
+    private static EditStatus editStatus(final JsonElement element, final Type type,
+            final JsonDeserializationContext context) {
+        final String value = element.getAsString();
+        EditStatus result = null;
+        if (value != null && !value.isEmpty()) {
+            result = "FIXED".equals(value) || "ALREADY_FIXED".equals(value) ? EditStatus.MAPPED
+                    : EditStatus.valueOf(value);
+        }
+        return result;
+    }
+
+    private static LatLon latLon(final JsonElement element, final Type type,
+            final JsonDeserializationContext context) {
+        final JsonObject object = (JsonObject) element;
+        return new LatLon(object.get("lat").getAsDouble(), object.get("lon").getAsDouble());
+    }
+
+    private static ClusterConfidenceLevel confidenceLevel(final JsonElement element, final Type type,
+            final JsonDeserializationContext context) {
+        Double overallConfidence;
+        Double ocrConfidence = null;
+        if (element instanceof JsonObject) {
+            final JsonObject object = (JsonObject) element;
+            overallConfidence = object.get("overallConfidence").getAsDouble();
+            if (object.has("ocrConfidence")) {
+                ocrConfidence = object.get("ocrConfidence").getAsDouble();
+            }
+        } else {
+            overallConfidence = element.getAsDouble();
+        }
+        return new ClusterConfidenceLevel(overallConfidence, ocrConfidence);
+    }
+
+    private static byte[] generateResponse() {
+        final Random random = new Random(SEED);
+        final StringBuilder response = new StringBuilder("{\"status\":{\"apiCode\":\"600\",\"apiMessage\":\"ok\","
+                + "\"httpCode\":200,\"httpMessage\":\"OK\"},\"detections\":[");
+        for (int i = 0; i < DETECTION_COUNT; i++) {
+            response.append(i > 0 ? "," : "").append(detection(random, i));
+        }
+        response.append("],\"clusters\":[");
+        for (int i = 0; i < CLUSTER_COUNT; i++) {
+            response.append(i > 0 ? "," : "").append(cluster(random, i));
+        }
+        response.append("],\"detection\":").append(detection(random, DETECTION_COUNT));
+        return response.append("}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String detection(final Random random, final long id) {
+        return "{\"id\":" + id + ",\"sequenceId\":" + random.nextInt(100_000) + ",\"sequenceIndex\":"
+                + random.nextInt(500) + ",\"creationTimestamp\":1580000000000,\"latestChangeTimestamp\":1590000000000,"
+                + "\"point\":{\"lat\":" + (46 + random.nextDouble()) + ",\"lon\":" + (23 + random.nextDouble()) + "},"
+                + "\"sign\":{\"name\":\"Stop\",\"internalName\":\"REGULATORY--STOP--G1\",\"iconName\":\"stop.png\","
+                + "\"region\":\"US\",\"type\":\"REGULATORY\"},"
+                + "\"locationOnPhoto\":{\"x\":0.1,\"y\":0.2,\"width\":0.05,\"height\":0.07},"
+                + "\"validationStatus\":\"CONFIRMED\",\"editStatus\":\""
+                + EDIT_STATUSES[random.nextInt(EDIT_STATUSES.length)] + "\",\"osmComparison\":\"SAME\","
+                + "\"osmElements\":[{\"osmId\":123,\"type\":\"WAY\",\"tag\":\"highway\","
+                + "\"members\":[{\"osmId\":5,\"type\":\"NODE\"}]}],\"mode\":\"AUTOMATIC\","
+                + "\"author\":{\"externalId\":\"42\",\"userName\":\"user\",\"type\":\"OSM\"},"
+                + "\"facing\":12.5,\"distance\":3.5,\"angleFromCenter\":1.25,\"orientation\":0.5,"
+                + "\"confidenceLevel\":{\"detectionConfidence\":0.9,\"ocrConfidence\":0.7},\"trackingId\":\"t1\","
+                + "\"automaticOcrValue\":\"50\",\"manualOcrValue\":null}";
+    }
+
+    private static String cluster(final Random random, final long id) {
+        final String confidenceLevel =
+                random.nextBoolean() ? "{\"overallConfidence\":0.8,\"ocrConfidence\":0.4}" : "0.66";
+        return "{\"id\":" + id + ",\"latestChangeTimestamp\":1,\"point\":{\"lat\":46.5,\"lon\":23.5},"
+                + "\"facing\":33.0,\"sign\":{\"name\":\"Stop\",\"internalName\":\"S\"},\"confidenceLevel\":"
+                + confidenceLevel + ",\"detectionIds\":[1,2,3],\"osmComparison\":\"NEW\",\"osmElements\":[],"
+                + "\"detections\":[" + detection(random, id * 10) + "],\"ocrValue\":\"30\",\"laneCount\":2}";
+    }
+
+
+    @FunctionalInterface
+    private interface Parser {
+
+        Object parse() throws IOException;
+    }
+}
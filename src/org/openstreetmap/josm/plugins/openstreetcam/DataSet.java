@@ -10,7 +10,7 @@ import java.awt.Point;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,6 +31,7 @@ import org.openstreetmap.josm.plugins.openstreetcam.handler.PhotoHandler;
 import org.openstreetmap.josm.plugins.openstreetcam.util.Util;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
 import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
+import com.grab.josm.common.entity.Pair;
 import com.grab.josm.common.thread.ThreadPool;
 
 
@@ -47,6 +48,9 @@ public final class DataSet {
     /** the segments from the current map view; available only for small zoom levels */
     private List<Segment> segments = new ArrayList<>();
 
+    /** the loaded and total pages of the segment search in progress; null if no segments are being loaded */
+    private Pair<Integer, Integer> segmentProgress;
+
     /** the photos from the current map view; available only for high zoom levels */
     private PhotoDataSet photoDataSet = new PhotoDataSet();
 
@@ -91,6 +95,7 @@ public final class DataSet {
      */
     public synchronized void clear(final boolean clearSelection) {
         this.segments = new ArrayList<>();
+        this.segmentProgress = null;
         this.detections = new ArrayList<>();
         this.photoDataSet = new PhotoDataSet();
         this.clusters = new ArrayList<>();
@@ -132,6 +137,26 @@ public final class DataSet {
      */
     public synchronized void updateLowZoomLevelData(final List<Segment> segments) {
         this.segments = segments;
+        this.segmentProgress = null;
+    }
+
+    /**
+     * Adds a page of segments to the low zoom level data while the segments of the map view are being loaded. The
+     * segments that are already displayed are replaced by the new version; the data is replaced by the complete
+     * result of the search with {@code updateLowZoomLevelData}.
+     *
+     * @param segments the segments of the retrieved page
+     * @param loadedPages the number of pages retrieved so far
+     * @param totalPages the number of pages known so far
+     */
+    public synchronized void appendLowZoomLevelData(final List<Segment> segments, final int loadedPages,
+            final int totalPages) {
+        final Set<Segment> mergedSegments = new LinkedHashSet<>(segments);
+        if (this.segments != null) {
+            mergedSegments.addAll(this.segments);
+        }
+        this.segments = new ArrayList<>(mergedSegments);
+        this.segmentProgress = new Pair<>(loadedPages, totalPages);
     }
 
     /**
@@ -225,14 +250,16 @@ public final class DataSet {
     }
 
     /**
-     * Returns the photos that are either previous/next or close to the selected photo.
+     * Returns the photos that are either previous/next or close to the selected photo. The photos are ordered by
+     * priority: the previous/next photos come first, ordered by their distance in the sequence from the selected photo,
+     * followed by the nearby photos ordered by their distance from the selected photo.
      *
      * @param prevNextCount the number of previous/next photos to be returned
      * @param nearbyCount the number of nearby photos to be returned
-     * @return a set of {@code Photo}s
+     * @return a list of {@code Photo}s
      */
-    public synchronized Set<Photo> nearbyPhotos(final int prevNextCount, final int nearbyCount) {
-        final Set<Photo> result = new HashSet<>();
+    public synchronized List<Photo> nearbyPhotos(final int prevNextCount, final int nearbyCount) {
+        final Set<Photo> result = new LinkedHashSet<>();
         if (selectedPhoto != null) {
             for (int i = 1; i <= prevNextCount; i++) {
                 final Photo nextPhoto = sequencePhoto(selectedPhoto.getSequenceIndex() + i);
@@ -248,7 +275,7 @@ public final class DataSet {
                 result.addAll(Util.nearbyPhotos(photoDataSet.getPhotos(), selectedPhoto, nearbyCount));
             }
         }
-        return result;
+        return new ArrayList<>(result);
     }
 
     /**
@@ -564,6 +591,26 @@ public final class DataSet {
         }
     }
 
+    /**
+     * Replaces the stored version of the given detection (from the selected sequence and the detections list) with the
+     * given version. A detection that is not stored is ignored.
+     *
+     * @param detection a {@code Detection} object
+     */
+    public synchronized void updateDetection(final Detection detection) {
+        if (detection.equals(selectedDetection)) {
+            updateSelectedDetection(detection);
+        } else {
+            if (hasSelectedSequence() && selectedSequence.hasDetections()
+                    && selectedSequence.getDetections().remove(detection)) {
+                selectedSequence.getDetections().add(detection);
+            }
+            if (hasDetections() && detections.remove(detection)) {
+                detections.add(detection);
+            }
+        }
+    }
+
     /**
      * Sets the selected sequence.
      *
@@ -591,6 +638,15 @@ public final class DataSet {
         return segments;
     }
 
+    /**
+     * Returns the progress of the segment search in progress.
+     *
+     * @return a {@code Pair} of the loaded and total pages, or null if no segments are being loaded
+     */
+    public Pair<Integer, Integer> getSegmentProgress() {
+        return segmentProgress;
+    }
+
     /**
      * Returns the photo data set.
      *
@@ -7,6 +7,7 @@
 package org.openstreetmap.josm.plugins.openstreetcam;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.SwingUtilities;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.PleaseWaitRunnable;
@@ -19,6 +20,8 @@ import org.openstreetmap.josm.plugins.openstreetcam.entity.PhotoDataSet;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.details.photo.PhotoDetailsDialog;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.layer.OpenStreetCamLayer;
 import org.openstreetmap.josm.plugins.openstreetcam.handler.ServiceHandler;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceFutures;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.Paging;
 import org.openstreetmap.josm.plugins.openstreetcam.util.BoundingBoxUtil;
 import org.openstreetmap.josm.plugins.openstreetcam.util.Util;
@@ -38,10 +41,8 @@ import com.grab.josm.common.argument.BoundingBox;
  */
 public class DownloadPhotosTask extends PleaseWaitRunnable {
 
-    private static final int SLEEP = 1000;
-
-    /** the currently running download thread */
-    private Thread downloadThread;
+    /** the download in progress */
+    private CompletableFuture<PhotoDataSet> download;
 
     /** Flag indicated that user ask for cancel this task */
     private boolean canceled;
@@ -52,6 +53,10 @@ public class DownloadPhotosTask extends PleaseWaitRunnable {
     /** the downloaded photo data set */
     private PhotoDataSet photoDataSet;
 
+    /** the search area and filter of the downloaded photo data set */
+    private BoundingBox bbox;
+    private SearchFilter listFilter;
+
     /**
      * Builds a new task.
      *
@@ -68,10 +73,10 @@ public class DownloadPhotosTask extends PleaseWaitRunnable {
     @Override
     protected void cancel() {
         synchronized (this) {
-            if (downloadThread != null) {
-                downloadThread.interrupt();
+            if (download != null) {
+                // aborts the request in progress
+                download.cancel(false);
             }
-            downloadThread = null;
             canceled = true;
             ((PleaseWaitProgressMonitor) progressMonitor).close();
         }
@@ -94,6 +99,8 @@ public class DownloadPhotosTask extends PleaseWaitRunnable {
                     OpenStreetCamLayer.getInstance().invalidate();
                     MainApplication.getMap().repaint();
                 });
+                // the adjacent pages are loaded in the background, such that the next action is served instantly
+                ServiceHandler.getInstance().prefetchNearbyPhotoPages(bbox, listFilter, photoDataSet);
             }
         }
     }
@@ -110,18 +117,24 @@ public class DownloadPhotosTask extends PleaseWaitRunnable {
                 final String taskTitle = loadNextResults ? GuiConfig.getInstance().getInfoDownloadNextPhotosTitle()
                         : GuiConfig.getInstance().getInfoDownloadPreviousPhotosTitle();
                 this.progressMonitor.indeterminateSubTask(taskTitle);
-                downloadThread = new Thread(() -> {
-                    if (DataSet.getInstance().hasPhotos()) {
-                        int page = DataSet.getInstance().getPhotoDataSet().getPage();
-                        page = loadNextResults ? page + 1 : page - 1;
-                        final SearchFilter listFilter = PreferenceManager.getInstance().loadSearchFilter();
-                        final BoundingBox bbox = BoundingBoxUtil.currentBoundingBox();
-                        photoDataSet = ServiceHandler.getInstance().listNearbyPhotos(bbox, listFilter,
-                                new Paging(page, OpenStreetCamServiceConfig.getInstance().getNearbyPhotosMaxItems()));
+                if (DataSet.getInstance().hasPhotos()) {
+                    int page = DataSet.getInstance().getPhotoDataSet().getPage();
+                    page = loadNextResults ? page + 1 : page - 1;
+                    final Paging paging =
+                            new Paging(page, OpenStreetCamServiceConfig.getInstance().getNearbyPhotosMaxItems());
+                    final CompletableFuture<PhotoDataSet> pageDownload;
+                    synchronized (this) {
+                        listFilter = PreferenceManager.getInstance().loadSearchFilter();
+                        bbox = BoundingBoxUtil.currentBoundingBox();
+                        download = ServiceFutures.supply(
+                                () -> ServiceHandler.getInstance().listNearbyPhotos(bbox, listFilter, paging));
+                        pageDownload = download;
                     }
-                });
-                downloadThread.start();
-                waitForCompletion();
+                    // a prefetched page completes the download immediately
+                    photoDataSet = ServiceFutures.get(pageDownload);
+                }
+            } catch (final ServiceException e) {
+                // the download was cancelled by the user; the errors of the search are reported by the service handler
             } finally {
                 progressMonitor.finishTask();
             }
@@ -152,13 +165,4 @@ public class DownloadPhotosTask extends PleaseWaitRunnable {
         return result;
     }
 
-    private void waitForCompletion() {
-        while (downloadThread != null && downloadThread.isAlive()) {
-            try {
-                Thread.sleep(SLEEP);
-            } catch (final InterruptedException e) {
-                // no need to handle this; if the user cancels the action, exception will occur
-            }
-        }
-    }
 }
\ No newline at end of file
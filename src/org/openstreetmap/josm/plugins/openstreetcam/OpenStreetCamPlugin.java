@@ -28,10 +28,12 @@ import org.openstreetmap.josm.plugins.PluginInformation;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.AutoplayAction;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.MapViewType;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
+import org.openstreetmap.josm.plugins.openstreetcam.cache.CacheManager;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.EditStatus;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.details.detection.DetectionDetailsDialog;
+import org.openstreetmap.josm.plugins.openstreetcam.gui.details.diagnostics.DiagnosticsDialog;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.details.filter.DetectionTypeContent;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.details.photo.PhotoDetailsDialog;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.layer.OpenStreetCamLayer;
@@ -40,6 +42,7 @@ import org.openstreetmap.josm.plugins.openstreetcam.handler.DataUpdateHandler;
 import org.openstreetmap.josm.plugins.openstreetcam.handler.SelectionHandler;
 import org.openstreetmap.josm.plugins.openstreetcam.handler.ServiceHandler;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.DetectionChangeObserver;
+import org.openstreetmap.josm.plugins.openstreetcam.observer.DetectionEditObserver;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.LocationObserver;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.MapViewTypeChangeObserver;
 import org.openstreetmap.josm.plugins.openstreetcam.service.apollo.DetectionFilter;
@@ -60,7 +63,7 @@ import com.grab.josm.common.thread.ThreadPool;
  * @version $Revision$
  */
 public class OpenStreetCamPlugin extends Plugin implements MapViewTypeChangeObserver, LayerChangeListener,
-LocationObserver, ZoomChangeListener, DetectionChangeObserver {
+LocationObserver, ZoomChangeListener, DetectionChangeObserver, DetectionEditObserver {
 
     private static final int SEARCH_DELAY = 500;
 
@@ -77,16 +80,18 @@ LocationObserver, ZoomChangeListener, DetectionChangeObserver {
      */
     public OpenStreetCamPlugin(final PluginInformation pluginInfo) {
         super(pluginInfo);
+        // the version identifies the saved detection icons, it is saved before the icons are loaded
+        PreferenceManager.getInstance().savePluginLocalVersion(getPluginInformation().localversion);
 
         // initialize detection signs
         ThreadPool.getInstance().execute(() -> DetectionTypeContent.getInstance());
 
         this.selectionHandler = new SelectionHandler();
         this.preferenceChangedHandler = new PreferenceChangedHandler();
+        ServiceHandler.getInstance().registerObserver(this);
         if (layerActivatorMenuItem == null) {
             layerActivatorMenuItem = MainMenu.add(MainApplication.getMenu().imageryMenu, new LayerActivator(), false);
         }
-        PreferenceManager.getInstance().savePluginLocalVersion(getPluginInformation().localversion);
         PreferenceManager.getInstance().saveAutoplayStartedFlag(false);
     }
 
@@ -104,6 +109,11 @@ LocationObserver, ZoomChangeListener, DetectionChangeObserver {
             // initialize photo details dialog
             initializePhotoDetailsDialog(newMapFrame);
 
+            // initialize diagnostics dialog, it is hidden by default
+            final DiagnosticsDialog diagnosticsDialog = DiagnosticsDialog.getInstance();
+            newMapFrame.addToggleDialog(diagnosticsDialog, false);
+            diagnosticsDialog.hideDialog();
+
             // initialize layer menu item & layer
             layerActivatorMenuItem.setEnabled(true);
             if (PreferenceManager.getInstance().loadLayerOpenedFlag()) {
@@ -117,9 +127,13 @@ LocationObserver, ZoomChangeListener, DetectionChangeObserver {
             layerActivatorMenuItem.setEnabled(false);
             Preferences.main().removePreferenceChangeListener(preferenceChangedHandler);
             oldMapFrame.removeToggleDialog(PhotoDetailsDialog.getInstance());
+            oldMapFrame.removeToggleDialog(DiagnosticsDialog.getInstance());
             PhotoDetailsDialog.destroyInstance();
             DetectionDetailsDialog.destroyInstance();
+            DiagnosticsDialog.destroyInstance();
             OpenStreetCamLayer.destroyInstance();
+            CacheManager.getInstance().saveIndex();
+            ServiceHandler.getInstance().saveDetectionUpdates();
             try {
                 ThreadPool.getInstance().shutdown();
             } catch (final InterruptedException e) {
@@ -239,12 +253,28 @@ LocationObserver, ZoomChangeListener, DetectionChangeObserver {
 
     @Override
     public void editDetection(final EditStatus editStatus, final String text) {
-        ThreadPool.getInstance().execute(() -> {
-            ServiceHandler.getInstance().updateDetection(DataSet.getInstance().getSelectedDetection().getId(),
-                    editStatus, text);
-            final Detection changedDetection = ServiceHandler.getInstance()
-                    .retrieveDetection(DataSet.getInstance().getSelectedDetection().getId());
-            SwingUtilities.invokeLater(() -> updateDetection(changedDetection));
+        // the edit is sent in the background, the detection is displayed as edited right away
+        final Detection detection = DataSet.getInstance().getSelectedDetection();
+        if (ServiceHandler.getInstance().updateDetection(detection.getId(), editStatus, text)) {
+            updateDetection(new Detection(detection, editStatus));
+        }
+    }
+
+
+    /* implementation of DetectionEditObserver */
+
+    @Override
+    public void rejectDetectionEdit(final Detection detection) {
+        SwingUtilities.invokeLater(() -> {
+            if (MainApplication.getMap() != null) {
+                if (detection.equals(DataSet.getInstance().getSelectedDetection())) {
+                    updateDetection(detection);
+                } else {
+                    DataSet.getInstance().updateDetection(detection);
+                    OpenStreetCamLayer.getInstance().invalidate();
+                    MainApplication.getMap().repaint();
+                }
+            }
         });
     }
 
@@ -19,8 +19,11 @@ public class CacheSettings {
 
     private final Integer memoryCount;
     private final Integer diskCount;
+    private final Integer diskSize;
+    private final Integer diskExpiry;
     private final Integer prevNextCount;
     private final Integer nearbyCount;
+    private final EvictionPolicy evictionPolicy;
 
 
     /**
@@ -28,15 +31,22 @@ public class CacheSettings {
      *
      * @param memoryCount the number objects to keep in memory
      * @param diskCount the number of objects to keep in disk
+     * @param diskSize the maximum size in MB of the photos saved on disk between sessions
+     * @param diskExpiry the number of days a photo saved on disk is kept
      * @param prevNextCount the number of next and previous objects to cache
      * @param nearbyCount the number of nearby objects to cache
+     * @param evictionPolicy the policy used to evict objects from memory
      */
-    public CacheSettings(final Integer memoryCount, final Integer diskCount, final Integer prevNextCount,
-            final Integer nearbyCount) {
+    public CacheSettings(final Integer memoryCount, final Integer diskCount, final Integer diskSize,
+            final Integer diskExpiry, final Integer prevNextCount, final Integer nearbyCount,
+            final EvictionPolicy evictionPolicy) {
         this.memoryCount = memoryCount;
         this.diskCount = diskCount;
+        this.diskSize = diskSize;
+        this.diskExpiry = diskExpiry;
         this.prevNextCount = prevNextCount;
         this.nearbyCount = nearbyCount;
+        this.evictionPolicy = evictionPolicy;
     }
 
 
@@ -48,6 +58,14 @@ public class CacheSettings {
         return diskCount;
     }
 
+    public Integer getDiskSize() {
+        return diskSize;
+    }
+
+    public Integer getDiskExpiry() {
+        return diskExpiry;
+    }
+
     public Integer getPrevNextCount() {
         return prevNextCount;
     }
@@ -56,12 +74,19 @@ public class CacheSettings {
         return nearbyCount;
     }
 
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + EntityUtil.hashCode(diskCount);
+        result = prime * result + EntityUtil.hashCode(diskSize);
+        result = prime * result + EntityUtil.hashCode(diskExpiry);
         result = prime * result + EntityUtil.hashCode(memoryCount);
+        result = prime * result + EntityUtil.hashCode(evictionPolicy);
         return result;
     }
 
@@ -73,7 +98,10 @@ public class CacheSettings {
         } else if (obj != null && obj.getClass() == this.getClass()) {
             final CacheSettings other = (CacheSettings) obj;
             result = EntityUtil.bothNullOrEqual(diskCount, other.getDiskCount());
+            result = result && EntityUtil.bothNullOrEqual(diskSize, other.getDiskSize());
+            result = result && EntityUtil.bothNullOrEqual(diskExpiry, other.getDiskExpiry());
             result = result && EntityUtil.bothNullOrEqual(memoryCount, other.getMemoryCount());
+            result = result && EntityUtil.bothNullOrEqual(evictionPolicy, other.getEvictionPolicy());
         }
         return result;
     }
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.argument;
+
+
+/**
+ * Defines the policies that decide which photos are evicted from the memory cache.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public enum EvictionPolicy {
+
+    /** the least recently used photo is evicted */
+    LRU,
+
+    /** a new photo is kept only if it is used more frequently than the photo it would evict */
+    TINY_LFU,
+
+    /** the least recently used photo is evicted, except the photos around the selected photo */
+    SEQUENCE_LOCALITY
+}
\ No newline at end of file
@@ -6,16 +6,22 @@
  */
 package org.openstreetmap.josm.plugins.openstreetcam.cache;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import org.apache.commons.jcs.access.CacheAccess;
-import org.apache.commons.jcs.engine.CompositeCacheAttributes;
-import org.apache.commons.jcs.engine.behavior.ICompositeCacheAttributes.DiskUsagePattern;
-import org.apache.commons.jcs.engine.control.CompositeCacheManager;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.openstreetmap.josm.data.Preferences;
-import org.openstreetmap.josm.data.cache.JCSCacheManager;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.CacheSettings;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.CacheConfig;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.TierStatistics;
 import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
 
 
@@ -27,10 +33,18 @@ import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
  */
 public final class CacheManager {
 
-    private static final String CACHE_NAME = "openstreetcam";
-    private static final String CACHE_LOCATION = "/cache/";
-    private static final String MEMORY_MANAGER = "org.apache.commons.jcs.engine.memory.fifo.FIFOMemoryCache";
-    private final CacheAccess<Key, CacheEntry> cache;
+    private static final String PHOTO_STORE_LOCATION = "/cache/photos/";
+    private static final String SEGMENT_STORE_LOCATION = "/cache/segments/";
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final String MEMORY_TIER = "memory";
+    private static final String DECODED_TIER = "decoded";
+    private static final String DISK_TIER = "disk";
+    private final PhotoMemoryCache cache;
+    private final PhotoStore diskStore;
+    private final LongAdder diskHitCount = new LongAdder();
+    private final LongAdder diskMissCount = new LongAdder();
+    private final DecodedPhotoCache decodedCache =
+            new DecodedPhotoCache(CacheConfig.getInstance().getDecodedMemorySize() * BYTES_PER_MB);
 
     private static final CacheManager INSTANCE = new CacheManager();
 
@@ -41,14 +55,20 @@ public final class CacheManager {
                 .getPath();
         final CacheSettings settings = PreferenceManager.getInstance().loadPreferenceSettings().getCacheSettings();
 
-        this.cache = JCSCacheManager.getCache(CACHE_NAME, settings.getMemoryCount(), settings.getDiskCount(),
-                pluginLocation + CACHE_LOCATION);
-        final CompositeCacheAttributes attr = (CompositeCacheAttributes) this.cache.getCacheAttributes();
-        attr.setDiskUsagePattern(DiskUsagePattern.SWAP);
-        attr.setMemoryCacheName(MEMORY_MANAGER);
-        attr.setUseMemoryShrinker(true);
-        this.cache.setCacheAttributes(attr);
-        this.cache.clear();
+        this.cache = new PhotoMemoryCache(settings.getMemoryCount(), settings.getEvictionPolicy());
+
+        // the photo store is not cleared, the saved photos are reused by the next sessions
+        final long diskSize = settings.getDiskSize() * BYTES_PER_MB;
+        final long diskExpiry = TimeUnit.DAYS.toMillis(settings.getDiskExpiry());
+        if (CacheConfig.getInstance().isMappedPhotoStoreFlag()) {
+            final int segmentSize = (int) Math.min(Integer.MAX_VALUE,
+                    CacheConfig.getInstance().getSegmentSize() * BYTES_PER_MB);
+            this.diskStore = new PhotoSegmentStore(new File(pluginLocation + SEGMENT_STORE_LOCATION), segmentSize,
+                    settings.getDiskCount(), diskSize, diskExpiry);
+        } else {
+            this.diskStore = new PhotoDiskStore(new File(pluginLocation + PHOTO_STORE_LOCATION),
+                    settings.getDiskCount(), diskSize, diskExpiry);
+        }
     }
 
     /**
@@ -61,7 +81,7 @@ public final class CacheManager {
     }
 
     /**
-     * Adds a photo to the cache.
+     * Adds a photo to the cache. The photo is also saved to the persistent photo store.
      *
      * @param sequenceId the identifier of the sequence to which the photo belongs
      * @param photoName the name of the photo
@@ -69,34 +89,86 @@ public final class CacheManager {
      * @param warning a flag indicating if the photo loading was successful or not
      */
     public void putPhoto(final Long sequenceId, final String photoName, final byte[] content, final boolean warning) {
-        cache.put(new Key(sequenceId, photoName), new CacheEntry(content, warning));
+        final Key key = new Key(sequenceId, photoName);
+        cache.put(key, new CacheEntry(content, warning));
+        diskStore.put(key, content);
+    }
+
+    /**
+     * Returns the content of the photo corresponding to the given name. If the photo is not in the cache, it is read
+     * from the persistent photo store. The method returns null if there is no corresponding photo.
+     *
+     * @param sequenceId the identifier of the sequence to which the photo belongs
+     * @param photoName the name of the photo
+     * @return a read-only {@code ByteBuffer} holding the photo content
+     */
+    public ByteBuffer getPhoto(final Long sequenceId, final String photoName) {
+        final Key key = new Key(sequenceId, photoName);
+        final CacheEntry entry = cache.get(key);
+        ByteBuffer result;
+        if (entry != null) {
+            result = ByteBuffer.wrap(entry.getContent()).asReadOnlyBuffer();
+        } else {
+            // the photos from the persistent store are not copied to the cache, they are read directly from the store
+            result = diskStore.get(key);
+            if (result != null) {
+                diskHitCount.increment();
+            } else {
+                diskMissCount.increment();
+            }
+        }
+        return result;
     }
 
     /**
-     * Returns the photo corresponding to the given name. The method returns null if there is no corresponding photo.
+     * Adds a decoded photo to the memory cache of decoded photos.
      *
      * @param sequenceId the identifier of the sequence to which the photo belongs
      * @param photoName the name of the photo
-     * @return a {@code CacheEntry} object
+     * @param photoSize the size of the photo
+     * @param image the decoded photo
      */
-    public CacheEntry getPhoto(final Long sequenceId, final String photoName) {
-        return cache.get(new Key(sequenceId, photoName));
+    public void putDecodedPhoto(final Long sequenceId, final String photoName, final PhotoSize photoSize,
+            final BufferedImage image) {
+        decodedCache.put(new Key(sequenceId, photoName), photoSize, image);
     }
 
     /**
-     * Removes all the photos associated with the given sequence identifier.
+     * Returns the decoded photo corresponding to the given name and size. The method returns null if the photo was
+     * not decoded recently.
+     *
+     * @param sequenceId the identifier of the sequence to which the photo belongs
+     * @param photoName the name of the photo
+     * @param photoSize the size of the photo
+     * @return a {@code BufferedImage} object
+     */
+    public BufferedImage getDecodedPhoto(final Long sequenceId, final String photoName, final PhotoSize photoSize) {
+        return decodedCache.get(new Key(sequenceId, photoName), photoSize);
+    }
+
+    /**
+     * Removes all the photos associated with the given sequence identifier. The photos are kept in the persistent
+     * photo store.
      *
      * @param sequenceId the identifier of the sequence to which the photo belongs
      */
     public void removePhotos(final Long sequenceId) {
-        final Set<Object> keySet = CompositeCacheManager.getInstance().getCache(CACHE_NAME).getKeySet();
-        for (final Object key : keySet) {
-            if (((Key) key).getSequenceId().equals(sequenceId)) {
-                cache.remove((Key) key);
-            }
+        decodedCache.remove(sequenceId);
+        if (sequenceId != null) {
+            cache.removeSequence(sequenceId);
         }
     }
 
+    /**
+     * Returns the number of photos from the given sequence that are kept in memory.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     * @return the number of cached photos
+     */
+    public int getPhotoCount(final Long sequenceId) {
+        return sequenceId != null ? cache.count(sequenceId) : 0;
+    }
+
     /**
      * Verifies if the cache contains the given photo.
      *
@@ -105,6 +177,59 @@ public final class CacheManager {
      * @return true if the cache contains the photo, false otherwise
      */
     public boolean containsPhoto(final Long sequenceId, final String photoName) {
-        return getPhoto(sequenceId, photoName) != null;
+        final Key key = new Key(sequenceId, photoName);
+        return cache.contains(key) || diskStore.contains(key);
+    }
+
+    /**
+     * Marks the given photos as being in use, for instance the photos around the selected photo. Depending on the
+     * configured eviction policy, the pinned photos are kept in memory in favour of the other photos. The previously
+     * pinned photos are released.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     * @param photoNames the names of the photos
+     */
+    public void pinPhotos(final Long sequenceId, final Collection<String> photoNames) {
+        final Set<Key> keys = new HashSet<>();
+        for (final String photoName : photoNames) {
+            keys.add(new Key(sequenceId, photoName));
+        }
+        cache.pin(keys);
+    }
+
+    /**
+     * Marks the photos of the given sequence that are kept in memory as being in use. Depending on the configured
+     * eviction policy, they are kept in memory in favour of the other photos. The previously pinned photos are
+     * released.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     */
+    public void pinPhotos(final Long sequenceId) {
+        if (sequenceId != null) {
+            cache.pinSequence(sequenceId);
+        }
+    }
+
+    /**
+     * Returns the current statistics of the cache tiers: the downloaded photos kept in memory, the decoded photos and
+     * the persistent photo store.
+     *
+     * @return a list of {@code TierStatistics}
+     */
+    public List<TierStatistics> getTierStatistics() {
+        return Arrays.asList(
+                new TierStatistics(MEMORY_TIER, cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount(),
+                        cache.getCount(), cache.getSize()),
+                new TierStatistics(DECODED_TIER, decodedCache.getHitCount(), decodedCache.getMissCount(),
+                        decodedCache.getEvictionCount(), decodedCache.getCount(), decodedCache.getSize()),
+                new TierStatistics(DISK_TIER, diskHitCount.sum(), diskMissCount.sum(), diskStore.getEvictionCount(),
+                        diskStore.getCount(), diskStore.getSize()));
+    }
+
+    /**
+     * Saves the index of the persistent photo store. The method should be invoked before the application exits.
+     */
+    public void saveIndex() {
+        diskStore.saveIndex();
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.Set;
+
+
+/**
+ * Defines the policy that decides which entries are evicted from a cache with a limited number of entries. The policy
+ * only keeps track of the keys, the cached values are managed by the cache.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+interface CachePolicy {
+
+    /**
+     * Records a cache hit of the given key.
+     *
+     * @param key a cached key
+     */
+    void recordAccess(Key key);
+
+    /**
+     * Records a request for a key that is not cached.
+     *
+     * @param key a key that is not cached
+     */
+    void recordMiss(Key key);
+
+    /**
+     * Adds a new key to the policy. If the cache exceeds its capacity, the method returns the key that has to be
+     * evicted; this might be the added key itself if the policy rejects it.
+     *
+     * @param key a key that is not cached
+     * @return the key to evict or null if no key needs to be evicted
+     */
+    Key add(Key key);
+
+    /**
+     * Removes the given key from the policy.
+     *
+     * @param key a cached key
+     */
+    void remove(Key key);
+
+    /**
+     * Marks the given keys as being in use. The policies that support pinning avoid evicting the pinned keys; the
+     * previously pinned keys are released.
+     *
+     * @param keys the keys to pin
+     */
+    default void pin(final Set<Key> keys) {
+        // by default keys are not pinned
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
+import com.grab.josm.common.entity.Pair;
+
+
+/**
+ * Memory cache of decoded photos. The size of the cache is limited by the number of bytes occupied by the decoded
+ * pixels; if the limit is exceeded the least recently used photos are evicted.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class DecodedPhotoCache {
+
+    private static final int BITS_PER_BYTE = 8;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<Pair<Key, PhotoSize>, BufferedImage> images =
+            new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private final long maxSize;
+    private long size;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+
+    /**
+     * Builds a new cache with the given capacity.
+     *
+     * @param maxSize the maximum number of bytes occupied by the cached photos
+     */
+    DecodedPhotoCache(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+
+    /**
+     * Returns the decoded photo corresponding to the given key. The method returns null if there is no corresponding
+     * photo.
+     *
+     * @param key the key of the photo
+     * @param photoSize the size of the photo
+     * @return a {@code BufferedImage}
+     */
+    synchronized BufferedImage get(final Key key, final PhotoSize photoSize) {
+        final BufferedImage image = images.get(new Pair<>(key, photoSize));
+        if (image != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return image;
+    }
+
+    /**
+     * Adds a decoded photo to the cache. Photos that are larger than the capacity of the cache are not cached.
+     *
+     * @param key the key of the photo
+     * @param photoSize the size of the photo
+     * @param image the decoded photo
+     */
+    synchronized void put(final Key key, final PhotoSize photoSize, final BufferedImage image) {
+        final long imageSize = sizeOf(image);
+        if (imageSize <= maxSize) {
+            final BufferedImage oldImage = images.put(new Pair<>(key, photoSize), image);
+            if (oldImage != null) {
+                size -= sizeOf(oldImage);
+            }
+            size += imageSize;
+            evict();
+        }
+    }
+
+    /**
+     * Removes all the photos associated with the given sequence identifier.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     */
+    synchronized void remove(final Long sequenceId) {
+        final Iterator<Map.Entry<Pair<Key, PhotoSize>, BufferedImage>> iterator = images.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Pair<Key, PhotoSize>, BufferedImage> entry = iterator.next();
+            if (entry.getKey().getFirst().getSequenceId().equals(sequenceId)) {
+                size -= sizeOf(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evict() {
+        final Iterator<BufferedImage> iterator = images.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= sizeOf(iterator.next());
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    private static long sizeOf(final BufferedImage image) {
+        final int bytesPerPixel = (image.getColorModel().getPixelSize() + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+
+    synchronized int getCount() {
+        return images.size();
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+
+/**
+ * Cache policy that evicts the least recently used key.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+class LruPolicy implements CachePolicy {
+
+    private final int capacity;
+
+    /** the keys in least recently used order */
+    private final Set<Key> keys = new LinkedHashSet<>();
+
+
+    /**
+     * Builds a new policy with the given capacity.
+     *
+     * @param capacity the maximum number of cached keys
+     */
+    LruPolicy(final int capacity) {
+        this.capacity = capacity;
+    }
+
+
+    @Override
+    public void recordAccess(final Key key) {
+        if (keys.remove(key)) {
+            keys.add(key);
+        }
+    }
+
+    @Override
+    public void recordMiss(final Key key) {
+        // the recency of a key is recorded only while the key is cached
+    }
+
+    @Override
+    public Key add(final Key key) {
+        keys.remove(key);
+        keys.add(key);
+        Key victim = null;
+        if (keys.size() > capacity) {
+            victim = selectVictim();
+            keys.remove(victim);
+        }
+        return victim;
+    }
+
+    @Override
+    public void remove(final Key key) {
+        keys.remove(key);
+    }
+
+    /**
+     * Selects the key to evict. By default the least recently used key is selected.
+     *
+     * @return a cached key
+     */
+    Key selectVictim() {
+        return keys.iterator().next();
+    }
+
+    Iterator<Key> iterator() {
+        return keys.iterator();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openstreetmap.josm.plugins.openstreetcam.util.FileUtil;
+import org.openstreetmap.josm.tools.Logging;
+
+
+/**
+ * Persistent disk store of photos. Every photo is saved in a separate file, named after the hash of the photo's key.
+ * The store keeps an index of the saved photos in memory in least recently used order; the index is written to disk
+ * periodically and loaded when the store is created, so the photos survive application restarts. The index is
+ * loaded in the background: until it is loaded, the store does not return and does not save any photo. The size of
+ * the store is limited by the number of photos and by the number of bytes they occupy (the least recently used photos
+ * are evicted first), and photos older than the configured expiry time are discarded.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class PhotoDiskStore implements PhotoStore {
+
+    private static final String INDEX_FILE = "index";
+    private static final String PHOTO_FILE_EXTENSION = ".jpg";
+    private static final String KEY_SEPARATOR = "/";
+    private static final int INDEX_VERSION = 2;
+    private static final long INDEX_SAVE_DELAY = 30;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final File directory;
+    private final int maxCount;
+    private final long maxSize;
+    private final long expiry;
+
+    /** the saved photos in least recently used order */
+    private final Map<Key, IndexEntry> index = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private long size;
+    private final LongAdder evictionCount = new LongAdder();
+    /* set once the index is loaded and the unindexed files are deleted, read without holding the lock */
+    private volatile boolean loaded;
+    private boolean indexSaveScheduled;
+    private final ScheduledExecutorService indexExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "openstreetcam-photo-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /**
+     * Builds a new store in the given directory. The index of the previously saved photos is loaded from the
+     * directory in the background, such that the store can be created on any thread.
+     *
+     * @param directory the directory where the photos are saved
+     * @param maxCount the maximum number of saved photos
+     * @param maxSize the maximum number of bytes occupied by the saved photos
+     * @param expiry the time in milliseconds after which a saved photo is discarded
+     */
+    PhotoDiskStore(final File directory, final int maxCount, final long maxSize, final long expiry) {
+        this.directory = directory;
+        this.maxCount = maxCount;
+        this.maxSize = maxSize;
+        this.expiry = expiry;
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logging.warn("Could not create photo cache directory " + directory);
+        }
+        indexExecutor.execute(this::load);
+    }
+
+
+    @Override
+    public ByteBuffer get(final Key key) {
+        IndexEntry entry = null;
+        if (loaded) {
+            synchronized (this) {
+                entry = index.get(key);
+                if (entry != null && isExpired(entry)) {
+                    remove(key);
+                    entry = null;
+                } else if (entry != null) {
+                    // the access order changed
+                    scheduleIndexSave();
+                }
+            }
+        }
+        ByteBuffer result = null;
+        if (entry != null) {
+            try {
+                result = ByteBuffer.wrap(Files.readAllBytes(new File(directory, entry.fileName).toPath()))
+                        .asReadOnlyBuffer();
+            } catch (final NoSuchFileException e) {
+                synchronized (this) {
+                    remove(key);
+                }
+            } catch (final IOException e) {
+                Logging.warn("Could not read cached photo " + key, e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(final Key key) {
+        boolean result = false;
+        if (loaded) {
+            synchronized (this) {
+                final IndexEntry entry = index.get(key);
+                result = entry != null && !isExpired(entry);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void put(final Key key, final byte[] content) {
+        if (loaded && key.getSequenceId() != null && content != null && content.length <= maxSize) {
+            final String fileName = fileName(key);
+            boolean saved = false;
+            try {
+                FileUtil.replace(new File(directory, fileName), out -> out.write(content));
+                saved = true;
+            } catch (final IOException e) {
+                Logging.warn("Could not save photo " + key + " to cache", e);
+            }
+            if (saved) {
+                synchronized (this) {
+                    final IndexEntry oldEntry =
+                            index.put(key, new IndexEntry(fileName, content.length, System.currentTimeMillis()));
+                    if (oldEntry != null) {
+                        size -= oldEntry.size;
+                    }
+                    size += content.length;
+                    evict();
+                    scheduleIndexSave();
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void saveIndex() {
+        indexSaveScheduled = false;
+        // an index that is not loaded yet would be saved empty and the saved photos would be deleted
+        if (loaded) {
+            try {
+                FileUtil.replace(new File(directory, INDEX_FILE), fileOut -> {
+                    final DataOutputStream out = new DataOutputStream(fileOut);
+                    out.writeInt(INDEX_VERSION);
+                    out.writeInt(index.size());
+                    for (final Map.Entry<Key, IndexEntry> mapEntry : index.entrySet()) {
+                        final IndexEntry entry = mapEntry.getValue();
+                        out.writeLong(mapEntry.getKey().getSequenceId());
+                        out.writeUTF(mapEntry.getKey().getImageName());
+                        out.writeLong(entry.size);
+                        out.writeLong(entry.created);
+                    }
+                    out.flush();
+                });
+            } catch (final IOException e) {
+                Logging.warn("Could not save photo cache index", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized int getCount() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private synchronized void load() {
+        loadIndex();
+        // before the store is used: a photo being saved is written to disk before it is added to the index
+        deleteUnindexedFiles();
+        loaded = true;
+    }
+
+    private void loadIndex() {
+        final File indexFile = new File(directory, INDEX_FILE);
+        if (indexFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+                if (in.readInt() == INDEX_VERSION) {
+                    final int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        final Key key = new Key(in.readLong(), in.readUTF());
+                        final IndexEntry entry =
+                                new IndexEntry(fileName(key), in.readLong(), in.readLong());
+                        if (isExpired(entry)) {
+                            deleteFile(entry.fileName);
+                        } else {
+                            index.put(key, entry);
+                            size += entry.size;
+                        }
+                    }
+                    evict();
+                }
+            } catch (final IOException e) {
+                Logging.warn("Could not read photo cache index, the cached photos are discarded", e);
+                index.clear();
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * Deletes the files that are not referenced by the index. Such files remain on the disk if the application
+     * stops before the index is saved.
+     */
+    private void deleteUnindexedFiles() {
+        final Set<String> fileNames = new HashSet<>();
+        for (final IndexEntry entry : index.values()) {
+            fileNames.add(entry.fileName);
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (!file.getName().equals(INDEX_FILE) && !fileNames.contains(file.getName())) {
+                    deleteFile(file.getName());
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        final Iterator<IndexEntry> iterator = index.values().iterator();
+        while ((size > maxSize || index.size() > maxCount) && iterator.hasNext()) {
+            final IndexEntry entry = iterator.next();
+            iterator.remove();
+            size -= entry.size;
+            deleteFile(entry.fileName);
+            evictionCount.increment();
+        }
+    }
+
+    private void remove(final Key key) {
+        final IndexEntry entry = index.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+            deleteFile(entry.fileName);
+            scheduleIndexSave();
+        }
+    }
+
+    private void scheduleIndexSave() {
+        if (!indexSaveScheduled) {
+            indexSaveScheduled = true;
+            indexExecutor.schedule(this::saveIndex, INDEX_SAVE_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean isExpired(final IndexEntry entry) {
+        return System.currentTimeMillis() - entry.created > expiry;
+    }
+
+    private void deleteFile(final String fileName) {
+        try {
+            Files.deleteIfExists(new File(directory, fileName).toPath());
+        } catch (final IOException e) {
+            Logging.warn("Could not delete cached photo " + fileName, e);
+        }
+    }
+
+    private static String fileName(final Key key) {
+        return FileUtil.sha1Hex(key.getSequenceId() + KEY_SEPARATOR + key.getImageName()) + PHOTO_FILE_EXTENSION;
+    }
+
+
+    /**
+     * Describes a saved photo.
+     */
+    private static final class IndexEntry {
+
+        private final String fileName;
+        private final long size;
+        private final long created;
+
+
+        private IndexEntry(final String fileName, final long size, final long created) {
+            this.fileName = fileName;
+            this.size = size;
+            this.created = created;
+        }
+    }
+}
\ No newline at end of file
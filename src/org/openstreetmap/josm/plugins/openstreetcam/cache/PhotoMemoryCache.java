@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.EvictionPolicy;
+
+
+/**
+ * Memory cache of downloaded photos. The number of cached photos is limited; the photos to evict are chosen by the
+ * configured {@code CachePolicy}. The cached keys are indexed by sequence, such that the photos of a sequence are
+ * counted, pinned or removed without scanning the whole cache.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class PhotoMemoryCache {
+
+    private final Map<Key, CacheEntry> entries = new HashMap<>();
+
+    /** the keys of the cached photos grouped by sequence identifier */
+    private final Map<Long, Set<Key>> sequenceKeys = new HashMap<>();
+    private final CachePolicy policy;
+    private long size;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+
+    /**
+     * Builds a new cache with the given capacity and eviction policy.
+     *
+     * @param capacity the maximum number of cached photos
+     * @param evictionPolicy the policy used to choose the photos to evict
+     */
+    PhotoMemoryCache(final int capacity, final EvictionPolicy evictionPolicy) {
+        this.policy = createPolicy(capacity, evictionPolicy);
+    }
+
+
+    static CachePolicy createPolicy(final int capacity, final EvictionPolicy evictionPolicy) {
+        final CachePolicy result;
+        switch (evictionPolicy) {
+            case TINY_LFU:
+                result = new TinyLfuPolicy(capacity);
+                break;
+            case SEQUENCE_LOCALITY:
+                result = new SequenceLocalityPolicy(capacity);
+                break;
+            default:
+                // LRU
+                result = new LruPolicy(capacity);
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached photo corresponding to the given key. The method returns null if the photo is not cached.
+     *
+     * @param key the key of the photo
+     * @return a {@code CacheEntry} object
+     */
+    synchronized CacheEntry get(final Key key) {
+        final CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            policy.recordAccess(key);
+            hitCount.increment();
+        } else {
+            policy.recordMiss(key);
+            missCount.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Verifies if the cache contains the given photo. The access is not recorded by the eviction policy.
+     *
+     * @param key the key of the photo
+     * @return true if the photo is cached, false otherwise
+     */
+    synchronized boolean contains(final Key key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Adds a photo to the cache. If the cache is full, the eviction policy decides which photo is evicted; the added
+     * photo itself might be rejected. A photo that is already cached is replaced, without evicting another photo.
+     *
+     * @param key the key of the photo
+     * @param entry the photo content
+     */
+    synchronized void put(final Key key, final CacheEntry entry) {
+        final CacheEntry oldEntry = entries.put(key, entry);
+        size += sizeOf(entry);
+        if (oldEntry != null) {
+            // the policy already tracks the key, replacing its photo is recorded as an access
+            size -= sizeOf(oldEntry);
+            policy.recordAccess(key);
+        } else {
+            addToIndex(key);
+            final Key victim = policy.add(key);
+            if (victim != null) {
+                size -= sizeOf(entries.remove(victim));
+                removeFromIndex(victim);
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes the given photo from the cache.
+     *
+     * @param key the key of the photo
+     */
+    synchronized void remove(final Key key) {
+        final CacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            size -= sizeOf(entry);
+            policy.remove(key);
+            removeFromIndex(key);
+        }
+    }
+
+    /**
+     * Removes the photos of the given sequence from the cache.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     */
+    synchronized void removeSequence(final Long sequenceId) {
+        final Set<Key> keys = sequenceKeys.remove(sequenceId);
+        if (keys != null) {
+            for (final Key key : keys) {
+                size -= sizeOf(entries.remove(key));
+                policy.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached photos of the given sequence.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     * @return the number of cached photos
+     */
+    synchronized int count(final Long sequenceId) {
+        final Set<Key> keys = sequenceKeys.get(sequenceId);
+        return keys != null ? keys.size() : 0;
+    }
+
+    /**
+     * Marks the given photos as being in use. Depending on the eviction policy, the pinned photos are kept in the
+     * cache in favour of the other photos.
+     *
+     * @param keys the keys of the photos in use
+     */
+    synchronized void pin(final Set<Key> keys) {
+        policy.pin(keys);
+    }
+
+    /**
+     * Marks the cached photos of the given sequence as being in use, see {@link #pin(Set)}.
+     *
+     * @param sequenceId the identifier of the sequence to which the photos belong
+     */
+    synchronized void pinSequence(final Long sequenceId) {
+        policy.pin(sequenceKeys.getOrDefault(sequenceId, Collections.emptySet()));
+    }
+
+    private void addToIndex(final Key key) {
+        if (key.getSequenceId() != null) {
+            sequenceKeys.computeIfAbsent(key.getSequenceId(), id -> new HashSet<>()).add(key);
+        }
+    }
+
+    private void removeFromIndex(final Key key) {
+        final Set<Key> keys = sequenceKeys.get(key.getSequenceId());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            sequenceKeys.remove(key.getSequenceId());
+        }
+    }
+
+    private static long sizeOf(final CacheEntry entry) {
+        return entry.getContent() != null ? entry.getContent().length : 0;
+    }
+
+    synchronized int getCount() {
+        return entries.size();
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openstreetmap.josm.plugins.openstreetcam.util.FileUtil;
+import org.openstreetmap.josm.tools.Logging;
+
+
+/**
+ * Persistent photo store that appends the photos to large memory-mapped segment files. The store keeps an index of
+ * the saved photos (segment, offset and length) in memory in least recently used order; the index is written to disk
+ * periodically and loaded in the background when the store is created. Until the index is loaded, the store does not
+ * return and does not save any photo. The saved photos are returned as slices of the mapped segments, without
+ * copying their content to the heap.
+ *
+ * <p>
+ * Evicted and expired photos leave unused space in their segments. A segment whose live content falls under a
+ * threshold is compacted: its remaining photos are copied to the end of the active segment and the segment file is
+ * deleted. Segments are never written in place, so the returned slices remain valid.
+ * </p>
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class PhotoSegmentStore implements PhotoStore {
+
+    private static final String INDEX_FILE = "index";
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_EXTENSION = ".dat";
+    private static final String FILE_MODE = "rw";
+    private static final int INDEX_VERSION = 2;
+    private static final long INDEX_SAVE_DELAY = 30;
+    private static final double COMPACTION_THRESHOLD = 0.5;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxCount;
+    private final long maxSize;
+    private final long expiry;
+
+    /** the saved photos in least recently used order */
+    private final Map<Key, Location> index = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private final Map<Integer, Segment> segments = new HashMap<>();
+    private final Set<Integer> compactionScheduled = new HashSet<>();
+    private Segment activeSegment;
+    private int nextSegmentId;
+
+    /** the number of bytes occupied by the saved photos */
+    private long size;
+    private final LongAdder evictionCount = new LongAdder();
+    /* set once the index is loaded and the unindexed files are deleted, read without holding the lock */
+    private volatile boolean loaded;
+    private boolean indexSaveScheduled;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "openstreetcam-segment-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /**
+     * Builds a new store in the given directory. The index of the previously saved photos is loaded from the
+     * directory in the background, such that the store can be created on any thread.
+     *
+     * @param directory the directory where the segment files are saved
+     * @param segmentSize the size in bytes of a segment file
+     * @param maxCount the maximum number of saved photos
+     * @param maxSize the maximum number of bytes occupied by the saved photos
+     * @param expiry the time in milliseconds after which a saved photo is discarded
+     */
+    PhotoSegmentStore(final File directory, final int segmentSize, final int maxCount, final long maxSize,
+            final long expiry) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxCount = maxCount;
+        this.maxSize = maxSize;
+        this.expiry = expiry;
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logging.warn("Could not create photo cache directory " + directory);
+        }
+        executor.execute(this::load);
+    }
+
+
+    @Override
+    public ByteBuffer get(final Key key) {
+        ByteBuffer result = null;
+        if (loaded) {
+            synchronized (this) {
+                final Location location = index.get(key);
+                if (location != null && isExpired(location)) {
+                    remove(key);
+                } else if (location != null) {
+                    final ByteBuffer buffer = segments.get(location.segmentId).buffer.duplicate();
+                    buffer.position(location.offset);
+                    buffer.limit(location.offset + location.length);
+                    result = buffer.slice().asReadOnlyBuffer();
+                    // the access order changed
+                    scheduleIndexSave();
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(final Key key) {
+        boolean result = false;
+        if (loaded) {
+            synchronized (this) {
+                final Location location = index.get(key);
+                result = location != null && !isExpired(location);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void put(final Key key, final byte[] content) {
+        if (loaded && key.getSequenceId() != null && content != null && content.length <= segmentSize
+                && content.length <= maxSize) {
+            synchronized (this) {
+                try {
+                    final Location location = append(content, System.currentTimeMillis());
+                    final Location oldLocation = index.put(key, location);
+                    if (oldLocation != null) {
+                        release(oldLocation);
+                    }
+                    size += content.length;
+                    evict();
+                    scheduleIndexSave();
+                    scheduleCompaction();
+                } catch (final IOException e) {
+                    Logging.warn("Could not save photo " + key + " to cache", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void saveIndex() {
+        indexSaveScheduled = false;
+        // an index that is not loaded yet would be saved empty and the saved photos would be deleted
+        if (loaded) {
+            try {
+                // the index must not reference photos that are not yet written to disk
+                for (final Segment segment : segments.values()) {
+                    if (segment.dirty) {
+                        segment.buffer.force();
+                        segment.dirty = false;
+                    }
+                }
+                FileUtil.replace(new File(directory, INDEX_FILE), fileOut -> {
+                    final DataOutputStream out = new DataOutputStream(fileOut);
+                    out.writeInt(INDEX_VERSION);
+                    out.writeInt(segmentSize);
+                    out.writeInt(segments.size());
+                    for (final Segment segment : segments.values()) {
+                        out.writeInt(segment.id);
+                        out.writeInt(segment.writePosition);
+                    }
+                    out.writeInt(index.size());
+                    for (final Map.Entry<Key, Location> mapEntry : index.entrySet()) {
+                        final Location location = mapEntry.getValue();
+                        out.writeLong(mapEntry.getKey().getSequenceId());
+                        out.writeUTF(mapEntry.getKey().getImageName());
+                        out.writeInt(location.segmentId);
+                        out.writeInt(location.offset);
+                        out.writeInt(location.length);
+                        out.writeLong(location.created);
+                    }
+                    out.flush();
+                });
+            } catch (final IOException e) {
+                Logging.warn("Could not save photo cache index", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized int getCount() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private synchronized void load() {
+        loadIndex();
+        // before the store is used: a new segment file is created before it is added to the known segments
+        deleteUnindexedFiles();
+        loaded = true;
+    }
+
+    private void loadIndex() {
+        final File indexFile = new File(directory, INDEX_FILE);
+        if (indexFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+                if (in.readInt() == INDEX_VERSION && in.readInt() == segmentSize) {
+                    final int segmentCount = in.readInt();
+                    for (int i = 0; i < segmentCount; i++) {
+                        final int segmentId = in.readInt();
+                        final int writePosition = in.readInt();
+                        final File file = segmentFile(segmentId);
+                        if (file.exists()) {
+                            final Segment segment = openSegment(segmentId);
+                            segment.writePosition = writePosition;
+                            segments.put(segmentId, segment);
+                            if (activeSegment == null || segmentId > activeSegment.id) {
+                                activeSegment = segment;
+                            }
+                        }
+                        nextSegmentId = Math.max(nextSegmentId, segmentId + 1);
+                    }
+                    final int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        final Key key = new Key(in.readLong(), in.readUTF());
+                        final Location location =
+                                new Location(in.readInt(), in.readInt(), in.readInt(), in.readLong());
+                        final Segment segment = segments.get(location.segmentId);
+                        if (segment != null && !isExpired(location)) {
+                            index.put(key, location);
+                            segment.liveSize += location.length;
+                            size += location.length;
+                        }
+                    }
+                    evict();
+                    scheduleCompaction();
+                }
+            } catch (final IOException e) {
+                Logging.warn("Could not read photo cache index, the cached photos are discarded", e);
+                index.clear();
+                segments.clear();
+                activeSegment = null;
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * Deletes the files that do not belong to a known segment. Such files remain on the disk if the application stops
+     * before the index is saved or if a compacted segment could not be deleted.
+     */
+    private void deleteUnindexedFiles() {
+        final Set<String> fileNames = new HashSet<>();
+        for (final Integer segmentId : segments.keySet()) {
+            fileNames.add(segmentFile(segmentId).getName());
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (!file.getName().equals(INDEX_FILE) && !fileNames.contains(file.getName())) {
+                    deleteFile(file);
+                }
+            }
+        }
+    }
+
+    private Location append(final byte[] content, final long created) throws IOException {
+        if (activeSegment == null || activeSegment.writePosition + content.length > segmentSize) {
+            activeSegment = openSegment(nextSegmentId++);
+            segments.put(activeSegment.id, activeSegment);
+        }
+        final ByteBuffer buffer = activeSegment.buffer.duplicate();
+        buffer.position(activeSegment.writePosition);
+        buffer.put(content);
+        final Location location = new Location(activeSegment.id, activeSegment.writePosition, content.length, created);
+        activeSegment.writePosition += content.length;
+        activeSegment.liveSize += content.length;
+        activeSegment.dirty = true;
+        return location;
+    }
+
+    private void evict() {
+        final Iterator<Location> iterator = index.values().iterator();
+        while ((size > maxSize || index.size() > maxCount) && iterator.hasNext()) {
+            final Location location = iterator.next();
+            iterator.remove();
+            release(location);
+            evictionCount.increment();
+        }
+    }
+
+    private void remove(final Key key) {
+        final Location location = index.remove(key);
+        if (location != null) {
+            release(location);
+            scheduleIndexSave();
+            scheduleCompaction();
+        }
+    }
+
+    private void release(final Location location) {
+        final Segment segment = segments.get(location.segmentId);
+        if (segment != null) {
+            segment.liveSize -= location.length;
+        }
+        size -= location.length;
+    }
+
+    private void scheduleCompaction() {
+        for (final Segment segment : segments.values()) {
+            if (segment != activeSegment && segment.liveSize < segment.writePosition * COMPACTION_THRESHOLD
+                    && compactionScheduled.add(segment.id)) {
+                final int segmentId = segment.id;
+                executor.execute(() -> compact(segmentId));
+            }
+        }
+    }
+
+    /**
+     * Copies the photos of the given segment to the active segment and deletes the segment. The photos keep their
+     * position in the least recently used order.
+     *
+     * @param segmentId the identifier of the segment to compact
+     */
+    private synchronized void compact(final int segmentId) {
+        compactionScheduled.remove(segmentId);
+        final Segment segment = segments.get(segmentId);
+        if (segment != null && segment != activeSegment) {
+            try {
+                for (final Map.Entry<Key, Location> mapEntry : index.entrySet()) {
+                    final Location location = mapEntry.getValue();
+                    if (location.segmentId == segmentId) {
+                        final ByteBuffer buffer = segment.buffer.duplicate();
+                        buffer.position(location.offset);
+                        final byte[] content = new byte[location.length];
+                        buffer.get(content);
+                        mapEntry.setValue(append(content, location.created));
+                        segment.liveSize -= location.length;
+                    }
+                }
+                segments.remove(segmentId);
+                // readers might still hold slices of the segment; the mapping stays valid until it is collected
+                deleteFile(segmentFile(segmentId));
+                scheduleIndexSave();
+            } catch (final IOException e) {
+                Logging.warn("Could not compact photo cache segment " + segmentId, e);
+            }
+        }
+    }
+
+    private void scheduleIndexSave() {
+        if (!indexSaveScheduled) {
+            indexSaveScheduled = true;
+            executor.schedule(this::saveIndex, INDEX_SAVE_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean isExpired(final Location location) {
+        return System.currentTimeMillis() - location.created > expiry;
+    }
+
+    private Segment openSegment(final int segmentId) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(segmentId), FILE_MODE);
+                FileChannel channel = file.getChannel()) {
+            // the mapping remains valid after the channel is closed
+            return new Segment(segmentId, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private File segmentFile(final int segmentId) {
+        return new File(directory, SEGMENT_FILE_PREFIX + segmentId + SEGMENT_FILE_EXTENSION);
+    }
+
+    private static void deleteFile(final File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (final IOException e) {
+            Logging.warn("Could not delete photo cache file " + file, e);
+        }
+    }
+
+
+    /**
+     * A memory-mapped segment file. Photos are only appended to a segment, the saved content is never overwritten.
+     */
+    private static final class Segment {
+
+        private final int id;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long liveSize;
+        private boolean dirty;
+
+
+        private Segment(final int id, final MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+    }
+
+
+    /**
+     * Describes the position of a saved photo.
+     */
+    private static final class Location {
+
+        private final int segmentId;
+        private final int offset;
+        private final int length;
+        private final long created;
+
+
+        private Location(final int segmentId, final int offset, final int length, final long created) {
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+            this.created = created;
+        }
+    }
+}
\ No newline at end of file
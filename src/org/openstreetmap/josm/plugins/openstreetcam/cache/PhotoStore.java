@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Defines the operations of a persistent photo store. The saved photos survive application restarts.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+interface PhotoStore {
+
+    /**
+     * Returns the content of the photo corresponding to the given key. The method returns null if the photo is not
+     * saved or if the saved photo is expired.
+     *
+     * @param key the key of the photo
+     * @return a read-only {@code ByteBuffer} holding the photo content
+     */
+    ByteBuffer get(Key key);
+
+    /**
+     * Verifies if the store contains the given photo.
+     *
+     * @param key the key of the photo
+     * @return true if the photo is saved and not expired, false otherwise
+     */
+    boolean contains(Key key);
+
+    /**
+     * Saves the given photo. If the store exceeds its maximum size, the least recently used photos are evicted.
+     *
+     * @param key the key of the photo
+     * @param content the content of the photo
+     */
+    void put(Key key, byte[] content);
+
+    /**
+     * Writes the index of the saved photos to disk.
+     */
+    void saveIndex();
+
+    /**
+     * Returns the number of saved photos.
+     *
+     * @return an {@code int} value
+     */
+    int getCount();
+
+    /**
+     * Returns the number of bytes occupied by the saved photos.
+     *
+     * @return a {@code long} value
+     */
+    long getSize();
+
+    /**
+     * Returns the number of photos evicted from the store since the application started.
+     *
+     * @return a {@code long} value
+     */
+    long getEvictionCount();
+}
\ No newline at end of file
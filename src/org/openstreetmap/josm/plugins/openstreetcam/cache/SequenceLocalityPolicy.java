@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+
+/**
+ * Cache policy that keeps the photos around the selected photo. The pinned keys (the photos of the current sequence
+ * that are close to the selected photo) are never evicted while other keys are cached; the remaining keys are evicted
+ * in least recently used order.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class SequenceLocalityPolicy extends LruPolicy {
+
+    private Set<Key> pinnedKeys = new HashSet<>();
+
+
+    /**
+     * Builds a new policy with the given capacity.
+     *
+     * @param capacity the maximum number of cached keys
+     */
+    SequenceLocalityPolicy(final int capacity) {
+        super(capacity);
+    }
+
+
+    @Override
+    public void pin(final Set<Key> keys) {
+        pinnedKeys = new HashSet<>(keys);
+    }
+
+    @Override
+    Key selectVictim() {
+        final Iterator<Key> iterator = iterator();
+        final Key first = iterator.next();
+        Key victim = pinnedKeys.contains(first) ? null : first;
+        while (victim == null && iterator.hasNext()) {
+            final Key key = iterator.next();
+            if (!pinnedKeys.contains(key)) {
+                victim = key;
+            }
+        }
+        // if every cached key is pinned the least recently used one is evicted
+        return victim != null ? victim : first;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import com.grab.josm.common.argument.BoundingBox;
+
+
+/**
+ * Defines a Web-Mercator (slippy map) tile. The tiles are used for caching the data of fixed areas, such that the
+ * data of the current map view can be assembled from the data of the covering tiles.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class Tile {
+
+    private static final double MAX_LAT = 85.0511287798;
+    private static final double MAX_LON = 180.0;
+    private static final double FULL_CIRCLE = 360.0;
+
+    private final int x;
+    private final int y;
+    private final int zoom;
+
+
+    /**
+     * Builds a new tile.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     * @param zoom the zoom level of the tile
+     */
+    public Tile(final int x, final int y, final int zoom) {
+        this.x = x;
+        this.y = y;
+        this.zoom = zoom;
+    }
+
+
+    /**
+     * Returns the tile containing the given location.
+     *
+     * @param lat the latitude of the location
+     * @param lon the longitude of the location
+     * @param zoom the zoom level of the tile
+     * @return a {@code Tile}
+     */
+    public static Tile at(final double lat, final double lon, final int zoom) {
+        return new Tile(clamp((int) Math.floor(x(lon, zoom)), zoom), clamp((int) Math.floor(y(lat, zoom)), zoom),
+                zoom);
+    }
+
+    /**
+     * Returns the tiles crossed by the line between the given locations, including the tiles of the locations.
+     *
+     * @param lat1 the latitude of the first location
+     * @param lon1 the longitude of the first location
+     * @param lat2 the latitude of the second location
+     * @param lon2 the longitude of the second location
+     * @param zoom the zoom level of the tiles
+     * @return a set of {@code Tile}s, ordered from the first to the second location
+     */
+    public static Set<Tile> crossedBy(final double lat1, final double lon1, final double lat2, final double lon2,
+            final int zoom) {
+        final double x1 = x(lon1, zoom);
+        final double y1 = y(lat1, zoom);
+        final double dx = x(lon2, zoom) - x1;
+        final double dy = y(lat2, zoom) - y1;
+        int column = clamp((int) Math.floor(x1), zoom);
+        int row = clamp((int) Math.floor(y1), zoom);
+        final int lastColumn = clamp((int) Math.floor(x1 + dx), zoom);
+        final int lastRow = clamp((int) Math.floor(y1 + dy), zoom);
+        final int stepX = Integer.signum(lastColumn - column);
+        final int stepY = Integer.signum(lastRow - row);
+        // the position on the line, from 0 to 1, at which the line crosses the next column and the next row boundary
+        double nextX = stepX != 0 ? (stepX > 0 ? column + 1 - x1 : x1 - column) / Math.abs(dx) : Double.MAX_VALUE;
+        double nextY = stepY != 0 ? (stepY > 0 ? row + 1 - y1 : y1 - row) / Math.abs(dy) : Double.MAX_VALUE;
+        final Set<Tile> result = new LinkedHashSet<>();
+        result.add(new Tile(column, row, zoom));
+        while (column != lastColumn || row != lastRow) {
+            if (column != lastColumn && (row == lastRow || nextX < nextY)) {
+                column += stepX;
+                nextX += 1 / Math.abs(dx);
+            } else {
+                row += stepY;
+                nextY += 1 / Math.abs(dy);
+            }
+            result.add(new Tile(column, row, zoom));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tiles covering the given area.
+     *
+     * @param area a {@code BoundingBox}
+     * @param zoom the zoom level of the tiles
+     * @return a set of {@code Tile}s, ordered by row and column
+     */
+    public static Set<Tile> covering(final BoundingBox area, final int zoom) {
+        final Tile northWest = at(area.getNorth(), area.getWest(), zoom);
+        final Tile southEast = southEast(area, northWest);
+        final Set<Tile> result = new LinkedHashSet<>();
+        for (int row = northWest.y; row <= southEast.y; row++) {
+            for (int column = northWest.x; column <= southEast.x; column++) {
+                result.add(new Tile(column, row, zoom));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tiles covering the given area.
+     *
+     * @param area a {@code BoundingBox}
+     * @param zoom the zoom level of the tiles
+     * @return the number of tiles
+     */
+    public static long count(final BoundingBox area, final int zoom) {
+        final Tile northWest = at(area.getNorth(), area.getWest(), zoom);
+        final Tile southEast = southEast(area, northWest);
+        return (long) (southEast.x - northWest.x + 1) * (southEast.y - northWest.y + 1);
+    }
+
+    /**
+     * Returns a small number of areas covering exactly the given tiles. Adjacent tiles from the same row are merged,
+     * and the resulting runs are merged with the identical runs of the next rows. The tiles must have the same zoom
+     * level.
+     *
+     * @param tiles a collection of {@code Tile}s
+     * @return a list of {@code BoundingBox}es
+     */
+    public static List<BoundingBox> mergedBounds(final Collection<Tile> tiles) {
+        final Map<Integer, TreeSet<Integer>> rows = new TreeMap<>();
+        int zoom = 0;
+        for (final Tile tile : tiles) {
+            rows.computeIfAbsent(tile.y, row -> new TreeSet<>()).add(tile.x);
+            zoom = tile.zoom;
+        }
+        final List<BoundingBox> result = new ArrayList<>();
+        // open rectangles: column run (first, last) -> first row
+        Map<List<Integer>, Integer> openRuns = new TreeMap<>(Tile::compareRuns);
+        int previousRow = Integer.MIN_VALUE;
+        for (final Map.Entry<Integer, TreeSet<Integer>> row : rows.entrySet()) {
+            final Map<List<Integer>, Integer> currentRuns = new TreeMap<>(Tile::compareRuns);
+            for (final List<Integer> run : runs(row.getValue())) {
+                final Integer firstRow = row.getKey() == previousRow + 1 ? openRuns.remove(run) : null;
+                currentRuns.put(run, firstRow != null ? firstRow : row.getKey());
+            }
+            for (final Map.Entry<List<Integer>, Integer> closedRun : openRuns.entrySet()) {
+                result.add(bounds(closedRun.getKey(), closedRun.getValue(), previousRow, zoom));
+            }
+            openRuns = currentRuns;
+            previousRow = row.getKey();
+        }
+        for (final Map.Entry<List<Integer>, Integer> closedRun : openRuns.entrySet()) {
+            result.add(bounds(closedRun.getKey(), closedRun.getValue(), previousRow, zoom));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the last tile covering the given area. The south and east edges of the area are exclusive, so an area
+     * ending exactly on a tile boundary does not include the next tile.
+     */
+    private static Tile southEast(final BoundingBox area, final Tile northWest) {
+        final int x = (int) Math.ceil(x(area.getEast(), northWest.zoom)) - 1;
+        final int y = (int) Math.ceil(y(area.getSouth(), northWest.zoom)) - 1;
+        return new Tile(Math.max(northWest.x, clamp(x, northWest.zoom)),
+                Math.max(northWest.y, clamp(y, northWest.zoom)), northWest.zoom);
+    }
+
+    private static double x(final double lon, final int zoom) {
+        return (lon + MAX_LON) / FULL_CIRCLE * (1 << zoom);
+    }
+
+    private static double y(final double lat, final int zoom) {
+        final double latRad = Math.toRadians(Math.max(-MAX_LAT, Math.min(MAX_LAT, lat)));
+        return (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1 << zoom);
+    }
+
+    private static int clamp(final int value, final int zoom) {
+        return Math.max(0, Math.min((1 << zoom) - 1, value));
+    }
+
+    private static List<List<Integer>> runs(final TreeSet<Integer> columns) {
+        final List<List<Integer>> result = new ArrayList<>();
+        final Iterator<Integer> iterator = columns.iterator();
+        int first = iterator.next();
+        int last = first;
+        while (iterator.hasNext()) {
+            final int column = iterator.next();
+            if (column != last + 1) {
+                result.add(Arrays.asList(first, last));
+                first = column;
+            }
+            last = column;
+        }
+        result.add(Arrays.asList(first, last));
+        return result;
+    }
+
+    private static int compareRuns(final List<Integer> run1, final List<Integer> run2) {
+        final int result = run1.get(0).compareTo(run2.get(0));
+        return result != 0 ? result : run1.get(1).compareTo(run2.get(1));
+    }
+
+    private static BoundingBox bounds(final List<Integer> run, final int firstRow, final int lastRow,
+            final int zoom) {
+        return new BoundingBox(lat(firstRow, zoom), lat(lastRow + 1, zoom), lon(run.get(1) + 1, zoom),
+                lon(run.get(0), zoom));
+    }
+
+    private static double lon(final int x, final int zoom) {
+        return x / (double) (1 << zoom) * FULL_CIRCLE - MAX_LON;
+    }
+
+    private static double lat(final int y, final int zoom) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / (double) (1 << zoom)))));
+    }
+
+    /**
+     * Returns the area covered by this tile.
+     *
+     * @return a {@code BoundingBox}
+     */
+    public BoundingBox getBounds() {
+        return new BoundingBox(lat(y, zoom), lat(y + 1, zoom), lon(x + 1, zoom), lon(x, zoom));
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + x;
+        result = prime * result + y;
+        result = prime * result + zoom;
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        boolean result = false;
+        if (this == obj) {
+            result = true;
+        } else if (obj != null && obj.getClass() == this.getClass()) {
+            final Tile other = (Tile) obj;
+            result = x == other.x && y == other.y && zoom == other.zoom;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return zoom + "/" + x + "/" + y;
+    }
+}
\ No newline at end of file
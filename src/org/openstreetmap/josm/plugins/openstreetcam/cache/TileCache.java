@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * In-memory cache of data grouped by map tiles. Every entry holds the items of a tile loaded with a given qualifier
+ * (for instance a search filter). The entries expire after a configured time to live, and the least recently used
+ * entries are evicted when the total weight of the cached items exceeds the configured limit.
+ *
+ * @author beataj
+ * @version $Revision$
+ * @param <T> the type of the cached items
+ */
+public final class TileCache<T> {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final long timeToLive;
+    private final long maxWeight;
+    private final ToLongFunction<List<T>> weigher;
+
+    /** the cached tiles in least recently used order */
+    private final Map<EntryKey, Entry<T>> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private long weight;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+
+    /**
+     * Builds a new cache that weighs the entries by their number of items.
+     *
+     * @param timeToLive the time in milliseconds after which a cached tile expires
+     * @param maxWeight the maximum total weight of the cached items
+     */
+    public TileCache(final long timeToLive, final long maxWeight) {
+        this(timeToLive, maxWeight, List::size);
+    }
+
+    /**
+     * Builds a new cache.
+     *
+     * @param timeToLive the time in milliseconds after which a cached tile expires
+     * @param maxWeight the maximum total weight of the cached items
+     * @param weigher computes the weight of the items of a tile
+     */
+    public TileCache(final long timeToLive, final long maxWeight, final ToLongFunction<List<T>> weigher) {
+        this.timeToLive = timeToLive;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+
+    /**
+     * Returns the items of the given tile. The method returns null if the tile is not cached or if it expired.
+     *
+     * @param tile a {@code Tile}
+     * @param qualifier the qualifier with which the items were loaded
+     * @return a list of items
+     */
+    public synchronized List<T> get(final Tile tile, final Object qualifier) {
+        final EntryKey key = new EntryKey(tile, qualifier);
+        Entry<T> entry = entries.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.created > timeToLive) {
+            remove(key);
+            entry = null;
+        }
+        if (entry != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return entry != null ? entry.items : null;
+    }
+
+    /**
+     * Caches the items of the given tile. If the cache exceeds its maximum weight, the least recently used tiles are
+     * evicted.
+     *
+     * @param tile a {@code Tile}
+     * @param qualifier the qualifier with which the items were loaded
+     * @param items the items of the tile
+     */
+    public synchronized void put(final Tile tile, final Object qualifier, final List<T> items) {
+        final long itemsWeight = weigher.applyAsLong(items);
+        if (itemsWeight <= maxWeight) {
+            final Entry<T> oldEntry = entries.put(new EntryKey(tile, qualifier),
+                    new Entry<>(items, itemsWeight, System.currentTimeMillis()));
+            if (oldEntry != null) {
+                weight -= oldEntry.weight;
+            }
+            weight += itemsWeight;
+            evict();
+        }
+    }
+
+    /**
+     * Caches the items of the given tiles, loaded with the same qualifier.
+     *
+     * @param tiles the items grouped by tiles
+     * @param qualifier the qualifier with which the items were loaded
+     */
+    public synchronized void putAll(final Map<Tile, List<T>> tiles, final Object qualifier) {
+        for (final Map.Entry<Tile, List<T>> tile : tiles.entrySet()) {
+            put(tile.getKey(), qualifier, tile.getValue());
+        }
+    }
+
+    /**
+     * Removes the given tiles, independently of the qualifier with which they were loaded.
+     *
+     * @param tiles a collection of {@code Tile}s
+     */
+    public synchronized void invalidate(final Collection<Tile> tiles) {
+        final Iterator<Map.Entry<EntryKey, Entry<T>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<EntryKey, Entry<T>> entry = iterator.next();
+            if (tiles.contains(entry.getKey().tile)) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached tiles.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private void evict() {
+        final Iterator<Entry<T>> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    private void remove(final EntryKey key) {
+        final Entry<T> entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+
+    /**
+     * Identifies a cached tile.
+     */
+    private static final class EntryKey {
+
+        private final Tile tile;
+        private final Object qualifier;
+
+
+        private EntryKey(final Tile tile, final Object qualifier) {
+            this.tile = tile;
+            this.qualifier = qualifier;
+        }
+
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tile, qualifier);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            boolean result = false;
+            if (this == obj) {
+                result = true;
+            } else if (obj instanceof EntryKey) {
+                final EntryKey other = (EntryKey) obj;
+                result = tile.equals(other.tile) && Objects.equals(qualifier, other.qualifier);
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     * Holds the items of a cached tile.
+     */
+    private static final class Entry<T> {
+
+        private final List<T> items;
+        private final long weight;
+        private final long created;
+
+
+        private Entry(final List<T> items, final long weight, final long created) {
+            this.items = items;
+            this.weight = weight;
+            this.created = created;
+        }
+    }
+}
\ No newline at end of file
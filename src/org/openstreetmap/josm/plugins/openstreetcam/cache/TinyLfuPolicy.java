@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.cache;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+
+/**
+ * Frequency aware cache policy, based on the W-TinyLFU admission policy. New keys enter a small least recently used
+ * window; a key leaving the window is admitted in the main area only if it was requested more frequently than the
+ * key it would evict. The request frequencies are estimated with a count-min sketch that is periodically aged, so
+ * photos that were prefetched but never viewed do not push out the photos that are viewed repeatedly.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class TinyLfuPolicy implements CachePolicy {
+
+    private static final int WINDOW_RATIO = 10;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final Set<Key> window = new LinkedHashSet<>();
+    private final Set<Key> main = new LinkedHashSet<>();
+    private final FrequencySketch sketch;
+    private Set<Key> pinnedKeys = new HashSet<>();
+
+
+    /**
+     * Builds a new policy with the given capacity.
+     *
+     * @param capacity the maximum number of cached keys
+     */
+    TinyLfuPolicy(final int capacity) {
+        windowCapacity = Math.max(1, capacity / WINDOW_RATIO);
+        mainCapacity = Math.max(0, capacity - windowCapacity);
+        sketch = new FrequencySketch(capacity);
+    }
+
+
+    @Override
+    public void recordAccess(final Key key) {
+        sketch.increment(key);
+        if (window.remove(key)) {
+            window.add(key);
+        } else if (main.remove(key)) {
+            main.add(key);
+        }
+    }
+
+    @Override
+    public void recordMiss(final Key key) {
+        sketch.increment(key);
+    }
+
+    @Override
+    public void pin(final Set<Key> keys) {
+        pinnedKeys = new HashSet<>(keys);
+    }
+
+    @Override
+    public Key add(final Key key) {
+        Key victim = null;
+        if (main.remove(key)) {
+            main.add(key);
+        } else {
+            window.remove(key);
+            window.add(key);
+            victim = window.size() > windowCapacity ? admit() : null;
+        }
+        return victim;
+    }
+
+    /**
+     * Moves the eldest key of the window to the main area, if its frequency is higher than the frequency of the
+     * main area's victim. A pinned candidate is always admitted: the prefetched photos around the selected photo were
+     * never requested yet, but they are likely to be viewed next.
+     *
+     * @return the evicted key or null if the candidate was added to the main area
+     */
+    private Key admit() {
+        final Key candidate = window.iterator().next();
+        window.remove(candidate);
+        Key victim = null;
+        if (main.size() < mainCapacity) {
+            main.add(candidate);
+        } else if (main.isEmpty()) {
+            victim = candidate;
+        } else {
+            final Key mainVictim = main.iterator().next();
+            if (pinnedKeys.contains(candidate) || sketch.frequency(candidate) > sketch.frequency(mainVictim)) {
+                main.remove(mainVictim);
+                main.add(candidate);
+                victim = mainVictim;
+            } else {
+                victim = candidate;
+            }
+        }
+        return victim;
+    }
+
+    @Override
+    public void remove(final Key key) {
+        if (!window.remove(key)) {
+            main.remove(key);
+        }
+    }
+
+
+    /**
+     * Count-min sketch with 4 bit counters. The counters are halved after a number of increments proportional to the
+     * cache capacity, such that old requests weigh less than recent ones.
+     */
+    private static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_FREQUENCY = 15;
+        private static final int MIN_WIDTH = 16;
+        private static final int SAMPLE_RATIO = 10;
+        private static final int[] SEEDS = { 0x97cb3127, 0x7f4a7c15, 0x5bd1e995, 0x2545f491 };
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+
+        private FrequencySketch(final int capacity) {
+            final int width = Integer.highestOneBit(Math.max(MIN_WIDTH, capacity - 1) << 1);
+            counters = new byte[DEPTH][width];
+            mask = width - 1;
+            sampleSize = Math.max(MIN_WIDTH, capacity) * SAMPLE_RATIO;
+        }
+
+
+        private void increment(final Key key) {
+            final int hash = key.hashCode();
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                final int index = index(hash, i);
+                if (counters[i][index] < MAX_FREQUENCY) {
+                    counters[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int frequency(final Key key) {
+            final int hash = key.hashCode();
+            int frequency = MAX_FREQUENCY;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (final byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int index(final int hash, final int row) {
+            int result = hash * SEEDS[row];
+            result ^= result >>> (Integer.SIZE / 2);
+            return result & mask;
+        }
+    }
+}
\ No newline at end of file
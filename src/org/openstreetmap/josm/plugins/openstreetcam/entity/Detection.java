@@ -19,8 +19,6 @@ import com.grab.josm.common.entity.EntityUtil;
  */
 public class Detection implements Comparable<Detection> {
 
-    // setters are not required,since GSON sets the fields directly using reflection.
-
     private final Long id;
     private Long sequenceId;
     private Integer sequenceIndex;
@@ -49,6 +47,62 @@ public class Detection implements Comparable<Detection> {
         this.editStatus = editStatus;
     }
 
+    Detection(final DetectionBuilder builder) {
+        this.id = builder.getId();
+        this.sequenceId = builder.getSequenceId();
+        this.sequenceIndex = builder.getSequenceIndex();
+        this.creationTimestamp = builder.getCreationTimestamp();
+        this.latestChangeTimestamp = builder.getLatestChangeTimestamp();
+        this.point = builder.getPoint();
+        this.sign = builder.getSign();
+        this.locationOnPhoto = builder.getLocationOnPhoto();
+        this.validationStatus = builder.getValidationStatus();
+        this.editStatus = builder.getEditStatus();
+        this.osmComparison = builder.getOsmComparison();
+        this.osmElements = builder.getOsmElements();
+        this.mode = builder.getMode();
+        this.author = builder.getAuthor();
+        this.facing = builder.getFacing();
+        this.distance = builder.getDistance();
+        this.angleFromCenter = builder.getAngleFromCenter();
+        this.orientation = builder.getOrientation();
+        this.confidenceLevel = builder.getConfidenceLevel();
+        this.trackingId = builder.getTrackingId();
+        this.automaticOcrValue = builder.getAutomaticOcrValue();
+        this.manualOcrValue = builder.getManualOcrValue();
+    }
+
+    /**
+     * Builds a copy of the given detection having the given edit status.
+     *
+     * @param detection a {@code Detection}
+     * @param editStatus the edit status of the copy
+     */
+    public Detection(final Detection detection, final EditStatus editStatus) {
+        this.id = detection.id;
+        this.sequenceId = detection.sequenceId;
+        this.sequenceIndex = detection.sequenceIndex;
+        this.creationTimestamp = detection.creationTimestamp;
+        this.latestChangeTimestamp = detection.latestChangeTimestamp;
+        this.point = detection.point;
+        this.sign = detection.sign;
+        this.locationOnPhoto = detection.locationOnPhoto;
+        this.validationStatus = detection.validationStatus;
+        this.editStatus = editStatus;
+        this.osmComparison = detection.osmComparison;
+        this.osmElements = detection.osmElements;
+        this.mode = detection.mode;
+        this.author = detection.author;
+        this.facing = detection.facing;
+        this.distance = detection.distance;
+        this.angleFromCenter = detection.angleFromCenter;
+        this.orientation = detection.orientation;
+        this.confidenceLevel = detection.confidenceLevel;
+        this.trackingId = detection.trackingId;
+        this.automaticOcrValue = detection.automaticOcrValue;
+        this.manualOcrValue = detection.manualOcrValue;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.gui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.ImageIcon;
+import org.openstreetmap.josm.plugins.openstreetcam.util.FileUtil;
+import org.openstreetmap.josm.tools.Logging;
+
+
+/**
+ * Atlas of rasterized detection icons. The atlas is a single file holding the ARGB pixels of every icon; it is
+ * memory-mapped when loaded, such that the icons are available without rendering their SVG sources. The atlas is
+ * discarded if its stamp (identifying the plugin version and the icon sizes) differs from the expected one.
+ * <p>
+ * Every saved atlas gets a new file, named after the atlas and a version number, and the newest file is loaded. A file
+ * is never replaced: on Windows a memory-mapped file cannot be replaced or deleted while another JOSM instance has it
+ * loaded. The older files are deleted at start-up, once they are no longer in use.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class DetectionIconAtlas {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String VERSION_SEPARATOR = ".";
+    private static final String FILE_EXTENSION = ".atlas";
+
+    private final File directory;
+    private final String name;
+    private final String stamp;
+
+    /** the position of the icons in the pixel buffer */
+    private final Map<String, Region> regions = new HashMap<>();
+    private IntBuffer pixels;
+
+
+    /**
+     * Builds a new atlas. The most recently saved atlas is loaded from the given directory, if its stamp matches.
+     *
+     * @param directory the directory of the atlas files
+     * @param name the name of the atlas, used as the prefix of its file names
+     * @param stamp identifies the icon set and the icon sizes
+     */
+    DetectionIconAtlas(final File directory, final String name, final String stamp) {
+        this.directory = directory;
+        this.name = name;
+        this.stamp = stamp;
+        load();
+    }
+
+
+    /**
+     * Returns the icon with the given key.
+     *
+     * @param key identifies the icon and its size
+     * @return an {@code ImageIcon}, or null if the atlas does not contain the icon
+     */
+    synchronized ImageIcon get(final String key) {
+        final Region region = regions.get(key);
+        ImageIcon result = null;
+        if (region != null) {
+            final BufferedImage image = new BufferedImage(region.width, region.height, BufferedImage.TYPE_INT_ARGB);
+            final int[] data = new int[region.width * region.height];
+            pixels.position(region.offset);
+            pixels.get(data);
+            image.setRGB(0, 0, region.width, region.height, data, 0, region.width);
+            result = new ImageIcon(image);
+        }
+        return result;
+    }
+
+    /**
+     * Saves the given icons to a new atlas file. The loaded atlas is not modified, the saved icons are used from the
+     * next session on.
+     *
+     * @param icons the icons to save, identified by their keys
+     */
+    void save(final Map<String, ImageIcon> icons) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logging.warn("Could not create directory " + directory);
+        }
+        try {
+            FileUtil.create(new File(directory, fileName(latestVersion() + 1)), fileOut -> {
+                final DataOutputStream out = new DataOutputStream(fileOut);
+                final Map<String, int[]> iconPixels = new HashMap<>();
+                for (final Map.Entry<String, ImageIcon> icon : icons.entrySet()) {
+                    iconPixels.put(icon.getKey(), pixels(icon.getValue()));
+                }
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, stamp);
+                out.writeInt(iconPixels.size());
+                int offset = 0;
+                for (final Map.Entry<String, ImageIcon> icon : icons.entrySet()) {
+                    writeString(out, icon.getKey());
+                    out.writeInt(icon.getValue().getIconWidth());
+                    out.writeInt(icon.getValue().getIconHeight());
+                    out.writeInt(offset);
+                    offset += iconPixels.get(icon.getKey()).length;
+                }
+                for (final Map.Entry<String, ImageIcon> icon : icons.entrySet()) {
+                    for (final int pixel : iconPixels.get(icon.getKey())) {
+                        out.writeInt(pixel);
+                    }
+                }
+                out.flush();
+            });
+        } catch (final FileAlreadyExistsException e) {
+            // another JOSM instance saved the same version in the meantime
+        } catch (final IOException e) {
+            Logging.warn("Could not save the detection icon atlas", e);
+        }
+    }
+
+    private void load() {
+        final int version = latestVersion();
+        deleteOlderVersions(version);
+        final File file = new File(directory, fileName(version));
+        if (file.exists()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() == FORMAT_VERSION && stamp.equals(readString(buffer))) {
+                    final int count = buffer.getInt();
+                    for (int i = 0; i < count; i++) {
+                        regions.put(readString(buffer), new Region(buffer.getInt(), buffer.getInt(), buffer.getInt()));
+                    }
+                    pixels = buffer.slice().asIntBuffer();
+                }
+            } catch (final IOException | RuntimeException e) {
+                Logging.warn("Could not read the detection icon atlas, the icons are rendered again", e);
+                regions.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the most recently saved atlas file, or 0 if there is no saved atlas.
+     */
+    private int latestVersion() {
+        int result = 0;
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                result = Math.max(result, version(file));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the atlas files older than the given version. A file that is still loaded by another JOSM instance
+     * cannot be deleted on Windows; it is deleted at one of the next start-ups.
+     */
+    private void deleteOlderVersions(final int version) {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final int fileVersion = version(file);
+                if (fileVersion > 0 && fileVersion < version) {
+                    try {
+                        Files.deleteIfExists(file.toPath());
+                    } catch (final IOException e) {
+                        Logging.debug("Could not delete the detection icon atlas " + file + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private String fileName(final int version) {
+        return name + VERSION_SEPARATOR + version + FILE_EXTENSION;
+    }
+
+    /**
+     * Returns the version of the given atlas file, or 0 if the file is not an atlas file.
+     */
+    private int version(final File file) {
+        final String fileName = file.getName();
+        final String prefix = name + VERSION_SEPARATOR;
+        int result = 0;
+        if (fileName.startsWith(prefix) && fileName.endsWith(FILE_EXTENSION)) {
+            try {
+                final String version =
+                        fileName.substring(prefix.length(), fileName.length() - FILE_EXTENSION.length());
+                result = Math.max(0, Integer.parseInt(version));
+            } catch (final NumberFormatException e) {
+                // not an atlas file
+            }
+        }
+        return result;
+    }
+
+    private static int[] pixels(final ImageIcon icon) {
+        final BufferedImage image =
+                new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = image.createGraphics();
+        icon.paintIcon(null, graphics, 0, 0);
+        graphics.dispose();
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Describes the position of an icon in the atlas.
+     */
+    private static final class Region {
+
+        private final int width;
+        private final int height;
+        private final int offset;
+
+
+        private Region(final int width, final int height, final int offset) {
+            this.width = width;
+            this.height = height;
+            this.offset = offset;
+        }
+    }
+}
\ No newline at end of file
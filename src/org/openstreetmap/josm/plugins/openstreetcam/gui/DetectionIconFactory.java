@@ -6,11 +6,16 @@
  */
 package org.openstreetmap.josm.plugins.openstreetcam.gui;
 
+import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.ImageIcon;
+import org.openstreetmap.josm.data.Preferences;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Sign;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.IconConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
 import org.openstreetmap.josm.tools.ImageProvider;
 import org.openstreetmap.josm.tools.ImageProvider.ImageSizes;
 import org.openstreetmap.josm.tools.JosmRuntimeException;
@@ -30,11 +35,25 @@ public enum DetectionIconFactory {
     private static final String UNKNOWN_ICON_NAME = "unknown.svg";
     private static final String SIGN_POST_TYPE = "SIGN_POST";
     private static final String SIGN_POST_ICON_NAME = "information--highway-interchange--g1.svg";
+    private static final String ATLAS_LOCATION = "cache";
+    private static final String ATLAS_NAME = "sign_icons";
+    private static final String KEY_SEPARATOR = "#";
     private final Map<String, Pair<ImageIcon, ImageIcon>> iconsMap;
 
+    /** the icons rasterized in a previous session */
+    private final DetectionIconAtlas atlas;
+
+    /** flag indicating if icons missing from the atlas were rendered */
+    private volatile boolean atlasChanged;
+
 
     private DetectionIconFactory() {
         iconsMap = new ConcurrentHashMap<>();
+        final File pluginDirectory =
+                new File(Preferences.main().getPluginsDirectory(), GuiConfig.getInstance().getPluginShortName());
+        final String stamp = PreferenceManager.getInstance().loadPluginLocalVersion() + KEY_SEPARATOR
+                + ImageSizes.LARGEICON.getAdjustedWidth() + KEY_SEPARATOR + ImageSizes.CURSOR.getAdjustedWidth();
+        atlas = new DetectionIconAtlas(new File(pluginDirectory, ATLAS_LOCATION), ATLAS_NAME, stamp);
     }
 
     public ImageIcon getIcon(final Sign sign, final boolean isSelected) {
@@ -46,7 +65,36 @@ public enum DetectionIconFactory {
         return isSelected ? iconPair.getSecond() : iconPair.getFirst();
     }
 
+    /**
+     * Saves the loaded icons to the atlas, if some of them were rendered in this session. The next session loads the
+     * icons from the atlas instead of rendering them.
+     */
+    public void saveAtlas() {
+        if (atlasChanged) {
+            atlasChanged = false;
+            final Map<String, ImageIcon> icons = new LinkedHashMap<>();
+            for (final Map.Entry<String, Pair<ImageIcon, ImageIcon>> entry : iconsMap.entrySet()) {
+                icons.put(key(entry.getKey(), ImageSizes.LARGEICON), entry.getValue().getFirst());
+                icons.put(key(entry.getKey(), ImageSizes.CURSOR), entry.getValue().getSecond());
+            }
+            atlas.save(icons);
+        }
+    }
+
     private ImageIcon loadIcon(final String name, final ImageSizes size) {
+        ImageIcon icon = atlas.get(key(name, size));
+        if (icon == null) {
+            icon = renderIcon(name, size);
+            atlasChanged = true;
+        }
+        return icon;
+    }
+
+    private static String key(final String name, final ImageSizes size) {
+        return name + KEY_SEPARATOR + size.name();
+    }
+
+    private ImageIcon renderIcon(final String name, final ImageSizes size) {
         final String iconPath = IconConfig.getInstance().getDetectionIconsPath() + DELIMITER + name;
         ImageIcon icon = null;
         try {
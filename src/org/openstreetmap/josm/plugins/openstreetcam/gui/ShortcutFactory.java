@@ -44,6 +44,9 @@ public final class ShortcutFactory {
                 guiConfig.getPluginShortcutText(), KeyEvent.VK_1, Shortcut.ALT_CTRL));
         map.put(guiConfig.getPluginShortcutText(), Shortcut.registerShortcut(guiConfig.getPluginDetectionShortcutText(),
                 guiConfig.getPluginDetectionShortcutText(), KeyEvent.VK_2, Shortcut.ALT_CTRL));
+        map.put(guiConfig.getPluginDiagnosticsShortcutText(),
+                Shortcut.registerShortcut(guiConfig.getPluginDiagnosticsShortcutText(),
+                        guiConfig.getPluginDiagnosticsShortcutText(), KeyEvent.CHAR_UNDEFINED, Shortcut.NONE));
         map.put(guiConfig.getBtnPreviousShortcutText(),
                 Shortcut.registerShortcut(guiConfig.getBtnPreviousShortcutText(),
                         guiConfig.getBtnPreviousShortcutText(), KeyEvent.VK_LEFT, Shortcut.ALT));
@@ -194,8 +194,9 @@ public final class DetectionDetailsDialog extends ToggleDialog {
         }
         if (DataSet.getInstance().hasSelectedCluster() && DataSet.getInstance().hasSelectedDetection()) {
             if (!isClusterInfoDisplayed) {
-                final Cluster cluster = ServiceHandler.getInstance()
-                        .retrieveClusterDetails(DataSet.getInstance().getSelectedCluster().getId());
+                final Cluster selectedCluster = DataSet.getInstance().getSelectedCluster();
+                final Cluster cluster = ServiceHandler.getInstance().retrieveClusterDetails(selectedCluster.getId(),
+                        selectedCluster.getLatestChangeTimestamp());
                 final ClusterBuilder builder = new ClusterBuilder(DataSet.getInstance().getSelectedCluster());
                 if (cluster.getOsmElements() != null) {
                     builder.osmElements(cluster.getOsmElements());
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.gui.details.diagnostics;
+
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.dialogs.ToggleDialog;
+import org.openstreetmap.josm.plugins.openstreetcam.cache.CacheManager;
+import org.openstreetmap.josm.plugins.openstreetcam.gui.ShortcutFactory;
+import org.openstreetmap.josm.plugins.openstreetcam.gui.preferences.PreferenceEditor;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.IconConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
+import org.openstreetmap.josm.tools.Logging;
+import com.grab.josm.common.gui.builder.ButtonBuilder;
+import com.grab.josm.common.gui.builder.ContainerBuilder;
+
+
+/**
+ * Defines the logic of the left side "OpenStreetCam diagnostics" panel. The panel displays the cache statistics, the
+ * photo decoding time and the latency, payload size, errors and concurrency of the service endpoints. The displayed
+ * values are refreshed periodically while the panel is shown, and can be exported in JSON format.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class DiagnosticsDialog extends ToggleDialog {
+
+    private static final long serialVersionUID = 2370474613487233208L;
+
+    /** preferred size */
+    private static final Dimension DIM = new Dimension(150, 150);
+
+    /** dialog default height */
+    private static final int DLG_HEIGHT = 150;
+
+    private static final int REFRESH_DELAY = 2000;
+    private static final String EXPORT_FILE = "openstreetcam_diagnostics.json";
+
+    private static DiagnosticsDialog instance = new DiagnosticsDialog();
+
+    /* dialog components */
+    private JTextArea txtMetrics;
+    private final transient Timer refreshTimer = new Timer(REFRESH_DELAY, event -> refresh());
+
+
+    private DiagnosticsDialog() {
+        super(GuiConfig.getInstance().getDiagnosticsDialogTitleName(),
+                IconConfig.getInstance().getDiagnosticsDialogShortcutName(),
+                GuiConfig.getInstance().getPluginDiagnosticsShortcutLongText(),
+                ShortcutFactory.getInstance().getShotrcut(GuiConfig.getInstance().getPluginDiagnosticsShortcutText()),
+                DLG_HEIGHT, true, PreferenceEditor.class);
+        txtMetrics = new JTextArea();
+        txtMetrics.setEditable(false);
+        txtMetrics.setFont(new Font(Font.MONOSPACED, Font.PLAIN, txtMetrics.getFont().getSize()));
+        final JButton btnExport =
+                ButtonBuilder.build(new ExportAction(), GuiConfig.getInstance().getBtnDiagnosticsExportLbl());
+        add(createLayout(ContainerBuilder.buildBorderLayoutPanel(null, new JScrollPane(txtMetrics),
+                ContainerBuilder.buildFlowLayoutPanel(FlowLayout.RIGHT, btnExport), null), false, null));
+        setPreferredSize(DIM);
+    }
+
+    /**
+     * Returns the unique instance of the diagnostics dialog window.
+     *
+     * @return a {@code DiagnosticsDialog}
+     */
+    public static synchronized DiagnosticsDialog getInstance() {
+        if (instance == null) {
+            instance = new DiagnosticsDialog();
+        }
+        return instance;
+    }
+
+    /**
+     * Destroys the instance of the dialog.
+     */
+    public static synchronized void destroyInstance() {
+        instance.refreshTimer.stop();
+        instance.txtMetrics = null;
+        instance = null;
+    }
+
+    @Override
+    public void showNotify() {
+        super.showNotify();
+        refresh();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void hideNotify() {
+        refreshTimer.stop();
+        super.hideNotify();
+    }
+
+    private void refresh() {
+        if (txtMetrics != null) {
+            txtMetrics.setText(
+                    Formatter.formatMetrics(CacheManager.getInstance().getTierStatistics(), Metrics.getInstance()));
+            txtMetrics.setCaretPosition(0);
+        }
+    }
+
+
+    /**
+     * Exports the current metrics to a JSON file.
+     *
+     * @author beataj
+     * @version $Revision$
+     */
+    private static final class ExportAction extends AbstractAction {
+
+        private static final long serialVersionUID = -4180539442717330451L;
+
+        @Override
+        public void actionPerformed(final ActionEvent event) {
+            final JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setCurrentDirectory(new File(System.getProperty("user.dir")));
+            fileChooser.setSelectedFile(new File(EXPORT_FILE));
+            fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+            if (fileChooser.showSaveDialog(MainApplication.getMainFrame()) == JFileChooser.APPROVE_OPTION) {
+                final String json = Metrics.getInstance().toJson(CacheManager.getInstance().getTierStatistics());
+                try {
+                    Files.write(fileChooser.getSelectedFile().toPath(), json.getBytes(StandardCharsets.UTF_8));
+                } catch (final IOException e) {
+                    Logging.warn("Could not export diagnostics", e);
+                    JOptionPane.showMessageDialog(MainApplication.getMainFrame(),
+                            GuiConfig.getInstance().getErrorDiagnosticsExportText(),
+                            GuiConfig.getInstance().getErrorTitle(), JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+}
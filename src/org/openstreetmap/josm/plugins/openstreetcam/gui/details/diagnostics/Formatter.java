@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.gui.details.diagnostics;
+
+import java.util.List;
+import java.util.Map;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.EndpointMetrics;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Histogram;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.TierStatistics;
+
+
+/**
+ * Utility class, formats the collected metrics as plain text tables.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class Formatter {
+
+    private static final String TIER_HEADER = String.format("%-8s %9s %9s %6s %9s %8s %9s%n", "Cache", "hits",
+            "misses", "ratio", "evictions", "entries", "MB");
+    private static final String TIER_ROW = "%-8s %9d %9d %5.1f%% %9d %8d %9.1f%n";
+    private static final String TIME_HEADER = String.format("%-30s %7s %8s %8s %8s %8s %8s %6s%n", "Time (ms)",
+            "count", "mean", "p50", "p90", "p99", "max", "errors");
+    private static final String TIME_ROW = "%-30s %7d %8.1f %8.1f %8.1f %8.1f %8.1f %6s%n";
+    private static final String SIZE_HEADER = String.format("%-30s %10s %10s %10s%n", "Payload (KB)", "mean", "p90",
+            "max");
+    private static final String SIZE_ROW = "%-30s %10.1f %10.1f %10.1f%n";
+    private static final String CONCURRENCY_HEADER = String.format("%-30s %7s %9s %7s %8s %9s%n", "Concurrency",
+            "limit", "in flight", "queued", "retries", "coalesced");
+    private static final String CONCURRENCY_ROW = "%-30s %7d %9d %7d %8d %9d%n";
+    private static final String DECODE = "photo decoding";
+    private static final double PERCENT = 100.0;
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double BYTES_PER_KB = 1024.0;
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+    private static final double P50 = 50;
+    private static final double P90 = 90;
+    private static final double P99 = 99;
+
+    private Formatter() {}
+
+    /**
+     * Returns a text report of the given cache statistics and of the metrics collected by the given registry.
+     *
+     * @param tiers the statistics of the cache tiers
+     * @param metrics the metrics registry
+     * @return a {@code String}
+     */
+    static String formatMetrics(final List<TierStatistics> tiers, final Metrics metrics) {
+        final StringBuilder sb = new StringBuilder(TIER_HEADER);
+        for (final TierStatistics tier : tiers) {
+            sb.append(String.format(TIER_ROW, tier.getName(), tier.getHitCount(), tier.getMissCount(),
+                    tier.getHitRatio() * PERCENT, tier.getEvictionCount(), tier.getEntryCount(),
+                    tier.getSize() / BYTES_PER_MB));
+        }
+        final Map<String, EndpointMetrics> endpoints = metrics.getEndpoints();
+        sb.append(System.lineSeparator()).append(TIME_HEADER);
+        sb.append(formatTime(DECODE, metrics.getDecodeTime(), ""));
+        for (final Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            sb.append(formatTime(entry.getKey(), entry.getValue().getLatency(),
+                    Long.toString(entry.getValue().getErrorCount())));
+        }
+        sb.append(System.lineSeparator()).append(SIZE_HEADER);
+        for (final Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            final Histogram payloadSize = entry.getValue().getPayloadSize();
+            sb.append(String.format(SIZE_ROW, entry.getKey(), payloadSize.getMean() / BYTES_PER_KB,
+                    payloadSize.getPercentile(P90) / BYTES_PER_KB, payloadSize.getMax() / BYTES_PER_KB));
+        }
+        sb.append(System.lineSeparator()).append(CONCURRENCY_HEADER);
+        for (final Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            final EndpointMetrics endpoint = entry.getValue();
+            sb.append(String.format(CONCURRENCY_ROW, entry.getKey(), endpoint.getConcurrencyLimit(),
+                    endpoint.getInFlight(), endpoint.getQueueDepth(), endpoint.getRetryCount(),
+                    endpoint.getCoalescedCount()));
+        }
+        return sb.toString();
+    }
+
+    private static String formatTime(final String name, final Histogram histogram, final String errors) {
+        return String.format(TIME_ROW, name, histogram.getCount(), histogram.getMean() / MICROS_PER_MILLI,
+                histogram.getPercentile(P50) / MICROS_PER_MILLI, histogram.getPercentile(P90) / MICROS_PER_MILLI,
+                histogram.getPercentile(P99) / MICROS_PER_MILLI, histogram.getMax() / MICROS_PER_MILLI, errors);
+    }
+}
@@ -0,0 +1 @@
+package org.openstreetmap.josm.plugins.openstreetcam.gui.details.diagnostics;
\ No newline at end of file
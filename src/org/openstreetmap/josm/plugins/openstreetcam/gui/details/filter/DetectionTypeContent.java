@@ -34,6 +34,7 @@ public class DetectionTypeContent {
                 allSigns.remove(BLURRING_TYPE);
                 //add all icons to hash so they do not cause delay on request while the plugin is running
                 signs.forEach(sign -> DetectionIconFactory.INSTANCE.getIcon(sign, false));
+                DetectionIconFactory.INSTANCE.saveAtlas();
             }
         }
     }
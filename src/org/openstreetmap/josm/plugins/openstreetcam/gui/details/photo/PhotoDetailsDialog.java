@@ -8,8 +8,11 @@ package org.openstreetmap.josm.plugins.openstreetcam.gui.details.photo;
 
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 import org.openstreetmap.josm.gui.dialogs.ToggleDialog;
@@ -22,6 +25,7 @@ import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.ShortcutFactory;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.preferences.PreferenceEditor;
 import org.openstreetmap.josm.plugins.openstreetcam.handler.PhotoHandler;
+import org.openstreetmap.josm.plugins.openstreetcam.handler.PhotoHandlerException;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.DetectionSelectionObserver;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.LocationObserver;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.MapViewTypeChangeObserver;
@@ -62,10 +66,16 @@ public final class PhotoDetailsDialog extends ToggleDialog {
     /** the dimension of the dialog window, it is used to detect if the user had maximized or not the dialog window */
     private Dimension size;
 
-    /** the currently selected element */
-    private transient Pair<Photo, PhotoSize> selectedElement;
+    /**
+     * the currently displayed photo and the size of the displayed image; it is written on the EDT and read by the
+     * photo loading threads
+     */
+    private transient volatile Pair<Photo, PhotoSize> selectedElement;
     private boolean isDetached = false;
 
+    /** identifies the most recent photo loading request, the images loaded by previous requests are dropped */
+    private final AtomicLong loadRequest = new AtomicLong();
+
 
     private PhotoDetailsDialog() {
         super(GuiConfig.getInstance().getPluginShortName(), IconConfig.getInstance().getDialogShortcutName(),
@@ -156,25 +166,29 @@ public final class PhotoDetailsDialog extends ToggleDialog {
     }
 
     /**
-     * Updates the details dialog with the details of the given photo.
+     * Updates the details dialog with the details of the given photo. The photo is loaded progressively: the smaller
+     * sizes of the photo are displayed as soon as they are loaded, and are replaced by the requested size.
      *
      * @param photo the currently selected {@code Photo}
      * @param photoType the type of photo to be loaded
      * @param displayLoadingMessage specifies if the loading message is displayed or not. The loading message is
-     * displayed until the photo is loaded.
+     * displayed until the first image of the photo is loaded.
      */
     public void updateUI(final Photo photo, final PhotoSize photoType, final boolean displayLoadingMessage) {
         if (photo != null) {
             // display loading text
             if (displayLoadingMessage) {
                 pnlPhoto.displayLoadingMessage();
+                selectedElement = null;
             }
             pnlBtn.updateUI(photo);
             repaint();
 
             // load image
-            ThreadPool.getInstance().execute(() -> loadPhoto(photo, photoType));
+            loadPhoto(photo, photoType);
         } else {
+            loadRequest.incrementAndGet();
+            selectedElement = null;
             pnlDetails.updateUI(null, false);
             pnlDetails.setToolTipText("");
             pnlPhoto.updateUI(null, null);
@@ -185,27 +199,91 @@ public final class PhotoDetailsDialog extends ToggleDialog {
 
     private void loadPhoto(final Photo photo, final PhotoSize photoType) {
         final PhotoSize finalPhotoType = photoType == null ? PhotoSize.LARGE_THUMBNAIL : photoType;
+        final long request = loadRequest.incrementAndGet();
+        final Dimension targetSize = pnlPhoto.getSize();
+        // the smaller sizes are only needed while the final size is downloaded
+        final boolean finalCached = PhotoHandler.getInstance().isCached(photo, finalPhotoType);
+        for (final PhotoSize photoSize : PhotoSize.values()) {
+            final boolean isFinal = photoSize == finalPhotoType;
+            // the smaller sizes are loaded in parallel, unless a better image of the photo is already displayed
+            if (isFinal || (!finalCached && photoSize.ordinal() < finalPhotoType.ordinal()
+                    && !isDisplayed(photo, photoSize))) {
+                ThreadPool.getInstance().execute(() -> loadPhoto(photo, photoSize, targetSize, isFinal, request));
+            }
+        }
+    }
+
+    private void loadPhoto(final Photo photo, final PhotoSize photoType, final Dimension targetSize,
+            final boolean isFinal, final long request) {
         try {
             final Pair<BufferedImage, PhotoSize> imageResult =
-                    PhotoHandler.getInstance().loadPhoto(photo, finalPhotoType);
-            selectedElement = new Pair<>(photo, imageResult.getSecond());
-            SwingUtilities.invokeLater(() -> {
-                if (imageResult.getFirst() != null && DataSet.getInstance().getSelectedPhoto() != null) {
-                    if (PreferenceManager.getInstance().loadPhotoSettings().isHighQualityFlag()
-                            && !imageResult.getSecond().equals(PhotoSize.HIGH_QUALITY)) {
-                        pnlDetails.updateUI(photo, true);
-                        pnlDetails.setToolTipText(GuiConfig.getInstance().getWarningHighQualityPhoto());
-                    } else {
-                        pnlDetails.updateUI(photo, false);
-                        pnlDetails.setToolTipText(null);
+                    PhotoHandler.getInstance().loadPhoto(photo, photoType, targetSize);
+            SwingUtilities.invokeLater(() -> displayPhoto(photo, imageResult, isFinal, request));
+        } catch (final Exception e) {
+            if (isFinal) {
+                SwingUtilities.invokeLater(() -> {
+                    // keep the smaller image if it was already displayed
+                    if (request == loadRequest.get() && selectedElement == null) {
+                        pnlPhoto.displayErrorMessage();
+                        repaint();
                     }
-                    pnlPhoto.updateUI(imageResult.getFirst(), photo.getDetections());
+                });
+            }
+        }
+    }
+
+    private void displayPhoto(final Photo photo, final Pair<BufferedImage, PhotoSize> imageResult,
+            final boolean isFinal, final long request) {
+        // images of a photo that is no longer selected are dropped
+        if (request == loadRequest.get() && imageResult.getFirst() != null
+                && DataSet.getInstance().getSelectedPhoto() != null) {
+            final Pair<Photo, PhotoSize> displayedElement = selectedElement;
+            final boolean isNewPhoto = displayedElement == null || !displayedElement.getFirst().equals(photo);
+            final boolean isBetterImage =
+                    isNewPhoto || imageResult.getSecond().ordinal() > displayedElement.getSecond().ordinal();
+            if (isBetterImage || isFinal) {
+                if (isFinal && PreferenceManager.getInstance().loadPhotoSettings().isHighQualityFlag()
+                        && !imageResult.getSecond().equals(PhotoSize.HIGH_QUALITY)) {
+                    pnlDetails.updateUI(photo, true);
+                    pnlDetails.setToolTipText(GuiConfig.getInstance().getWarningHighQualityPhoto());
+                } else {
+                    pnlDetails.updateUI(photo, false);
+                    pnlDetails.setToolTipText(null);
                 }
-            });
-        } catch (final Exception e) {
-            pnlPhoto.displayErrorMessage();
+                if (isNewPhoto) {
+                    pnlPhoto.updateUI(imageResult.getFirst(), photo.getDetections(),
+                            regionLoader(photo, imageResult.getSecond()));
+                } else if (isBetterImage) {
+                    // the zoomed part of the photo is kept
+                    pnlPhoto.updateImage(imageResult.getFirst(), regionLoader(photo, imageResult.getSecond()));
+                } else {
+                    pnlPhoto.updateDetections(photo.getDetections());
+                }
+                if (isBetterImage) {
+                    selectedElement = new Pair<>(photo, imageResult.getSecond());
+                }
+                repaint();
+            }
         }
-        repaint();
+    }
+
+    private static BiFunction<Rectangle2D, Dimension, BufferedImage> regionLoader(final Photo photo,
+            final PhotoSize photoSize) {
+        return (region, targetSize) -> {
+            BufferedImage result = null;
+            try {
+                result = PhotoHandler.getInstance().loadPhotoRegion(photo, photoSize, region, targetSize);
+            } catch (final PhotoHandlerException e) {
+                // the already displayed image is kept
+            }
+            return result;
+        };
+    }
+
+    private boolean isDisplayed(final Photo photo, final PhotoSize photoSize) {
+        final Pair<Photo, PhotoSize> displayedElement = selectedElement;
+        return displayedElement != null && displayedElement.getFirst().equals(photo)
+                && displayedElement.getSecond().ordinal() >= photoSize.ordinal();
     }
 
     /**
@@ -26,8 +26,11 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.BiFunction;
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import org.openstreetmap.josm.plugins.openstreetcam.DataSet;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
 import org.openstreetmap.josm.plugins.openstreetcam.observer.DetectionSelectionObservable;
@@ -35,6 +38,7 @@ import org.openstreetmap.josm.plugins.openstreetcam.observer.DetectionSelectionO
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
 import com.grab.josm.common.entity.Pair;
 import com.grab.josm.common.gui.builder.LabelBuilder;
+import com.grab.josm.common.thread.ThreadPool;
 
 
 /**
@@ -51,6 +55,7 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
     private static final float BORDER_SIZE = 3;
     private static final Color SELECTED_SIGN_COLOR = new Color(0, 191, 255);
     private static final Color UNSELECTED_SIGN_COLOR = new Color(255, 0, 0);
+    private static final int REGION_LOAD_DELAY = 200;
 
     private transient BufferedImage image;
 
@@ -70,6 +75,21 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
     private transient DetectionSelectionObserver detectionSelectionObserver;
     private transient List<Detection> detections;
 
+    /**
+     * loads a part of the displayed photo, given in relative coordinates, at the resolution needed by the given size;
+     * the image might be decoded at a lower resolution than the photo
+     */
+    private transient BiFunction<Rectangle2D, Dimension, BufferedImage> regionLoader;
+
+    /** a higher resolution image of the part of the photo given by the region view */
+    private transient BufferedImage regionImage;
+    private Rectangle regionView;
+
+    /** the part of the photo for which a higher resolution image is scheduled for loading */
+    private Rectangle pendingRegionView;
+    private int regionRequest;
+    private final Timer regionTimer;
+
 
     PhotoPanel() {
         super(new BorderLayout());
@@ -78,17 +98,52 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
         addMouseWheelListener(this);
         addMouseListener(new MousePressedAdapter());
         addMouseMotionListener(new MouseDraggedAdapter());
+        regionTimer = new Timer(REGION_LOAD_DELAY, e -> loadRegion());
+        regionTimer.setRepeats(false);
     }
 
     void updateUI(final BufferedImage image, final List<Detection> detections) {
+        updateUI(image, detections, null);
+    }
+
+    void updateUI(final BufferedImage image, final List<Detection> detections,
+            final BiFunction<Rectangle2D, Dimension, BufferedImage> regionLoader) {
         removeAll();
         this.image = image;
         this.detections = detections;
+        resetRegion(regionLoader);
         initializeCurrentImageView();
         revalidate();
         repaint();
     }
 
+    /**
+     * Replaces the displayed image with another image of the same photo, for instance with a higher resolution image.
+     * The currently displayed part of the photo is kept.
+     *
+     * @param image the new image of the photo
+     * @param regionLoader loads a part of the photo at a higher resolution than the image
+     */
+    void updateImage(final BufferedImage image,
+            final BiFunction<Rectangle2D, Dimension, BufferedImage> regionLoader) {
+        if (this.image != null && currentView != null && image != null) {
+            final double widthRatio = (double) image.getWidth() / this.image.getWidth();
+            final double heightRatio = (double) image.getHeight() / this.image.getHeight();
+            final int width = Math.min((int) Math.round(currentView.width * widthRatio), image.getWidth());
+            final int height = Math.min((int) Math.round(currentView.height * heightRatio), image.getHeight());
+            final int x = Math.max(0, Math.min((int) Math.round(currentView.x * widthRatio), image.getWidth() - width));
+            final int y =
+                    Math.max(0, Math.min((int) Math.round(currentView.y * heightRatio), image.getHeight() - height));
+            this.image = image;
+            resetRegion(regionLoader);
+            currentView = new Rectangle(x, y, width, height);
+            revalidate();
+            repaint();
+        } else {
+            updateUI(image, detections, regionLoader);
+        }
+    }
+
     void updateDetections(final List<Detection> detections) {
         this.detections = detections;
         revalidate();
@@ -119,6 +174,7 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
         removeAll();
         setBackground(Color.white);
         image = null;
+        resetRegion(null);
         currentView = null;
         add(LabelBuilder.build(GuiConfig.getInstance().getErrorLoadingPhotoPanelText(), Font.BOLD, Color.white),
                 BorderLayout.CENTER);
@@ -130,6 +186,7 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
         removeAll();
         setBackground(Color.white);
         image = null;
+        resetRegion(null);
         currentView = null;
         add(LabelBuilder.build(GuiConfig.getInstance().getWarningLoadingPhoto(), Font.BOLD, Color.white),
                 BorderLayout.CENTER);
@@ -273,8 +330,13 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
             } else {
                 matchImageOnPanel();
             }
-            g.drawImage(image, frame.x, frame.y, frame.x + frame.width, frame.y + frame.height, currentView.x,
-                    currentView.y, currentView.x + currentView.width, currentView.y + currentView.height, null);
+            if (regionImage != null && currentView.equals(regionView)) {
+                g.drawImage(regionImage, frame.x, frame.y, frame.width, frame.height, null);
+            } else {
+                g.drawImage(image, frame.x, frame.y, frame.x + frame.width, frame.y + frame.height, currentView.x,
+                        currentView.y, currentView.x + currentView.width, currentView.y + currentView.height, null);
+                scheduleRegionLoad();
+            }
             drawDetections((Graphics2D) g);
         }
         size = getSize();
@@ -361,6 +423,50 @@ class PhotoPanel extends JPanel implements MouseWheelListener, DetectionSelectio
         }
     }
 
+    private void resetRegion(final BiFunction<Rectangle2D, Dimension, BufferedImage> regionLoader) {
+        this.regionLoader = regionLoader;
+        regionImage = null;
+        regionView = null;
+        pendingRegionView = null;
+        regionRequest++;
+        regionTimer.stop();
+    }
+
+    /**
+     * Schedules the loading of a higher resolution image of the displayed part of the photo, if the displayed part is
+     * enlarged on the panel. The image is loaded after the user stops zooming or panning.
+     */
+    private void scheduleRegionLoad() {
+        if (regionLoader != null && (frame.width > currentView.width || frame.height > currentView.height)
+                && !currentView.equals(pendingRegionView)) {
+            pendingRegionView = new Rectangle(currentView);
+            regionTimer.restart();
+        }
+    }
+
+    private void loadRegion() {
+        if (image != null && currentView != null && currentView.equals(pendingRegionView)) {
+            final int request = ++regionRequest;
+            final Rectangle view = new Rectangle(currentView);
+            final Rectangle2D region = new Rectangle2D.Double((double) view.x / image.getWidth(),
+                    (double) view.y / image.getHeight(), (double) view.width / image.getWidth(),
+                    (double) view.height / image.getHeight());
+            final Dimension targetSize = new Dimension(frame.width, frame.height);
+            final BiFunction<Rectangle2D, Dimension, BufferedImage> loader = regionLoader;
+            ThreadPool.getInstance().execute(() -> {
+                final BufferedImage result = loader.apply(region, targetSize);
+                SwingUtilities.invokeLater(() -> {
+                    // the result is null if the photo has no higher resolution than the displayed image
+                    if (request == regionRequest && result != null) {
+                        regionImage = result;
+                        regionView = view;
+                        repaint();
+                    }
+                });
+            });
+        }
+    }
+
     @Override
     public void registerObserver(final DetectionSelectionObserver detectionSelectionObserver) {
         this.detectionSelectionObserver = detectionSelectionObserver;
@@ -15,7 +15,9 @@ import org.openstreetmap.josm.data.Bounds;
 import org.openstreetmap.josm.gui.MapView;
 import org.openstreetmap.josm.plugins.openstreetcam.DataSet;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.DataType;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
 import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
+import com.grab.josm.common.entity.Pair;
 
 
 /**
@@ -62,6 +64,12 @@ public final class OpenStreetCamLayer extends AbtractLayer {
             final Stroke originalStorke = graphics.getStroke();
             if (dataSet.hasSegments()) {
                 paintHandler.drawSegments(graphics, mapView, dataSet.getSegments());
+                final Pair<Integer, Integer> segmentProgress = dataSet.getSegmentProgress();
+                if (segmentProgress != null) {
+                    paintHandler.drawProgress(graphics, mapView,
+                            String.format(GuiConfig.getInstance().getInfoSegmentProgressText(),
+                                    segmentProgress.getFirst(), segmentProgress.getSecond()));
+                }
             } else {
                 // draw photos
                 final boolean isTransparent =
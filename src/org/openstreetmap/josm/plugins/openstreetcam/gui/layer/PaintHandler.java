@@ -9,6 +9,7 @@ package org.openstreetmap.josm.plugins.openstreetcam.gui.layer;
 import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.ARROW_LENGTH;
 import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.MIN_ARROW_ZOOM;
 import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.OPAQUE_COMPOSITE;
+import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.PROGRESS_TEXT_MARGIN;
 import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.SEGMENT_COLOR;
 import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.SEGMENT_STROKE;
 import static org.openstreetmap.josm.plugins.openstreetcam.gui.layer.Constants.SEQUENCE_LINE;
@@ -86,6 +87,19 @@ class PaintHandler {
         }
     }
 
+    /**
+     * Draws the given progress text in the lower left corner of the map view.
+     *
+     * @param graphics a {@code Graphics2D} used to draw elements to the map
+     * @param mapView a {@code MapView} represents the current map view
+     * @param text the progress text
+     */
+    void drawProgress(final Graphics2D graphics, final MapView mapView, final String text) {
+        final Point textPoint = new Point(PROGRESS_TEXT_MARGIN, mapView.getHeight() - PROGRESS_TEXT_MARGIN);
+        PaintManager.drawText(graphics, text, textPoint, mapView.getFont().deriveFont(Font.BOLD), Color.WHITE,
+                Color.BLACK, OPAQUE_COMPOSITE);
+    }
+
     /**
      * Draws a list of photo locations to the map. The photo locations are rotated based on heading if available.
      *
@@ -105,16 +105,34 @@ final class Constraints {
     static final GridBagConstraints SP_DISK_COUNT = new GridBagConstraints(1, 25, 1, 1, 0, 0, GridBagConstraints.CENTER,
             GridBagConstraints.HORIZONTAL, new Insets(2, 5, 3, 0), 0, 0);
 
-    static final GridBagConstraints LBL_PREV_NEXT_COUNT = new GridBagConstraints(0, 26, 1, 1, 0, 0,
+    static final GridBagConstraints LBL_DISK_SIZE = new GridBagConstraints(0, 26, 1, 1, 0, 0,
             GridBagConstraints.LINE_START, GridBagConstraints.NONE, new Insets(2, 9, 3, 0), 0, 0);
 
-    static final GridBagConstraints SP_PREV_NEXT_COUNT = new GridBagConstraints(1, 26, 1, 1, 0, 0,
+    static final GridBagConstraints SP_DISK_SIZE = new GridBagConstraints(1, 26, 1, 1, 0, 0, GridBagConstraints.CENTER,
+            GridBagConstraints.HORIZONTAL, new Insets(2, 5, 3, 0), 0, 0);
+
+    static final GridBagConstraints LBL_DISK_EXPIRY = new GridBagConstraints(0, 27, 1, 1, 0, 0,
+            GridBagConstraints.LINE_START, GridBagConstraints.NONE, new Insets(2, 9, 3, 0), 0, 0);
+
+    static final GridBagConstraints SP_DISK_EXPIRY = new GridBagConstraints(1, 27, 1, 1, 0, 0,
+            GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new Insets(2, 5, 3, 0), 0, 0);
+
+    static final GridBagConstraints LBL_PREV_NEXT_COUNT = new GridBagConstraints(0, 28, 1, 1, 0, 0,
+            GridBagConstraints.LINE_START, GridBagConstraints.NONE, new Insets(2, 9, 3, 0), 0, 0);
+
+    static final GridBagConstraints SP_PREV_NEXT_COUNT = new GridBagConstraints(1, 28, 1, 1, 0, 0,
+            GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new Insets(2, 5, 3, 0), 0, 0);
+
+    static final GridBagConstraints LBL_NEARBY_COUNT = new GridBagConstraints(0, 29, 1, 1, 0, 0,
+            GridBagConstraints.LINE_START, GridBagConstraints.NONE, new Insets(2, 9, 3, 0), 0, 0);
+
+    static final GridBagConstraints SP_NEARBY_COUNT = new GridBagConstraints(1, 29, 1, 1, 0, 0,
             GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new Insets(2, 5, 3, 0), 0, 0);
 
-    static final GridBagConstraints LBL_NEARBY_COUNT = new GridBagConstraints(0, 27, 1, 1, 0, 0,
+    static final GridBagConstraints LBL_EVICTION_POLICY = new GridBagConstraints(0, 30, 1, 1, 0, 0,
             GridBagConstraints.LINE_START, GridBagConstraints.NONE, new Insets(2, 9, 3, 0), 0, 0);
 
-    static final GridBagConstraints SP_NEARBY_COUNT = new GridBagConstraints(1, 27, 1, 1, 0, 0,
+    static final GridBagConstraints CB_EVICTION_POLICY = new GridBagConstraints(1, 30, 1, 1, 0, 0,
             GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new Insets(2, 5, 3, 0), 0, 0);
 
 
@@ -15,6 +15,7 @@ import java.awt.GridBagLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFormattedTextField;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
@@ -22,6 +23,7 @@ import javax.swing.SwingConstants;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.AutoplaySettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.CacheSettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.ClusterSettings;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.EvictionPolicy;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.MapViewSettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.PreferenceSettings;
@@ -60,8 +62,11 @@ class PreferencePanel extends JPanel {
     private JSpinner spAutoplayDelay;
     private JSpinner spMemoryCount;
     private JSpinner spDiskCount;
+    private JSpinner spDiskSize;
+    private JSpinner spDiskExpiry;
     private JSpinner spPrevNextCount;
     private JSpinner spNearbyCount;
+    private JComboBox<String> cbEvictionPolicy;
 
 
     PreferencePanel() {
@@ -193,6 +198,22 @@ class PreferencePanel extends JPanel {
                 true);
         add(spDiskCount, Constraints.SP_DISK_COUNT);
 
+        add(LabelBuilder.build(GuiConfig.getInstance().getPrefDiskSizeLbl(), Font.PLAIN,
+                ComponentOrientation.LEFT_TO_RIGHT, SwingConstants.LEFT, SwingConstants.TOP),
+                Constraints.LBL_DISK_SIZE);
+        spDiskSize = TextComponentBuilder.buildPositiveNumberSpinner(settings.getDiskSize(), null,
+                CacheConfig.getInstance().getMaxDiskSize(), Font.PLAIN, ComponentOrientation.LEFT_TO_RIGHT, false,
+                true);
+        add(spDiskSize, Constraints.SP_DISK_SIZE);
+
+        add(LabelBuilder.build(GuiConfig.getInstance().getPrefDiskExpiryLbl(), Font.PLAIN,
+                ComponentOrientation.LEFT_TO_RIGHT, SwingConstants.LEFT, SwingConstants.TOP),
+                Constraints.LBL_DISK_EXPIRY);
+        spDiskExpiry = TextComponentBuilder.buildPositiveNumberSpinner(settings.getDiskExpiry(), null,
+                CacheConfig.getInstance().getMaxDiskExpiry(), Font.PLAIN, ComponentOrientation.LEFT_TO_RIGHT, false,
+                true);
+        add(spDiskExpiry, Constraints.SP_DISK_EXPIRY);
+
         add(LabelBuilder.build(GuiConfig.getInstance().getPrefPrevNextLbl(), Font.PLAIN,
                 ComponentOrientation.LEFT_TO_RIGHT, SwingConstants.LEFT, SwingConstants.TOP),
                 Constraints.LBL_PREV_NEXT_COUNT);
@@ -208,6 +229,17 @@ class PreferencePanel extends JPanel {
                 CacheConfig.getInstance().getMaxNearbyCount(), Font.PLAIN, ComponentOrientation.LEFT_TO_RIGHT, false,
                 true);
         add(spNearbyCount, Constraints.SP_NEARBY_COUNT);
+
+        add(LabelBuilder.build(GuiConfig.getInstance().getPrefEvictionPolicyLbl(), Font.PLAIN,
+                ComponentOrientation.LEFT_TO_RIGHT, SwingConstants.LEFT, SwingConstants.TOP),
+                Constraints.LBL_EVICTION_POLICY);
+        // the labels are listed in the declaration order of the EvictionPolicy values
+        cbEvictionPolicy = new JComboBox<>(new String[] { GuiConfig.getInstance().getPrefEvictionPolicyLruLbl(),
+                GuiConfig.getInstance().getPrefEvictionPolicyTinyLfuLbl(),
+                GuiConfig.getInstance().getPrefEvictionPolicySequenceLbl() });
+        cbEvictionPolicy.setFont(cbEvictionPolicy.getFont().deriveFont(Font.PLAIN));
+        cbEvictionPolicy.setSelectedIndex(settings.getEvictionPolicy().ordinal());
+        add(cbEvictionPolicy, Constraints.CB_EVICTION_POLICY);
     }
 
     PreferenceSettings getSelectedSettings() {
@@ -224,7 +256,9 @@ class PreferencePanel extends JPanel {
         final SequenceSettings trackSettings = new SequenceSettings(cbDisplayTrack.isSelected(),
                 new AutoplaySettings(length, (int) spAutoplayDelay.getValue()));
         final CacheSettings cacheSettings = new CacheSettings((int) spMemoryCount.getValue(),
-                (int) spDiskCount.getValue(), (int) spPrevNextCount.getValue(), (int) spNearbyCount.getValue());
+                (int) spDiskCount.getValue(), (int) spDiskSize.getValue(), (int) spDiskExpiry.getValue(),
+                (int) spPrevNextCount.getValue(), (int) spNearbyCount.getValue(),
+                EvictionPolicy.values()[cbEvictionPolicy.getSelectedIndex()]);
         return new PreferenceSettings(mapViewSettings, photoSettings, aggregatedSettings, trackSettings, cacheSettings);
     }
 
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+
+/**
+ * Image input stream that reads the content of a {@code ByteBuffer} without copying it.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final ByteBuffer buffer;
+
+
+    /**
+     * Builds a new stream over the remaining content of the given buffer.
+     *
+     * @param buffer a {@code ByteBuffer} holding the image content
+     */
+    ByteBufferImageInputStream(final ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        int result = -1;
+        if (streamPos < buffer.limit()) {
+            result = buffer.get((int) streamPos++) & BYTE_MASK;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        int result = -1;
+        if (streamPos < buffer.limit()) {
+            result = Math.min(length, buffer.limit() - (int) streamPos);
+            buffer.position((int) streamPos);
+            buffer.get(bytes, offset, result);
+            streamPos += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long length() {
+        return buffer.limit();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Cluster;
+
+
+/**
+ * Keeps the details of the recently selected clusters in memory. A cached cluster is valid as long as its latest
+ * change timestamp matches the timestamp reported by the cluster search; a cluster with a different or unknown
+ * timestamp is considered changed and its details are downloaded again.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class ClusterCache {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxCount;
+
+    /** the cached clusters in least recently used order */
+    private final Map<Long, Cluster> clusters = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+
+    /**
+     * Builds a new cache.
+     *
+     * @param maxCount the maximum number of cached clusters
+     */
+    ClusterCache(final int maxCount) {
+        this.maxCount = maxCount;
+    }
+
+
+    /**
+     * Returns the details of the given cluster.
+     *
+     * @param id the identifier of the cluster
+     * @param latestChangeTimestamp the latest change timestamp of the cluster, as returned by the cluster search
+     * @return a {@code Cluster}, or null if the cluster is not cached or if it changed since it was cached
+     */
+    synchronized Cluster get(final Long id, final Long latestChangeTimestamp) {
+        final Cluster cluster = clusters.get(id);
+        return cluster != null && latestChangeTimestamp != null
+                && latestChangeTimestamp.equals(cluster.getLatestChangeTimestamp()) ? cluster : null;
+    }
+
+    synchronized void put(final Cluster cluster) {
+        clusters.put(cluster.getId(), cluster);
+        final Iterator<Long> iterator = clusters.keySet().iterator();
+        while (clusters.size() > maxCount && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Discards the cached clusters containing the given detection.
+     *
+     * @param detectionId the identifier of a detection that was modified
+     */
+    synchronized void invalidateDetection(final Long detectionId) {
+        clusters.values().removeIf(cluster -> (cluster.getDetectionIds() != null
+                && cluster.getDetectionIds().contains(detectionId))
+                || (cluster.getDetections() != null && cluster.getDetections().stream()
+                        .anyMatch(detection -> detectionId.equals(detection.getId()))));
+    }
+}
\ No newline at end of file
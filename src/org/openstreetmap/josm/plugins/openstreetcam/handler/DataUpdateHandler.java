@@ -7,6 +7,7 @@
 package org.openstreetmap.josm.plugins.openstreetcam.handler;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.swing.SwingUtilities;
 import org.openstreetmap.josm.gui.MainApplication;
@@ -22,6 +23,7 @@ import org.openstreetmap.josm.plugins.openstreetcam.entity.Sign;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.details.detection.DetectionDetailsDialog;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.details.photo.PhotoDetailsDialog;
 import org.openstreetmap.josm.plugins.openstreetcam.gui.layer.OpenStreetCamLayer;
+import org.openstreetmap.josm.plugins.openstreetcam.service.CancellationToken;
 import org.openstreetmap.josm.plugins.openstreetcam.util.BoundingBoxUtil;
 import org.openstreetmap.josm.plugins.openstreetcam.util.Util;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
@@ -37,6 +39,10 @@ import com.grab.josm.common.argument.BoundingBox;
  */
 public class DataUpdateHandler {
 
+    /* the token of the latest map view update; starting a new update cancels the previous one */
+    private static final AtomicReference<CancellationToken> LATEST_UPDATE = new AtomicReference<>();
+
+
     /**
      * Updates the current map view with new data. The data type displayed depends on the current zoom level. Segments
      * that have OpenStreetCam coverage are displayed in the following cases:
@@ -58,9 +64,28 @@ public class DataUpdateHandler {
      * A previously selected photo/detection location should be removed if the user changed the data filters and
      * according the new filters the selection should not be displayed
      *
+     * A new update cancels the requests of the update in progress, and the results of a cancelled update are not
+     * displayed.
+     *
      * @param checkSelection flag indicating if the previously selected elements should be checked in the new data set
      */
     public void updateData(final boolean checkSelection) {
+        final CancellationToken token = new CancellationToken();
+        final CancellationToken previousToken = LATEST_UPDATE.getAndSet(token);
+        if (previousToken != null) {
+            previousToken.cancel();
+        }
+        try {
+            token.run(() -> updateData(checkSelection, token));
+        } finally {
+            LATEST_UPDATE.compareAndSet(token, null);
+        }
+    }
+
+    private void updateData(final boolean checkSelection, final CancellationToken token) {
+        if (token.isCancelled()) {
+            return;
+        }
         final int zoom = Util.zoom(MainApplication.getMap().mapView.getRealBounds());
         if (zoom >= Config.getInstance().getMapSegmentZoom()) {
             final MapViewSettings mapViewSettings = PreferenceManager.getInstance().loadMapViewSettings();
@@ -140,18 +165,36 @@ public class DataUpdateHandler {
         final List<BoundingBox> areas = BoundingBoxUtil.currentBoundingBoxes(mapViewSettings.isDataLoadFlag());
         if (!areas.isEmpty()) {
             final SearchFilter searchFilter = PreferenceManager.getInstance().loadSearchFilter();
-            final List<Segment> segments = ServiceHandler.getInstance().listMatchedTracks(areas, searchFilter, zoom);
+            final CancellationToken token = CancellationToken.current();
+            // the pages are displayed as soon as they arrive, the complete result replaces them at the end
+            final List<Segment> segments = ServiceHandler.getInstance().listMatchedTracks(areas, searchFilter, zoom,
+                    (page, loadedPages, totalPages) -> displaySegmentPage(page, loadedPages, totalPages, token));
             if (MapViewType.COVERAGE.equals(PreferenceManager.getInstance().loadMapViewType())
-                    && (MainApplication.getMap() != null && MainApplication.getMap().mapView != null)) {
+                    && (MainApplication.getMap() != null && MainApplication.getMap().mapView != null)
+                    && !isStale(token)) {
                 SwingUtilities.invokeLater(() -> {
-                    DataSet.getInstance().updateLowZoomLevelData(segments);
-                    OpenStreetCamLayer.getInstance().invalidate();
-                    MainApplication.getMap().repaint();
+                    if (!isStale(token)) {
+                        DataSet.getInstance().updateLowZoomLevelData(segments);
+                        OpenStreetCamLayer.getInstance().invalidate();
+                        MainApplication.getMap().repaint();
+                    }
                 });
             }
         }
     }
 
+    private void displaySegmentPage(final List<Segment> page, final int loadedPages, final int totalPages,
+            final CancellationToken token) {
+        SwingUtilities.invokeLater(() -> {
+            if (!isStale(token) && MapViewType.COVERAGE.equals(PreferenceManager.getInstance().loadMapViewType())
+                    && MainApplication.getMap() != null && MainApplication.getMap().mapView != null) {
+                DataSet.getInstance().appendLowZoomLevelData(page, loadedPages, totalPages);
+                OpenStreetCamLayer.getInstance().invalidate();
+                MainApplication.getMap().repaint();
+            }
+        });
+    }
+
     private void updateHighZoomLevelData(final MapViewSettings mapViewSettings, final boolean checkSelection) {
         // clear previous data type
         if (DataSet.getInstance().hasSegments()) {
@@ -169,17 +212,28 @@ public class DataUpdateHandler {
         final List<BoundingBox> areas = BoundingBoxUtil.currentBoundingBoxes(mapViewSettings.isDataLoadFlag());
         final int zoom = Util.zoom(MainApplication.getMap().mapView.getRealBounds());
         if (!areas.isEmpty() && zoom >= mapViewSettings.getPhotoZoom()) {
-            final HighZoomResultSet resultSet = ServiceHandler.getInstance().searchHighZoomData(areas, searchFilter);
+            // the photos are searched in the area in which the download next/previous actions search the other pages
+            final BoundingBox photoArea = BoundingBoxUtil.currentBoundingBox();
+            final HighZoomResultSet resultSet =
+                    ServiceHandler.getInstance().searchHighZoomData(areas, photoArea, searchFilter);
             if (MapViewType.ELEMENT.equals(PreferenceManager.getInstance().loadMapViewType())) {
                 updateUI(resultSet, checkSelection);
+                // the adjacent photo pages are prefetched for the download next/previous actions
+                ServiceHandler.getInstance().prefetchNearbyPhotoPages(photoArea, searchFilter,
+                        resultSet.getPhotoDataSet());
             }
         }
     }
 
     private void updateUI(final HighZoomResultSet resultSet, final boolean checkSelection) {
         final boolean isClusterInfoInPanel = DataSet.getInstance().getSelectedCluster() != null;
-        if (MainApplication.getMap() != null && MainApplication.getMap().mapView != null) {
+        final CancellationToken token = CancellationToken.current();
+        if (MainApplication.getMap() != null && MainApplication.getMap().mapView != null && !isStale(token)) {
             GuiHelper.runInEDT(() -> {
+                if (isStale(token)) {
+                    // a newer update is in progress, its data will be displayed instead
+                    return;
+                }
                 DataSet.getInstance().updateHighZoomLevelClusterData(resultSet.getClusters(), checkSelection);
                 DataSet.getInstance().updateHighZoomLevelDetectionData(resultSet.getDetections(), checkSelection);
                 DataSet.getInstance().updateHighZoomLevelPhotoData(resultSet.getPhotoDataSet(), checkSelection);
@@ -195,6 +249,10 @@ public class DataUpdateHandler {
         }
     }
 
+    private static boolean isStale(final CancellationToken token) {
+        return token != null && token.isCancelled();
+    }
+
     private void updateSelection(final boolean checkSelection, final boolean isClusterInfoInPanel) {
         final SearchFilter searchFilter = PreferenceManager.getInstance().loadSearchFilter();
         if (!DataSet.getInstance().hasSelectedPhoto() && PhotoDetailsDialog.getInstance().isPhotoSelected()) {
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Author;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Contribution;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.EditStatus;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.service.TaskScope;
+import org.openstreetmap.josm.plugins.openstreetcam.util.FileUtil;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
+import org.openstreetmap.josm.tools.Logging;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+
+/**
+ * Keeps the detection edits of the user until they are accepted by the OpenStreetCam service, such that an edit is
+ * displayed immediately and sent in the background. The pending edits are saved on the local disk after every change,
+ * from the thread sending the edits; the edits that were not sent before JOSM exited are sent after the next start. A
+ * newer edit of a detection replaces its pending edit.
+ * <p>
+ * The service does not support batch updates: the edits are sent in batches of concurrent requests. The edits that
+ * could not be sent, for instance because the network is down, are kept and retried with an exponential backoff. The
+ * edits rejected by the service with a client error status are dropped and reported as conflicts.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class DetectionEditQueue {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String THREAD_NAME = "openstreetcam-detection-edits";
+    private static final int MAX_BACKOFF_SHIFT = 16;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final File file;
+    private final Sender sender;
+    private final FlushListener listener;
+    private final Gson gson = new Gson();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        // a daemon thread does not prevent JOSM from exiting, the pending edits are saved by saveNow
+        final Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** the pending edits in the order in which they were made */
+    private final List<Edit> edits;
+    private boolean flushScheduled;
+    private boolean saveScheduled;
+
+    /** serializes the writes of the file, such that a newer content is never replaced by an older one */
+    private final Object saveLock = new Object();
+    private int failedAttempts;
+    private long retryTime;
+
+
+    /**
+     * Builds a new queue. The edits that were pending when JOSM exited are loaded from the given file.
+     *
+     * @param file the file in which the pending edits are saved
+     * @param sender sends an edit to the service
+     * @param listener receives the result of the sent batches
+     */
+    DetectionEditQueue(final File file, final Sender sender, final FlushListener listener) {
+        this.file = file;
+        this.sender = sender;
+        this.listener = listener;
+        edits = load();
+    }
+
+
+    /**
+     * Starts sending the edits that were pending when JOSM exited.
+     */
+    void start() {
+        scheduleFlush(Config.getInstance().getDetectionEditFlushDelay());
+    }
+
+    /**
+     * Schedules the given edit for saving and sending. The pending edit of the same detection is replaced. The edit is
+     * saved in the background, the method does not access the disk.
+     *
+     * @param detectionId the identifier of the edited detection
+     * @param editStatus the new edit status
+     * @param comment the comment of the edit, might be null
+     * @param author the author of the edit
+     */
+    synchronized void add(final Long detectionId, final EditStatus editStatus, final String comment,
+            final Author author) {
+        edits.removeIf(edit -> edit.detectionId.equals(detectionId));
+        edits.add(new Edit(detectionId, editStatus, comment, author));
+        scheduleSave();
+        scheduleFlush(Config.getInstance().getDetectionEditFlushDelay());
+    }
+
+    /**
+     * Returns the edit status of the detections that have pending edits.
+     *
+     * @return a map from the identifier of a detection to the status of its pending edit
+     */
+    synchronized Map<Long, EditStatus> pendingEditStatuses() {
+        final Map<Long, EditStatus> result = new HashMap<>();
+        edits.forEach(edit -> result.put(edit.detectionId, edit.editStatus));
+        return result;
+    }
+
+    /**
+     * Saves the pending edits if they changed since they were last saved. The method should be invoked before the
+     * application exits.
+     */
+    void saveNow() {
+        final boolean changed;
+        synchronized (this) {
+            changed = saveScheduled;
+        }
+        if (changed) {
+            save();
+        }
+    }
+
+    private synchronized void scheduleSave() {
+        if (!saveScheduled) {
+            saveScheduled = true;
+            executor.execute(this::save);
+        }
+    }
+
+    private synchronized void scheduleFlush(final long delay) {
+        if (!flushScheduled && !edits.isEmpty()) {
+            flushScheduled = true;
+            executor.schedule(this::flush, Math.max(delay, retryTime - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        final List<Edit> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            batch = new ArrayList<>(
+                    edits.subList(0, Math.min(edits.size(), Config.getInstance().getDetectionEditBatchSize())));
+        }
+        final List<Edit> applied = new ArrayList<>();
+        final List<Edit> rejected = new ArrayList<>();
+        boolean failed = false;
+        try (TaskScope scope = TaskScope.open(false)) {
+            final List<TaskScope.Subtask<Edit>> subtasks = new ArrayList<>();
+            for (final Edit edit : batch) {
+                subtasks.add(scope.fork(() -> {
+                    sender.send(new Detection(edit.detectionId, edit.editStatus),
+                            new Contribution(edit.author, edit.comment));
+                    return edit;
+                }));
+            }
+            scope.join();
+            for (int i = 0; i < batch.size(); i++) {
+                final Edit edit = batch.get(i);
+                try {
+                    applied.add(subtasks.get(i).result());
+                } catch (final ServiceException e) {
+                    if (isRejected(e)) {
+                        Logging.warn("The edit of detection " + edit.detectionId + " was rejected: " + e.getMessage());
+                        rejected.add(edit);
+                    } else {
+                        Logging.warn("Could not send the edit of detection " + edit.detectionId, e);
+                        failed = true;
+                    }
+                }
+            }
+        }
+        final List<Long> conflicts;
+        synchronized (this) {
+            edits.removeAll(applied);
+            edits.removeAll(rejected);
+            scheduleSave();
+            // a rejected edit that was replaced in the meantime is not a conflict, the newer edit is still pending
+            conflicts = rejected.stream().map(edit -> edit.detectionId)
+                    .filter(id -> edits.stream().noneMatch(edit -> edit.detectionId.equals(id)))
+                    .collect(Collectors.toList());
+            if (failed) {
+                failedAttempts++;
+                retryTime = System.currentTimeMillis() + retryDelay();
+            } else {
+                failedAttempts = 0;
+                retryTime = 0;
+            }
+            scheduleFlush(0);
+        }
+        listener.onFlush(applied.stream().map(edit -> edit.detectionId).collect(Collectors.toList()), conflicts);
+    }
+
+    /**
+     * Tells if the service rejected the edit, in which case sending it again does not help. Only a client error
+     * status is a rejection; I/O errors, timeouts, server errors and the subtasks that did not complete are retried.
+     */
+    private static boolean isRejected(final ServiceException e) {
+        final Integer httpCode = e.getHttpCode();
+        return httpCode != null && httpCode >= HttpURLConnection.HTTP_BAD_REQUEST
+                && httpCode < HttpURLConnection.HTTP_INTERNAL_ERROR && httpCode != HttpURLConnection.HTTP_CLIENT_TIMEOUT
+                && httpCode != HTTP_TOO_MANY_REQUESTS;
+    }
+
+    private long retryDelay() {
+        final long delay = (long) Config.getInstance().getDetectionEditRetryBaseDelay()
+                << Math.min(failedAttempts - 1, MAX_BACKOFF_SHIFT);
+        return Math.min(delay, Config.getInstance().getDetectionEditRetryMaxDelay());
+    }
+
+    private List<Edit> load() {
+        Content result = null;
+        if (file.exists()) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                result = gson.fromJson(reader, Content.class);
+            } catch (final IOException | JsonParseException e) {
+                Logging.warn("Could not read the pending detection edits", e);
+            }
+        }
+        return result != null && result.formatVersion == FORMAT_VERSION && result.edits != null
+                ? new ArrayList<>(result.edits) : new ArrayList<>();
+    }
+
+    private void save() {
+        synchronized (saveLock) {
+            final Content content = new Content();
+            synchronized (this) {
+                saveScheduled = false;
+                content.formatVersion = FORMAT_VERSION;
+                content.edits = new ArrayList<>(edits);
+            }
+            final File directory = file.getParentFile();
+            if (!directory.exists() && !directory.mkdirs()) {
+                Logging.warn("Could not create directory " + directory);
+            }
+            try {
+                // a crash keeps either the previous or the new edits
+                FileUtil.replace(file, out -> {
+                    final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    gson.toJson(content, writer);
+                    writer.flush();
+                });
+            } catch (final IOException e) {
+                Logging.warn("Could not save the pending detection edits", e);
+            }
+        }
+    }
+
+
+    /**
+     * Sends a detection edit to the service.
+     */
+    @FunctionalInterface
+    interface Sender {
+
+        /**
+         * Sends the given edit.
+         *
+         * @param detection the identifier and the new edit status of the detection
+         * @param contribution the author and the comment of the edit
+         * @throws ServiceException if the edit could not be sent, or if it was rejected by the service
+         */
+        void send(Detection detection, Contribution contribution) throws ServiceException;
+    }
+
+
+    /**
+     * Receives the result of a sent batch. The listener is invoked from the thread sending the edits.
+     */
+    @FunctionalInterface
+    interface FlushListener {
+
+        /**
+         * Invoked after a batch was sent.
+         *
+         * @param appliedIds the identifiers of the detections whose edits were accepted
+         * @param conflictIds the identifiers of the detections whose edits were rejected
+         */
+        void onFlush(List<Long> appliedIds, List<Long> conflictIds);
+    }
+
+
+    /**
+     * A pending edit.
+     */
+    private static final class Edit {
+
+        private final Long detectionId;
+        private final EditStatus editStatus;
+        private final String comment;
+        private final Author author;
+
+
+        private Edit(final Long detectionId, final EditStatus editStatus, final String comment, final Author author) {
+            this.detectionId = detectionId;
+            this.editStatus = editStatus;
+            this.comment = comment;
+            this.author = author;
+        }
+    }
+
+
+    /**
+     * The saved content.
+     */
+    private static final class Content {
+
+        private int formatVersion;
+        private List<Edit> edits;
+    }
+}
\ No newline at end of file
@@ -128,7 +128,8 @@ abstract class MouseSelectionHandler extends MouseAdapter {
     }
 
     private Cluster enhanceCluster(final Cluster selectedCluster) {
-        final Cluster cluster = ServiceHandler.getInstance().retrieveClusterDetails(selectedCluster.getId());
+        final Cluster cluster = ServiceHandler.getInstance().retrieveClusterDetails(selectedCluster.getId(),
+                selectedCluster.getLatestChangeTimestamp());
         final ClusterBuilder builder = new ClusterBuilder(selectedCluster);
         if (cluster.getOsmElements() != null) {
             builder.osmElements(cluster.getOsmElements());
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
+import com.grab.josm.common.entity.Pair;
+
+
+/**
+ * Keeps track of the photo downloads that are in progress. Concurrent requests for the same photo share a single
+ * download: the first caller downloads the photo, the other callers wait for its result.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class PhotoDownloadTable {
+
+    private final Map<Pair<Long, String>, CompletableFuture<byte[]>> downloads = new ConcurrentHashMap<>();
+    private final long timeout;
+
+
+    /**
+     * Builds a new table.
+     *
+     * @param timeout the maximum number of seconds a caller waits for a download started by another caller
+     */
+    PhotoDownloadTable(final long timeout) {
+        this.timeout = timeout;
+    }
+
+
+    /**
+     * Downloads the given photo. If the same photo is already being downloaded, the method waits for the running
+     * download instead of starting a new one.
+     *
+     * @param sequenceId the identifier of the sequence to which the photo belongs
+     * @param photoName the name of the photo
+     * @param photoSize the size of the photo
+     * @param downloader the operation that downloads the photo, it is invoked only if there is no running download
+     * @return the photo content in byte array format
+     * @throws ServiceException if the download fails or if the running download does not finish in time
+     */
+    byte[] download(final Long sequenceId, final String photoName, final PhotoSize photoSize,
+            final Downloader downloader) throws ServiceException {
+        final Pair<Long, String> key = new Pair<>(sequenceId, photoName);
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        final CompletableFuture<byte[]> runningFuture = downloads.putIfAbsent(key, future);
+        final byte[] result;
+        if (runningFuture == null) {
+            try {
+                result = downloader.download();
+                future.complete(result);
+            } catch (final ServiceException | RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                downloads.remove(key, future);
+            }
+        } else {
+            Metrics.getInstance().endpoint(Metrics.photoEndpointName(photoSize)).recordCoalesced();
+            result = await(runningFuture, photoName);
+        }
+        return result;
+    }
+
+    private byte[] await(final CompletableFuture<byte[]> future, final String photoName) throws ServiceException {
+        try {
+            return future.get(timeout, TimeUnit.SECONDS);
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof ServiceException ? (ServiceException) e.getCause()
+                    : new ServiceException(e.getCause());
+        } catch (final TimeoutException e) {
+            throw new ServiceException("Timed out waiting for the download of " + photoName, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(e);
+        }
+    }
+
+
+    /**
+     * Downloads the content of a photo.
+     */
+    @FunctionalInterface
+    interface Downloader {
+
+        byte[] download() throws ServiceException;
+    }
+}
\ No newline at end of file
@@ -6,19 +6,26 @@
  */
 package org.openstreetmap.josm.plugins.openstreetcam.handler;
 
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.openstreetmap.josm.plugins.openstreetcam.DataSet;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
-import org.openstreetmap.josm.plugins.openstreetcam.cache.CacheEntry;
 import org.openstreetmap.josm.plugins.openstreetcam.cache.CacheManager;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
 import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.CacheConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
 import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
 import org.openstreetmap.josm.tools.Logging;
 import com.grab.josm.common.entity.Pair;
@@ -34,6 +41,10 @@ public final class PhotoHandler {
 
     private static final String STORAGE = "storage";
     private final CacheManager cacheManager = CacheManager.getInstance();
+    private final PhotoPrefetchScheduler prefetchScheduler =
+            new PhotoPrefetchScheduler(CacheConfig.getInstance().getPrefetchThreadCount());
+    private final PhotoDownloadTable downloadTable =
+            new PhotoDownloadTable(CacheConfig.getInstance().getDownloadWaitTimeout());
     private static final PhotoHandler INSTANCE = new PhotoHandler();
 
 
@@ -48,28 +59,30 @@ public final class PhotoHandler {
 
 
     /**
-     * Loads the photo with the specified properties.
+     * Loads the photo with the specified properties. The photo is decoded at the lowest resolution that still covers
+     * the given size.
      *
      * @param photo a {@code Photo} represents the currently selected object
      * @param type a {@code PhotoType} represents the type of photo to load
+     * @param targetSize the size at which the photo is displayed; if null the photo is decoded at full resolution
      * @return a pair of ({@code BufferedImage}, {@code Boolean}) representing the corresponding image and
      * boolean flag. The flag is true if the user requested the high quality image and for some reason the
      * image could not be retrieved and instead the large thumbnail is retrieved.
      * @throws PhotoHandlerException if the photo could not be loaded or if the photo content could not be
      * read
      */
-    public Pair<BufferedImage, PhotoSize> loadPhoto(final Photo photo, final PhotoSize type)
-            throws PhotoHandlerException {
+    public Pair<BufferedImage, PhotoSize> loadPhoto(final Photo photo, final PhotoSize type,
+            final Dimension targetSize) throws PhotoHandlerException {
         Pair<BufferedImage, PhotoSize> result;
         ImageIO.setUseCache(false);
         try {
             if (type.equals(PhotoSize.THUMBNAIL)) {
                 result = loadThumbnailPhoto(photo);
             } else if (type.equals(PhotoSize.HIGH_QUALITY)) {
-                result = loadHighQualityPhoto(photo);
+                result = loadHighQualityPhoto(photo, targetSize);
             } else {
                 result = loadPhoto(photo.getSequenceId(), photo.getLargeThumbnailName(), PhotoSize.LARGE_THUMBNAIL,
-                        true);
+                        true, targetSize);
             }
         } catch (final ServiceException e) {
             throw new PhotoHandlerException("Could not load photo from server.", e);
@@ -81,53 +94,190 @@ public final class PhotoHandler {
 
     private Pair<BufferedImage, PhotoSize> loadThumbnailPhoto(final Photo photo) throws ServiceException, IOException {
         // special case, we don't save small thumbnails to cache
-        final byte[] byteImage = ServiceHandler.getInstance().retrievePhoto(photo.getThumbnailName());
-        return new Pair<>(ImageIO.read(new BufferedInputStream(new ByteArrayInputStream(byteImage))),
-                PhotoSize.THUMBNAIL);
+        final byte[] byteImage =
+                ServiceHandler.getInstance().retrievePhoto(photo.getThumbnailName(), PhotoSize.THUMBNAIL);
+        return new Pair<>(readPhoto(ByteBuffer.wrap(byteImage), null, null, 0), PhotoSize.THUMBNAIL);
     }
 
-    private Pair<BufferedImage, PhotoSize> loadHighQualityPhoto(final Photo photo)
+    private Pair<BufferedImage, PhotoSize> loadHighQualityPhoto(final Photo photo, final Dimension targetSize)
             throws ServiceException, IOException {
         Pair<BufferedImage, PhotoSize> result;
-        final String name = photo.getName().contains(STORAGE) ? photo.getName() : photo.getOriName();
         try {
-            result = loadPhoto(photo.getSequenceId(), name, PhotoSize.HIGH_QUALITY, false);
+            result = loadPhoto(photo.getSequenceId(), photoName(photo, PhotoSize.HIGH_QUALITY),
+                    PhotoSize.HIGH_QUALITY, false, targetSize);
         } catch (final Exception e) {
             // try to load large thumbnail image
-            result = loadPhoto(photo.getSequenceId(), photo.getLargeThumbnailName(), PhotoSize.LARGE_THUMBNAIL, true);
+            result = loadPhoto(photo.getSequenceId(), photo.getLargeThumbnailName(), PhotoSize.LARGE_THUMBNAIL, true,
+                    targetSize);
         }
         return result;
     }
 
     private Pair<BufferedImage, PhotoSize> loadPhoto(final Long sequenceId, final String photoName,
-            final PhotoSize photoType, final boolean isWarning) throws ServiceException, IOException {
-        final Pair<BufferedImage, PhotoSize> result;
-        final CacheEntry image = cacheManager.getPhoto(sequenceId, photoName);
-        if (image == null) {
-            // load image from server
-            final byte[] byteImage = ServiceHandler.getInstance().retrievePhoto(photoName);
-            cacheManager.putPhoto(sequenceId, photoName, byteImage, isWarning);
-            result = new Pair<>(ImageIO.read(new BufferedInputStream(new ByteArrayInputStream(byteImage))), photoType);
-        } else {
-            result = new Pair<>(ImageIO.read(new BufferedInputStream(new ByteArrayInputStream(image.getContent()))),
-                    photoType);
+            final PhotoSize photoType, final boolean isWarning, final Dimension targetSize)
+            throws ServiceException, IOException {
+        BufferedImage decodedImage = cacheManager.getDecodedPhoto(sequenceId, photoName, photoType);
+        if (decodedImage == null || isSmaller(decodedImage, targetSize)) {
+            ByteBuffer image = cacheManager.getPhoto(sequenceId, photoName);
+            if (image == null) {
+                // load image from server
+                image = ByteBuffer.wrap(downloadPhoto(sequenceId, photoName, photoType, isWarning));
+            }
+            // the photo is decoded again only if the new image has a higher resolution
+            final BufferedImage newImage =
+                    readPhoto(image, null, targetSize, decodedImage != null ? decodedImage.getWidth() : 0);
+            if (newImage != null) {
+                decodedImage = newImage;
+                cacheManager.putDecodedPhoto(sequenceId, photoName, photoType, decodedImage);
+            }
+        }
+        return new Pair<>(decodedImage, photoType);
+    }
+
+    /**
+     * Verifies if the given photo is cached, such that it can be loaded without downloading it.
+     *
+     * @param photo a {@code Photo}
+     * @param type the type of the photo
+     * @return true if the photo is cached, false otherwise
+     */
+    public boolean isCached(final Photo photo, final PhotoSize type) {
+        return cacheManager.containsPhoto(photo.getSequenceId(), photoName(photo, type));
+    }
+
+    /**
+     * Loads a part of the given photo at the resolution needed to display it at the given size. The photo content is
+     * read from the cache, the photo is not downloaded.
+     *
+     * @param photo a {@code Photo} represents the currently selected object
+     * @param type a {@code PhotoType} represents the type of the displayed photo
+     * @param region the part of the photo to load, in coordinates relative to the photo size (between 0 and 1)
+     * @param targetSize the size at which the part of the photo is displayed
+     * @return a {@code BufferedImage} containing the given part of the photo; null if the photo is not cached or if
+     * the loaded part would not have a higher resolution than the already loaded photo
+     * @throws PhotoHandlerException if the photo content could not be read
+     */
+    public BufferedImage loadPhotoRegion(final Photo photo, final PhotoSize type, final Rectangle2D region,
+            final Dimension targetSize) throws PhotoHandlerException {
+        final String photoName = photoName(photo, type);
+        final ByteBuffer content = cacheManager.getPhoto(photo.getSequenceId(), photoName);
+        BufferedImage result = null;
+        if (content != null) {
+            final BufferedImage decodedImage = cacheManager.getDecodedPhoto(photo.getSequenceId(), photoName, type);
+            final int minWidth = decodedImage != null ? (int) (region.getWidth() * decodedImage.getWidth()) : 0;
+            try {
+                result = readPhoto(content, region, targetSize, minWidth);
+            } catch (final IOException e) {
+                throw new PhotoHandlerException("Could not read photo content.", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the given part of a photo. The photo is subsampled such that the result still covers the target size.
+     *
+     * @param content the photo content
+     * @param region the part of the photo to decode, in relative coordinates; if null the whole photo is decoded
+     * @param targetSize the size at which the result is displayed; if null the photo is not subsampled
+     * @param minWidth the result is decoded only if it is wider than the given number of pixels
+     * @return a {@code BufferedImage} or null if the content could not be decoded or the result is not wide enough
+     * @throws IOException if the photo content could not be read
+     */
+    private BufferedImage readPhoto(final ByteBuffer content, final Rectangle2D region, final Dimension targetSize,
+            final int minWidth) throws IOException {
+        // the content is read directly from the buffer, cached photos might be backed by a memory-mapped file
+        final ImageInputStream input = new ByteBufferImageInputStream(content);
+        final Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        BufferedImage result = null;
+        if (readers.hasNext()) {
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                final Rectangle bounds = new Rectangle(reader.getWidth(0), reader.getHeight(0));
+                final Rectangle sourceRegion = region == null ? bounds
+                        : new Rectangle((int) (region.getX() * bounds.width), (int) (region.getY() * bounds.height),
+                                (int) Math.ceil(region.getWidth() * bounds.width),
+                                (int) Math.ceil(region.getHeight() * bounds.height)).intersection(bounds);
+                final int subsampling = subsampling(sourceRegion, targetSize);
+                if (!sourceRegion.isEmpty() && (sourceRegion.width + subsampling - 1) / subsampling > minWidth) {
+                    final ImageReadParam param = reader.getDefaultReadParam();
+                    param.setSourceRegion(sourceRegion);
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    final long startTime = System.nanoTime();
+                    result = reader.read(0, param);
+                    Metrics.getInstance().recordDecode(startTime);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+        return result;
+    }
+
+    private static int subsampling(final Rectangle sourceRegion, final Dimension targetSize) {
+        int result = 1;
+        if (targetSize != null && targetSize.width > 0 && targetSize.height > 0) {
+            result = Math.max(1,
+                    Math.min(sourceRegion.width / targetSize.width, sourceRegion.height / targetSize.height));
         }
         return result;
     }
 
+    private static boolean isSmaller(final BufferedImage image, final Dimension targetSize) {
+        return targetSize != null && image.getWidth() < targetSize.width && image.getHeight() < targetSize.height;
+    }
+
+    private static String photoName(final Photo photo, final PhotoSize type) {
+        final String name;
+        if (type.equals(PhotoSize.THUMBNAIL)) {
+            name = photo.getThumbnailName();
+        } else if (type.equals(PhotoSize.HIGH_QUALITY)) {
+            name = photo.getName().contains(STORAGE) ? photo.getName() : photo.getOriName();
+        } else {
+            name = photo.getLargeThumbnailName();
+        }
+        return name;
+    }
+
     /**
-     * Loads the photos corresponding to the given set of elements and saves the loaded data to the cache.
+     * Loads the photos corresponding to the given list of elements in the background and saves the loaded data to the
+     * cache. The photos are loaded in the given order; the photos from a previous call that were not yet loaded are
+     * discarded. The selected photo and the given photos from the same sequence are pinned in the cache.
      *
-     * @param photos a set of {@code Photo}s
+     * @param photos a list of {@code Photo}s ordered by priority
      */
-    public void loadPhotos(final Set<Photo> photos) {
+    public void loadPhotos(final List<Photo> photos) {
         final boolean highQualityFlag = PreferenceManager.getInstance().loadPhotoSettings().isHighQualityFlag();
         if (photos != null && !photos.isEmpty()) {
-            final ExecutorService executorService = Executors.newFixedThreadPool(photos.size());
+            pinSequenceWindow(photos);
+            prefetchScheduler.schedule(photos, photo -> loadPhotoToCache(photo, highQualityFlag));
+        } else {
+            prefetchScheduler.cancel();
+        }
+    }
+
+    /**
+     * Discards the photos that were scheduled for background loading and were not yet loaded.
+     */
+    public void cancelPhotoLoading() {
+        prefetchScheduler.cancel();
+    }
+
+    private void pinSequenceWindow(final List<Photo> photos) {
+        final Photo selectedPhoto = DataSet.getInstance().getSelectedPhoto();
+        if (selectedPhoto != null) {
+            // the photos are pinned under the names with which they are cached
+            final List<String> photoNames = new ArrayList<>();
+            photoNames.add(photoName(selectedPhoto, PhotoSize.HIGH_QUALITY));
+            photoNames.add(photoName(selectedPhoto, PhotoSize.LARGE_THUMBNAIL));
             for (final Photo photo : photos) {
-                executorService.execute(() -> loadPhotoToCache(photo, highQualityFlag));
+                if (selectedPhoto.getSequenceId().equals(photo.getSequenceId())) {
+                    photoNames.add(photoName(photo, PhotoSize.HIGH_QUALITY));
+                    photoNames.add(photoName(photo, PhotoSize.LARGE_THUMBNAIL));
+                }
             }
-            executorService.shutdown();
+            cacheManager.pinPhotos(selectedPhoto.getSequenceId(), photoNames);
         }
     }
 
@@ -135,11 +285,13 @@ public final class PhotoHandler {
         if (highQualityFlag) {
             // retrieve and save high quality image
             try {
-                loadPhotoToCache(photo.getSequenceId(), photo.getName(), false);
+                loadPhotoToCache(photo.getSequenceId(), photoName(photo, PhotoSize.HIGH_QUALITY),
+                        PhotoSize.HIGH_QUALITY, false);
             } catch (final Exception e) {
                 // try to load large thumbnail
                 try {
-                    loadPhotoToCache(photo.getSequenceId(), photo.getLargeThumbnailName(), true);
+                    loadPhotoToCache(photo.getSequenceId(), photo.getLargeThumbnailName(), PhotoSize.LARGE_THUMBNAIL,
+                            true);
                 } catch (final Exception e2) {
                     Logging.warn("Error loading image:" + photo.getLargeThumbnailName(), e2);
                 }
@@ -147,18 +299,28 @@ public final class PhotoHandler {
         } else {
             // retrieve and save large thumbnail
             try {
-                loadPhotoToCache(photo.getSequenceId(), photo.getLargeThumbnailName(), false);
+                loadPhotoToCache(photo.getSequenceId(), photo.getLargeThumbnailName(), PhotoSize.LARGE_THUMBNAIL,
+                        false);
             } catch (final Exception e2) {
                 Logging.warn("Error loading image:" + photo.getLargeThumbnailName(), e2);
             }
         }
     }
 
-    private void loadPhotoToCache(final Long sequenceId, final String photoName, final boolean isWarning)
-            throws ServiceException {
+    private void loadPhotoToCache(final Long sequenceId, final String photoName, final PhotoSize photoSize,
+            final boolean isWarning) throws ServiceException {
         if (!cacheManager.containsPhoto(sequenceId, photoName)) {
-            final byte[] byteImage = ServiceHandler.getInstance().retrievePhoto(photoName);
-            cacheManager.putPhoto(sequenceId, photoName, byteImage, isWarning);
+            downloadPhoto(sequenceId, photoName, photoSize, isWarning);
         }
     }
+
+    private byte[] downloadPhoto(final Long sequenceId, final String photoName, final PhotoSize photoSize,
+            final boolean isWarning) throws ServiceException {
+        // concurrent requests for the same photo share a single download
+        return downloadTable.download(sequenceId, photoName, photoSize, () -> {
+            final byte[] byteImage = ServiceHandler.getInstance().retrievePhoto(photoName, photoSize);
+            cacheManager.putPhoto(sequenceId, photoName, byteImage, isWarning);
+            return byteImage;
+        });
+    }
 }
\ No newline at end of file
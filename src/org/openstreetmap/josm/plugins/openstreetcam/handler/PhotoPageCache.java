@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.SearchFilter;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.PhotoDataSet;
+import com.grab.josm.common.argument.BoundingBox;
+
+
+/**
+ * Keeps the pages of the photo search that were displayed or prefetched for the current map view, such that the next
+ * or previous page is displayed without waiting for the service. A page is identified by the search area, the search filter, the
+ * OSM user and the page number. A page that is still being downloaded is kept as well: a request for it waits for
+ * the download instead of sending the same request again. The pages expire after a short time, new photos being
+ * uploaded continuously; the download of an evicted page is cancelled.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class PhotoPageCache {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxCount;
+    private final long timeToLive;
+
+    /** the cached pages in least recently used order */
+    private final Map<EntryKey, Entry> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+
+    /**
+     * Builds a new cache.
+     *
+     * @param maxCount the maximum number of cached pages
+     * @param timeToLive the time in milliseconds after which a cached page expires
+     */
+    PhotoPageCache(final int maxCount, final long timeToLive) {
+        this.maxCount = maxCount;
+        this.timeToLive = timeToLive;
+    }
+
+
+    /**
+     * Returns the given page.
+     *
+     * @param area the search area
+     * @param filter the search filter
+     * @param osmUserId the identifier of the OSM user whose photos are searched, might be null
+     * @param page the page number
+     * @return a {@code CompletableFuture} of the page, that might still be downloading, or null if the page is not
+     * cached or if it expired
+     */
+    synchronized CompletableFuture<PhotoDataSet> get(final BoundingBox area, final SearchFilter filter,
+            final Long osmUserId, final int page) {
+        return get(new EntryKey(area, filter, osmUserId, page));
+    }
+
+    /**
+     * Starts the download of the given page, unless the page is already cached. A page whose download fails is
+     * removed, such that it is downloaded again on request.
+     *
+     * @param area the search area
+     * @param filter the search filter
+     * @param osmUserId the identifier of the OSM user whose photos are searched, might be null
+     * @param page the page number
+     * @param download starts the download of the page
+     */
+    synchronized void putIfAbsent(final BoundingBox area, final SearchFilter filter, final Long osmUserId,
+            final int page, final Supplier<CompletableFuture<PhotoDataSet>> download) {
+        final EntryKey key = new EntryKey(area, filter, osmUserId, page);
+        if (get(key) == null) {
+            final CompletableFuture<PhotoDataSet> photoDataSet = download.get();
+            entries.put(key, new Entry(photoDataSet, System.currentTimeMillis()));
+            final List<Entry> evicted = new ArrayList<>();
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxCount && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+            evicted.forEach(entry -> entry.page.cancel(false));
+            photoDataSet.whenComplete((result, error) -> {
+                if (error != null || result == null) {
+                    remove(key, photoDataSet);
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<PhotoDataSet> get(final EntryKey key) {
+        final Entry entry = entries.get(key);
+        CompletableFuture<PhotoDataSet> result = null;
+        if (entry != null) {
+            if (System.currentTimeMillis() - entry.time > timeToLive) {
+                entries.remove(key);
+                entry.page.cancel(false);
+            } else {
+                result = entry.page;
+            }
+        }
+        return result;
+    }
+
+    private synchronized void remove(final EntryKey key, final CompletableFuture<PhotoDataSet> photoDataSet) {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.page == photoDataSet) {
+            entries.remove(key);
+        }
+    }
+
+
+    /**
+     * Identifies a cached page.
+     */
+    private static final class EntryKey {
+
+        private final BoundingBox area;
+        private final SearchFilter filter;
+        private final Long osmUserId;
+        private final int page;
+
+
+        private EntryKey(final BoundingBox area, final SearchFilter filter, final Long osmUserId, final int page) {
+            this.area = area;
+            this.filter = filter;
+            this.osmUserId = osmUserId;
+            this.page = page;
+        }
+
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(area, filter, osmUserId, page);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            boolean result = false;
+            if (this == obj) {
+                result = true;
+            } else if (obj instanceof EntryKey) {
+                final EntryKey other = (EntryKey) obj;
+                result = page == other.page && Objects.equals(area, other.area)
+                        && Objects.equals(filter, other.filter) && Objects.equals(osmUserId, other.osmUserId);
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     * Holds a cached page.
+     */
+    private static final class Entry {
+
+        private final CompletableFuture<PhotoDataSet> page;
+        private final long time;
+
+
+        private Entry(final CompletableFuture<PhotoDataSet> page, final long time) {
+            this.page = page;
+            this.time = time;
+        }
+    }
+}
\ No newline at end of file
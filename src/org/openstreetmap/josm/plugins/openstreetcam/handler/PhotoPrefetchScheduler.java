@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
+
+
+/**
+ * Schedules the background loading of photos on a fixed number of worker threads. The photos are loaded in the order
+ * in which they were scheduled; scheduling a new list of photos drops the photos from the previous list that were not
+ * yet loaded.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class PhotoPrefetchScheduler {
+
+    private static final String THREAD_NAME = "openstreetcam-prefetch-";
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor executor;
+
+    /** identifies the most recently scheduled list of photos */
+    private final AtomicLong generation = new AtomicLong();
+
+
+    /**
+     * Builds a new scheduler with the given number of worker threads.
+     *
+     * @param workerCount the maximum number of photos that are loaded in parallel
+     */
+    PhotoPrefetchScheduler(final int workerCount) {
+        executor = new ThreadPoolExecutor(workerCount, workerCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), new PrefetchThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Schedules the given photos for loading. The photos that were scheduled by a previous call and were not yet
+     * loaded are discarded.
+     *
+     * @param photos a list of {@code Photo}s ordered by priority, the first photo is loaded first
+     * @param loader the operation that loads a photo
+     */
+    synchronized void schedule(final List<Photo> photos, final Consumer<Photo> loader) {
+        final long currentGeneration = generation.incrementAndGet();
+        executor.getQueue().clear();
+        int priority = 0;
+        for (final Photo photo : photos) {
+            executor.execute(new PrefetchTask(photo, priority++, currentGeneration, loader));
+        }
+    }
+
+    /**
+     * Discards the photos that were scheduled and were not yet loaded.
+     */
+    synchronized void cancel() {
+        generation.incrementAndGet();
+        executor.getQueue().clear();
+    }
+
+
+    /**
+     * Loads a single photo; tasks with a lower priority value are executed first.
+     */
+    private final class PrefetchTask implements Runnable, Comparable<PrefetchTask> {
+
+        private final Photo photo;
+        private final int priority;
+        private final long taskGeneration;
+        private final Consumer<Photo> loader;
+
+
+        private PrefetchTask(final Photo photo, final int priority, final long taskGeneration,
+                final Consumer<Photo> loader) {
+            this.photo = photo;
+            this.priority = priority;
+            this.taskGeneration = taskGeneration;
+            this.loader = loader;
+        }
+
+
+        @Override
+        public void run() {
+            // skip the photo if a new list of photos was scheduled in the meantime
+            if (taskGeneration == generation.get()) {
+                loader.accept(photo);
+            }
+        }
+
+        @Override
+        public int compareTo(final PrefetchTask other) {
+            final int result = Long.compare(other.taskGeneration, taskGeneration);
+            return result != 0 ? result : Integer.compare(priority, other.priority);
+        }
+    }
+
+
+    private static final class PrefetchThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, THREAD_NAME + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openstreetmap.josm.plugins.openstreetcam.service.PageListener;
+import com.grab.josm.common.argument.BoundingBox;
+
+
+/**
+ * Reports the pages of a search over several areas to a single listener. The progress is summed over the areas: until
+ * the first page of an area is retrieved, the area is counted as a single page. No page is reported after the search
+ * was completed, such that a late page can not override the final result.
+ *
+ * @author beataj
+ * @version $Revision$
+ * @param <T> the type of the searched items
+ */
+final class SearchProgress<T> {
+
+    private final PageListener<T> listener;
+    private final Map<BoundingBox, Integer> areaPages = new HashMap<>();
+    private int loadedPages;
+    private boolean completed;
+
+
+    /**
+     * Builds a new progress.
+     *
+     * @param listener the listener receiving the pages; might be null
+     * @param areas the searched areas
+     */
+    SearchProgress(final PageListener<T> listener, final List<BoundingBox> areas) {
+        this.listener = listener;
+        areas.forEach(area -> areaPages.put(area, 1));
+    }
+
+
+    /**
+     * Reports the items that are already available, for instance from a cache, before any page was retrieved.
+     *
+     * @param items the available items
+     */
+    synchronized void start(final List<T> items) {
+        if (listener != null && !items.isEmpty()) {
+            listener.onPage(items, loadedPages, totalPages());
+        }
+    }
+
+    /**
+     * Returns the listener receiving the pages of the given area.
+     *
+     * @param area one of the searched areas
+     * @return a {@code PageListener} or null if the progress is not reported
+     */
+    PageListener<T> forArea(final BoundingBox area) {
+        return listener == null ? null : (items, areaLoadedPages, areaTotalPages) -> onPage(area, items,
+                areaTotalPages);
+    }
+
+    /**
+     * Completes the search, the pages retrieved from now on are ignored.
+     */
+    synchronized void complete() {
+        completed = true;
+    }
+
+    private synchronized void onPage(final BoundingBox area, final List<T> items, final int areaTotalPages) {
+        if (!completed) {
+            areaPages.put(area, areaTotalPages);
+            loadedPages++;
+            listener.onPage(items, loadedPages, totalPages());
+        }
+    }
+
+    private int totalPages() {
+        return areaPages.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
\ No newline at end of file
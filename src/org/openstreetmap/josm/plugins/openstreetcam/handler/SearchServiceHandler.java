@@ -7,29 +7,38 @@
 package org.openstreetmap.josm.plugins.openstreetcam.handler;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.swing.JOptionPane;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.DataType;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.SearchFilter;
+import org.openstreetmap.josm.plugins.openstreetcam.cache.TileCache;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Cluster;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.HighZoomResultSet;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.PhotoDataSet;
+import org.openstreetmap.josm.plugins.openstreetcam.service.CancellationToken;
 import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceFutures;
+import org.openstreetmap.josm.plugins.openstreetcam.service.TaskScope;
 import org.openstreetmap.josm.plugins.openstreetcam.service.apollo.ApolloService;
 import org.openstreetmap.josm.plugins.openstreetcam.service.apollo.DetectionFilter;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.OpenStreetCamService;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.Paging;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.CacheConfig;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.OpenStreetCamServiceConfig;
 import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
 import com.grab.josm.common.argument.BoundingBox;
+import com.grab.josm.common.entity.Pair;
 
 
 /**
@@ -43,94 +52,134 @@ class SearchServiceHandler {
     protected final OpenStreetCamService openStreetCamService;
     protected final ApolloService apolloService;
 
+    /* the detections and clusters cached per map tile; the photos are paged, they are cached per search page */
+    private final TileCache<Detection> detectionTileCache;
+    private final TileCache<Cluster> clusterTileCache;
+
+    /* the displayed and the prefetched pages of the photo search */
+    private final PhotoPageCache photoPageCache = new PhotoPageCache(CacheConfig.getInstance().getPhotoPageCacheCount(),
+            TimeUnit.MINUTES.toMillis(CacheConfig.getInstance().getPhotoPageCacheTtl()));
+
 
     SearchServiceHandler() {
         openStreetCamService = new OpenStreetCamService();
         apolloService = new ApolloService();
+        final long timeToLive = TimeUnit.MINUTES.toMillis(CacheConfig.getInstance().getTileCacheTtl());
+        final int maxItems = CacheConfig.getInstance().getTileCacheMaxItems();
+        detectionTileCache = new TileCache<>(timeToLive, maxItems);
+        clusterTileCache = new TileCache<>(timeToLive, maxItems);
     }
 
     /**
      * Searches for data high zoom levels. For high zoom levels depending on the selected filter the following data
-     * types are displayed: photo locations, detections and clusters (aggregated detections).
+     * types are displayed: photo locations, detections and clusters (aggregated detections). The photos are searched
+     * page by page, the first page is returned; the next and previous pages are searched in the same photo area.
      *
      * @param areas a list of {@code BoundingBox}s representing the search areas. If the OsmDataLayer is active, there
      * might be several bounding boxes.
+     * @param photoArea a {@code BoundingBox} representing the search area of the photos
      * @param filter a {@code SearchFilter} represents the currently selected search filters.
      * @return a {@code HighZoomResultSet} containing the result
      */
-    HighZoomResultSet searchHighZoomData(final List<BoundingBox> areas, final SearchFilter filter) {
-        final ExecutorService executorService = Executors.newFixedThreadPool(filter.getDataTypes().size());
-        final List<Future<PhotoDataSet>> futurePhotoDataSets = new ArrayList<>();
-        final List<Future<List<Detection>>> futureDetections = new ArrayList<>();
-        final List<Future<List<Cluster>>> futureClusters = new ArrayList<>();
-
-        for (final BoundingBox area : areas) {
-            final Future<PhotoDataSet> futurePhotoDataSet = filter.getDataTypes().contains(DataType.PHOTO)
-                    ? executorService.submit(() -> listNearbyPhotos(area, filter, Paging.NEARBY_PHOTOS_DEAFULT)) : null;
-                    if (futurePhotoDataSet != null) {
-                        futurePhotoDataSets.add(futurePhotoDataSet);
-                    }
-                    final Future<List<Detection>> futureDetectionList = filter.getDataTypes().contains(DataType.DETECTION)
-                            ? executorService.submit(() -> searchDetections(area, filter)) : null;
-                            if (futureDetectionList != null) {
-                                futureDetections.add(futureDetectionList);
-                            }
-                            final Future<List<Cluster>> futureClusterList = filter.getDataTypes().contains(DataType.CLUSTER)
-                                    ? executorService.submit(() -> searchClusters(area, filter)) : null;
-                                    if (futureClusterList != null) {
-                                        futureClusters.add(futureClusterList);
-                                    }
-        }
-        PhotoDataSet photoDataSet = null;
-        try {
-            if (!futurePhotoDataSets.isEmpty()) {
-                photoDataSet = futurePhotoDataSets.get(0).get();
-                for (int i = 1; i < futurePhotoDataSets.size(); i++) {
-                    photoDataSet.addPhotos(futurePhotoDataSets.get(i).get().getPhotos());
+    HighZoomResultSet searchHighZoomData(final List<BoundingBox> areas, final BoundingBox photoArea,
+            final SearchFilter filter) {
+        final int zoom = PreferenceManager.getInstance().loadMapViewSettings().getPhotoZoom();
+        final int maxTiles = CacheConfig.getInstance().getTileCacheMaxTiles();
+        // the OSM user identifier depends on the authenticated user, it is not part of the filter
+        final Pair<SearchFilter, Long> qualifier = new Pair<>(filter, filter.getOsmUserId());
+
+        final TiledSearch<Detection> detectionSearch = filter.getDataTypes().contains(DataType.DETECTION)
+                ? new TiledSearch<>(detectionTileCache, areas, qualifier, zoom, maxTiles,
+                        detection -> Collections.singleton(detection.getPoint())) : null;
+        final TiledSearch<Cluster> clusterSearch = filter.getDataTypes().contains(DataType.CLUSTER)
+                ? new TiledSearch<>(clusterTileCache, areas, qualifier, zoom, maxTiles,
+                        cluster -> Collections.singleton(cluster.getPoint())) : null;
+
+        TaskScope.Subtask<PhotoDataSet> photoTask = null;
+        final Map<BoundingBox, TaskScope.Subtask<List<Detection>>> detectionTasks = new LinkedHashMap<>();
+        final Map<BoundingBox, TaskScope.Subtask<List<Cluster>>> clusterTasks = new LinkedHashMap<>();
+        // the data types are searched independently, the failure of a search does not cancel the others
+        try (TaskScope scope = TaskScope.open(false)) {
+            if (filter.getDataTypes().contains(DataType.PHOTO)) {
+                photoTask = scope.fork(() -> searchNearbyPhotos(photoArea, filter, Paging.NEARBY_PHOTOS_DEAFULT));
+            }
+            if (detectionSearch != null) {
+                for (final BoundingBox area : detectionSearch.getMissingAreas()) {
+                    detectionTasks.put(area, scope.fork(() -> apolloService.searchDetections(area, filter.getDate(),
+                            filter.getOsmUserId(), filter.getDetectionFilter())));
                 }
             }
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadPhotosSearchErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorPhotoListText());
-                PreferenceManager.getInstance().savePhotosSearchErrorSuppressFlag(flag);
+            if (clusterSearch != null) {
+                for (final BoundingBox area : clusterSearch.getMissingAreas()) {
+                    clusterTasks.put(area, scope.fork(
+                            () -> apolloService.searchClusters(area, filter.getDate(), filter.getDetectionFilter())));
+                }
             }
+            scope.join();
         }
-        photoDataSet = photoDataSet != null && photoDataSet.hasItems() ? photoDataSet : null;
 
-        List<Detection> detections = new ArrayList<>();
-        try {
-            for (final Future<List<Detection>> futureDetect : futureDetections) {
-                detections.addAll(futureDetect.get());
-            }
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadDetectionsSearchErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorDetectionRetrieveText());
-                PreferenceManager.getInstance().saveDetectionsSearchErrorSuppressFlag(flag);
+        PhotoDataSet photoDataSet = null;
+        if (photoTask != null) {
+            try {
+                photoDataSet = photoTask.result();
+            } catch (final Exception ex) {
+                if (!PreferenceManager.getInstance().loadPhotosSearchErrorSuppressFlag()) {
+                    final boolean flag = handleException(GuiConfig.getInstance().getErrorPhotoListText());
+                    PreferenceManager.getInstance().savePhotosSearchErrorSuppressFlag(flag);
+                }
             }
+            photoDataSet = photoDataSet != null && photoDataSet.hasItems() ? photoDataSet : null;
         }
-        detections = detections.isEmpty() ? null : detections;
 
-        List<Cluster> clusters = new ArrayList<>();
-        try {
-            for (final Future<List<Cluster>> futureCluster : futureClusters) {
-                clusters.addAll(futureCluster.get());
+        List<Detection> detections = null;
+        if (detectionSearch != null) {
+            try {
+                for (final Map.Entry<BoundingBox, TaskScope.Subtask<List<Detection>>> detectionTask : detectionTasks
+                        .entrySet()) {
+                    detectionSearch.addResult(detectionTask.getKey(), detectionTask.getValue().result(), true);
+                }
+            } catch (final Exception ex) {
+                if (!PreferenceManager.getInstance().loadDetectionsSearchErrorSuppressFlag()) {
+                    final boolean flag = handleException(GuiConfig.getInstance().getErrorDetectionRetrieveText());
+                    PreferenceManager.getInstance().saveDetectionsSearchErrorSuppressFlag(flag);
+                }
             }
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadClustersSearchErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorClusterRetrieveText());
-                PreferenceManager.getInstance().saveClustersSearchErrorSuppressFlag(flag);
+            detections = detectionSearch.getResult();
+            detections = detections.isEmpty() ? null : detections;
+        }
+
+        List<Cluster> clusters = null;
+        if (clusterSearch != null) {
+            try {
+                for (final Map.Entry<BoundingBox, TaskScope.Subtask<List<Cluster>>> clusterTask : clusterTasks
+                        .entrySet()) {
+                    clusterSearch.addResult(clusterTask.getKey(), clusterTask.getValue().result(), true);
+                }
+            } catch (final Exception ex) {
+                if (!PreferenceManager.getInstance().loadClustersSearchErrorSuppressFlag()) {
+                    final boolean flag = handleException(GuiConfig.getInstance().getErrorClusterRetrieveText());
+                    PreferenceManager.getInstance().saveClustersSearchErrorSuppressFlag(flag);
+                }
             }
+            clusters = clusterSearch.getResult();
+            clusters = clusters.isEmpty() ? null : clusters;
         }
-        clusters = clusters.isEmpty() ? null : clusters;
 
         if (detections != null && clusters != null) {
             // remove detections that belongs to a cluster
             detections = filterClusterDetections(clusters, detections);
         }
-        executorService.shutdown();
         return new HighZoomResultSet(photoDataSet, detections, clusters);
     }
 
+    /**
+     * Clears the cached detections and clusters. The method should be invoked after a detection was modified.
+     */
+    void clearDetectionTileCaches() {
+        detectionTileCache.clear();
+        clusterTileCache.clear();
+    }
+
     private List<Detection> filterClusterDetections(final List<Cluster> clusters, final List<Detection> detections) {
         final List<Detection> result = new ArrayList<>();
 
@@ -146,7 +195,8 @@ class SearchServiceHandler {
     }
 
     /**
-     * Lists the photos from the current area based on the given filters.
+     * Lists the photos from the current area based on the given filters. A page that was already searched or
+     * prefetched is returned without a new request.
      *
      * @param area a {@code Circle} representing the search areas.
      * @param filter a {@code Filter} represents the user's search filters. Null values are ignored.
@@ -154,15 +204,9 @@ class SearchServiceHandler {
      * @return a list of {@code Photo}s
      */
     public PhotoDataSet listNearbyPhotos(final BoundingBox area, final SearchFilter filter, final Paging paging) {
-        Long osmUserId = null;
-        Date date = null;
-        if (filter != null) {
-            osmUserId = filter.getOsmUserId();
-            date = filter.getDate();
-        }
         PhotoDataSet result = new PhotoDataSet();
         try {
-            result = openStreetCamService.listNearbyPhotos(area, date, osmUserId, paging);
+            result = searchNearbyPhotos(area, filter, paging);
         } catch (final ServiceException e) {
             if (!PreferenceManager.getInstance().loadPhotosSearchErrorSuppressFlag()) {
                 final boolean flag = handleException(GuiConfig.getInstance().getErrorPhotoListText());
@@ -172,27 +216,64 @@ class SearchServiceHandler {
         return result;
     }
 
-    private List<Detection> searchDetections(final BoundingBox area, final SearchFilter filter) {
-        Long osmUserId = null;
-        Date date = null;
-        DetectionFilter detectionFilter = null;
-        if (filter != null) {
-            osmUserId = filter.getOsmUserId();
-            date = filter.getDate();
-            detectionFilter = filter.getDetectionFilter();
+    /**
+     * Downloads in the background the pages of the photo search adjacent to the given page, such that the next or
+     * previous page is displayed without waiting for the service. The download is cancelled if the cancellation token
+     * of the current thread is cancelled.
+     *
+     * @param area the search area of the given page
+     * @param filter a {@code Filter} represents the user's search filters. Null values are ignored.
+     * @param photoDataSet the displayed page
+     */
+    public void prefetchNearbyPhotoPages(final BoundingBox area, final SearchFilter filter,
+            final PhotoDataSet photoDataSet) {
+        if (area != null && photoDataSet != null && photoDataSet.getPage() != null) {
+            if (photoDataSet.hasNextItems()) {
+                prefetchNearbyPhotoPage(area, filter, photoDataSet.getPage() + 1);
+            }
+            if (photoDataSet.hasPreviousItems()) {
+                prefetchNearbyPhotoPage(area, filter, photoDataSet.getPage() - 1);
+            }
         }
-        List<Detection> result = null;
-        try {
-            result = apolloService.searchDetections(area, date, osmUserId, detectionFilter);
-        } catch (final ServiceException e) {
-            if (!PreferenceManager.getInstance().loadDetectionsSearchErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorDetectionRetrieveText());
-                PreferenceManager.getInstance().saveDetectionsSearchErrorSuppressFlag(flag);
+    }
+
+    /* a downloaded page is cached as well: the previous action and a new search of the same area reuse it */
+    private PhotoDataSet searchNearbyPhotos(final BoundingBox area, final SearchFilter filter, final Paging paging)
+            throws ServiceException {
+        final Long osmUserId = filter != null ? filter.getOsmUserId() : null;
+        final Date date = filter != null ? filter.getDate() : null;
+        PhotoDataSet result = prefetchedNearbyPhotos(area, filter, osmUserId, paging);
+        if (result == null) {
+            final PhotoDataSet page = openStreetCamService.listNearbyPhotos(area, date, osmUserId, paging);
+            photoPageCache.putIfAbsent(area, filter, osmUserId, paging.getPage(),
+                    () -> CompletableFuture.completedFuture(page));
+            result = page;
+        }
+        return result;
+    }
+
+    private PhotoDataSet prefetchedNearbyPhotos(final BoundingBox area, final SearchFilter filter,
+            final Long osmUserId, final Paging paging) {
+        final CompletableFuture<PhotoDataSet> page = photoPageCache.get(area, filter, osmUserId, paging.getPage());
+        PhotoDataSet result = null;
+        if (page != null) {
+            try {
+                result = ServiceFutures.get(page);
+            } catch (final ServiceException e) {
+                // the prefetch failed or was cancelled, the page is downloaded again
             }
         }
         return result;
     }
 
+    private void prefetchNearbyPhotoPage(final BoundingBox area, final SearchFilter filter, final int page) {
+        final Long osmUserId = filter != null ? filter.getOsmUserId() : null;
+        final Date date = filter != null ? filter.getDate() : null;
+        final Paging paging = new Paging(page, OpenStreetCamServiceConfig.getInstance().getNearbyPhotosMaxItems());
+        photoPageCache.putIfAbsent(area, filter, osmUserId, page, () -> ServiceFutures
+                .supply(() -> openStreetCamService.listNearbyPhotos(area, date, osmUserId, paging)));
+    }
+
     public List<Cluster> searchClusters(final BoundingBox area, final SearchFilter filter) {
         Date date = null;
         DetectionFilter detectionFilter = null;
@@ -214,6 +295,10 @@ class SearchServiceHandler {
     }
 
     boolean handleException(final String message) {
+        if (CancellationToken.isCurrentCancelled()) {
+            // the operation failed because it was cancelled, the user does not need to be notified
+            return false;
+        }
         final int val = JOptionPane.showOptionDialog(MainApplication.getMainPanel(), message,
                 GuiConfig.getInstance().getErrorTitle(), JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null,
                 null, null);
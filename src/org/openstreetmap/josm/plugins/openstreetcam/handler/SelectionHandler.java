@@ -74,6 +74,7 @@ SequenceAutoplayObserver, ClusterObserver, DetectionSelectionObserver, RowSelect
 
     private void handlePhotoUnselection() {
         stopAutoplay();
+        PhotoHandler.getInstance().cancelPhotoLoading();
         if (DataSet.getInstance().hasSelectedPhoto()) {
             CacheManager.getInstance().removePhotos(DataSet.getInstance().getSelectedPhoto().getSequenceId());
         }
@@ -227,24 +228,23 @@ SequenceAutoplayObserver, ClusterObserver, DetectionSelectionObserver, RowSelect
     public void loadSequence(final Photo photo) {
         cleanUpOldSequence();
 
-        ThreadPool.getInstance().execute(() -> {
-            final Long sequenceId =
-                    photo != null ? photo.getSequenceId() : DataSet.getInstance().getSelectedPhoto().getSequenceId();
-                    final Sequence sequence = ServiceHandler.getInstance().retrieveSequence(sequenceId);
-
-                    if (sequence != null && sequence.hasData() && photo.equals(DataSet.getInstance().getSelectedPhoto())) {
-                        SwingUtilities.invokeLater(() -> {
-                            DataSet.getInstance().setSelectedSequence(sequence);
-                            PhotoDetailsDialog.getInstance().enableSequenceActions(
-                                    DataSet.getInstance().enablePreviousPhotoAction(),
-                                    DataSet.getInstance().enableNextPhotoAction(), null);
-                            if (PreferenceManager.getInstance().loadMapViewSettings().isManualSwitchFlag()) {
-                                PhotoDetailsDialog.getInstance().updateDataSwitchButton(null, false, null);
-                            }
-                            OpenStreetCamLayer.getInstance().invalidate();
-                            MainApplication.getMap().repaint();
-                        });
+        final Long sequenceId =
+                photo != null ? photo.getSequenceId() : DataSet.getInstance().getSelectedPhoto().getSequenceId();
+        // the sequence photos and detections are downloaded in parallel, no thread waits for them
+        ServiceHandler.getInstance().retrieveSequenceAsync(sequenceId).thenAccept(sequence -> {
+            if (sequence != null && sequence.hasData() && photo.equals(DataSet.getInstance().getSelectedPhoto())) {
+                SwingUtilities.invokeLater(() -> {
+                    DataSet.getInstance().setSelectedSequence(sequence);
+                    PhotoDetailsDialog.getInstance().enableSequenceActions(
+                            DataSet.getInstance().enablePreviousPhotoAction(),
+                            DataSet.getInstance().enableNextPhotoAction(), null);
+                    if (PreferenceManager.getInstance().loadMapViewSettings().isManualSwitchFlag()) {
+                        PhotoDetailsDialog.getInstance().updateDataSwitchButton(null, false, null);
                     }
+                    OpenStreetCamLayer.getInstance().invalidate();
+                    MainApplication.getMap().repaint();
+                });
+            }
         });
     }
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
+
+
+/**
+ * Keeps the photos and detections of the recently selected sequences in memory, such that re-selecting a sequence
+ * does not download them again. The photos of a sequence do not change after upload, so they are kept until the
+ * sequence is evicted or expires. The detections are edited by the users, so they are kept only for a short time,
+ * after which they are downloaded again; the detections of a sequence are also discarded if one of them is updated
+ * by the current user.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class SequenceCache {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxCount;
+    private final long photosTimeToLive;
+    private final long detectionsTimeToLive;
+
+    /** the cached sequences in least recently used order */
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+
+    /**
+     * Builds a new cache.
+     *
+     * @param maxCount the maximum number of cached sequences
+     * @param photosTimeToLive the time in milliseconds after which the photos of a sequence are downloaded again
+     * @param detectionsTimeToLive the time in milliseconds after which the detections of a sequence are downloaded
+     * again
+     */
+    SequenceCache(final int maxCount, final long photosTimeToLive, final long detectionsTimeToLive) {
+        this.maxCount = maxCount;
+        this.photosTimeToLive = photosTimeToLive;
+        this.detectionsTimeToLive = detectionsTimeToLive;
+    }
+
+
+    /**
+     * Returns the photos of the given sequence.
+     *
+     * @param sequenceId the identifier of the sequence
+     * @return a copy of the cached photos, or null if the photos are not cached or if they expired
+     */
+    synchronized List<Photo> getPhotos(final Long sequenceId) {
+        final Entry entry = entries.get(sequenceId);
+        return entry != null && entry.photos != null && !isExpired(entry.photosTime, photosTimeToLive)
+                ? new ArrayList<>(entry.photos) : null;
+    }
+
+    /**
+     * Returns the detections of the given sequence.
+     *
+     * @param sequenceId the identifier of the sequence
+     * @return a copy of the cached detections, or null if the detections are not cached or if they expired
+     */
+    synchronized List<Detection> getDetections(final Long sequenceId) {
+        final Entry entry = entries.get(sequenceId);
+        return entry != null && entry.detections != null && !isExpired(entry.detectionsTime, detectionsTimeToLive)
+                ? new ArrayList<>(entry.detections) : null;
+    }
+
+    synchronized void putPhotos(final Long sequenceId, final List<Photo> photos) {
+        final Entry entry = entry(sequenceId);
+        entry.photos = new ArrayList<>(photos);
+        entry.photosTime = System.currentTimeMillis();
+        evict();
+    }
+
+    synchronized void putDetections(final Long sequenceId, final List<Detection> detections) {
+        final Entry entry = entry(sequenceId);
+        entry.detections = new ArrayList<>(detections);
+        entry.detectionsTime = System.currentTimeMillis();
+        evict();
+    }
+
+    /**
+     * Discards the cached detections of the sequences containing the given detection.
+     *
+     * @param detectionId the identifier of a detection that was modified
+     */
+    synchronized void invalidateDetection(final Long detectionId) {
+        for (final Entry entry : entries.values()) {
+            if (entry.detections != null
+                    && entry.detections.stream().anyMatch(detection -> detectionId.equals(detection.getId()))) {
+                entry.detections = null;
+            }
+        }
+    }
+
+    private Entry entry(final Long sequenceId) {
+        return entries.computeIfAbsent(sequenceId, id -> new Entry());
+    }
+
+    private void evict() {
+        while (entries.size() > maxCount) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    private static boolean isExpired(final long time, final long timeToLive) {
+        return System.currentTimeMillis() - time > timeToLive;
+    }
+
+
+    /**
+     * Holds the cached data of a sequence.
+     */
+    private static final class Entry {
+
+        private List<Photo> photos;
+        private long photosTime;
+        private List<Detection> detections;
+        private long detectionsTime;
+    }
+}
\ No newline at end of file
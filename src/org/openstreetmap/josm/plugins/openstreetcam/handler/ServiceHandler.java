@@ -6,24 +6,29 @@
  */
 package org.openstreetmap.josm.plugins.openstreetcam.handler;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.swing.JOptionPane;
+import org.openstreetmap.josm.data.Preferences;
 import org.openstreetmap.josm.data.UserIdentityManager;
 import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.SearchFilter;
+import org.openstreetmap.josm.plugins.openstreetcam.cache.TileCache;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Author;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Cluster;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.ClusterBuilder;
-import org.openstreetmap.josm.plugins.openstreetcam.entity.Contribution;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.EditStatus;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.HighZoomResultSet;
@@ -31,11 +36,20 @@ import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Segment;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Sequence;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Sign;
+import org.openstreetmap.josm.plugins.openstreetcam.observer.DetectionEditObserver;
+import org.openstreetmap.josm.plugins.openstreetcam.service.PageListener;
 import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceFutures;
+import org.openstreetmap.josm.plugins.openstreetcam.service.TaskExecutor;
+import org.openstreetmap.josm.plugins.openstreetcam.service.TaskScope;
 import org.openstreetmap.josm.plugins.openstreetcam.util.Util;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.CacheConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.GuiConfig;
 import org.openstreetmap.josm.plugins.openstreetcam.util.pref.PreferenceManager;
+import org.openstreetmap.josm.tools.Logging;
 import com.grab.josm.common.argument.BoundingBox;
+import com.grab.josm.common.thread.ThreadPool;
 
 
 /**
@@ -47,129 +61,200 @@ import com.grab.josm.common.argument.BoundingBox;
  */
 public final class ServiceHandler extends SearchServiceHandler {
 
-    private static final int CLUSTER_THREAD_POOL_SIZE = 3;
-    private static final int SEQUENCE_THREAD_POOL_SIZE = 2;
+    private static final String SIGN_CATALOGUE_LOCATION = "cache/signs.json";
+    private static final String DETECTION_EDITS_LOCATION = "cache/detection_edits.json";
 
     private static final ServiceHandler INSTANCE = new ServiceHandler();
 
+    /* the coverage segments cached per map tile, the tiles have the zoom level of the search */
+    private final TileCache<Segment> segmentTileCache = new TileCache<>(
+            TimeUnit.MINUTES.toMillis(CacheConfig.getInstance().getSegmentCacheTtl()),
+            CacheConfig.getInstance().getSegmentCacheMaxPoints(), ServiceHandler::pointCount);
+
+    /* the photos and detections of the recently selected sequences */
+    private final SequenceCache sequenceCache = new SequenceCache(CacheConfig.getInstance().getSequenceCacheCount(),
+            TimeUnit.MINUTES.toMillis(CacheConfig.getInstance().getSequenceCachePhotosTtl()),
+            TimeUnit.MINUTES.toMillis(CacheConfig.getInstance().getSequenceCacheDetectionsTtl()));
+
+    /* the sign catalogue saved on the local disk */
+    private final SignCatalogue signCatalogue = new SignCatalogue(new File(
+            new File(Preferences.main().getPluginsDirectory(), GuiConfig.getInstance().getPluginShortName()),
+            SIGN_CATALOGUE_LOCATION));
+    private final AtomicBoolean signCatalogueRefreshed = new AtomicBoolean();
+
+    /* the details of the recently selected clusters */
+    private final ClusterCache clusterCache = new ClusterCache(CacheConfig.getInstance().getClusterCacheCount());
+
+    /* the detection edits that were not yet accepted by the service, saved on the local disk */
+    private final DetectionEditQueue detectionEditQueue = new DetectionEditQueue(new File(
+            new File(Preferences.main().getPluginsDirectory(), GuiConfig.getInstance().getPluginShortName()),
+            DETECTION_EDITS_LOCATION), apolloService::updateDetection, this::detectionEditsSent);
+    private volatile DetectionEditObserver detectionEditObserver;
+
+
+    private ServiceHandler() {
+        // the edits that were pending when JOSM exited are sent again
+        detectionEditQueue.start();
+    }
+
     public static ServiceHandler getInstance() {
         return INSTANCE;
     }
 
     @Override
-    public HighZoomResultSet searchHighZoomData(final List<BoundingBox> areas, final SearchFilter filter) {
-        return filter != null && filter.getDataTypes() != null && !filter.getDataTypes().isEmpty()
-                ? super.searchHighZoomData(areas, filter) : new HighZoomResultSet();
+    public HighZoomResultSet searchHighZoomData(final List<BoundingBox> areas, final BoundingBox photoArea,
+            final SearchFilter filter) {
+        HighZoomResultSet result = new HighZoomResultSet();
+        if (filter != null && filter.getDataTypes() != null && !filter.getDataTypes().isEmpty()) {
+            result = super.searchHighZoomData(areas, photoArea, filter);
+            result = new HighZoomResultSet(result.getPhotoDataSet(), applyPendingEdits(result.getDetections()),
+                    result.getClusters());
+        }
+        return result;
     }
 
     /**
-     * Retrieves the sequence identified by the given identifier.
+     * Retrieves the sequence identified by the given identifier. The photos and detections of the recently selected
+     * sequences are served from memory, the missing ones are downloaded in parallel without blocking the calling
+     * thread.
      *
      * @param sequenceId the identifier of the sequence
-     * @return a {@code Sequence} object
+     * @return a {@code CompletableFuture} of the {@code Sequence}; the download errors are reported to the user and
+     * the data that could not be downloaded is null
      */
-    public Sequence retrieveSequence(final Long sequenceId) {
-        final ExecutorService executorService = Executors.newFixedThreadPool(SEQUENCE_THREAD_POOL_SIZE);
-
-        final Future<Sequence> sequenceFuture = executorService.submit(() -> retrieveSequencePhotos(sequenceId));
-        final Future<List<Detection>> detectionsFuture =
-                executorService.submit(() -> retrieveSequenceDetections(sequenceId));
-
-        List<Photo> photos = null;
-        try {
-            if (sequenceFuture != null) {
-                final Sequence sequence = sequenceFuture.get();
-                photos = sequence != null ? sequence.getPhotos() : null;
-            }
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
-                PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
-            }
-        }
-        List<Detection> detections = null;
-        try {
-            detections = detectionsFuture != null ? detectionsFuture.get() : null;
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
-                PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
-            }
-        }
-        executorService.shutdown();
-        return new Sequence(sequenceId, photos, detections);
+    public CompletableFuture<Sequence> retrieveSequenceAsync(final Long sequenceId) {
+        final List<Photo> cachedPhotos = sequenceCache.getPhotos(sequenceId);
+        final List<Detection> cachedDetections = sequenceCache.getDetections(sequenceId);
+        final CompletableFuture<List<Photo>> photos = cachedPhotos != null
+                ? CompletableFuture.completedFuture(cachedPhotos) : retrieveSequencePhotos(sequenceId);
+        final CompletableFuture<List<Detection>> detections = cachedDetections != null
+                ? CompletableFuture.completedFuture(cachedDetections) : retrieveSequenceDetections(sequenceId);
+        return photos.thenCombine(detections, (sequencePhotos, sequenceDetections) -> new Sequence(sequenceId,
+                sequencePhotos, applyPendingEdits(sequenceDetections)));
     }
 
     /**
-     * Retrieves the details of the cluster identified by the given identifier.
+     * Retrieves the details of the cluster identified by the given identifier. The details of a recently selected
+     * cluster are served from memory if the cluster did not change since.
      *
      * @param id the identifier of the cluster
+     * @param latestChangeTimestamp the latest change timestamp of the cluster, as returned by the cluster search
      * @return a {@code Cluster} object.
      */
-    public Cluster retrieveClusterDetails(final Long id) {
-        final ExecutorService executorService = Executors.newFixedThreadPool(CLUSTER_THREAD_POOL_SIZE);
-        final Future<Cluster> clusterFuture = executorService.submit(() -> apolloService.retrieveCluster(id));
-        final Future<List<Photo>> photosFuture = executorService.submit(() -> apolloService.retrieveClusterPhotos(id));
-        final Future<List<Detection>> detectionsFuture =
-                executorService.submit(() -> apolloService.retrieveClusterDetections(id));
-
-        ClusterBuilder clusterBuilder = new ClusterBuilder();
-        try {
-            clusterBuilder = new ClusterBuilder(clusterFuture.get());
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
-                PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
+    public Cluster retrieveClusterDetails(final Long id, final Long latestChangeTimestamp) {
+        // the service calls are bounded by the task deadline and their errors are handled, the future always completes
+        return retrieveClusterDetailsAsync(id, latestChangeTimestamp).join();
+    }
+
+    /**
+     * Retrieves the details of the cluster identified by the given identifier. The cluster, its photos and its
+     * detections are downloaded in parallel without blocking the calling thread.
+     *
+     * @param id the identifier of the cluster
+     * @param latestChangeTimestamp the latest change timestamp of the cluster, as returned by the cluster search
+     * @return a {@code CompletableFuture} of the {@code Cluster}; the download errors are reported to the user and
+     * the data that could not be downloaded is null
+     */
+    public CompletableFuture<Cluster> retrieveClusterDetailsAsync(final Long id, final Long latestChangeTimestamp) {
+        final Cluster cachedCluster = clusterCache.get(id, latestChangeTimestamp);
+        final CompletableFuture<Cluster> cluster =
+                cachedCluster != null ? CompletableFuture.completedFuture(cachedCluster) : downloadClusterDetails(id);
+        return cluster.thenApply(result -> {
+            final List<Detection> detections = applyPendingEdits(result.getDetections());
+            Cluster clusterDetails = result;
+            if (detections != result.getDetections()) {
+                final ClusterBuilder builder = new ClusterBuilder(result);
+                builder.photos(result.getPhotos());
+                builder.detections(detections);
+                clusterDetails = builder.build();
             }
-        }
-        try {
-            clusterBuilder.photos(photosFuture.get());
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
-                PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
+            return clusterDetails;
+        });
+    }
+
+    private CompletableFuture<Cluster> downloadClusterDetails(final Long id) {
+        final AtomicBoolean complete = new AtomicBoolean(true);
+        final CompletableFuture<Cluster> clusterTask =
+                handleSequenceError(apolloService.retrieveClusterAsync(id), complete);
+        final CompletableFuture<List<Photo>> photosTask =
+                handleSequenceError(apolloService.retrieveClusterPhotosAsync(id), complete);
+        final CompletableFuture<List<Detection>> detectionsTask =
+                handleSequenceError(apolloService.retrieveClusterDetectionsAsync(id), complete);
+        return CompletableFuture.allOf(clusterTask, photosTask, detectionsTask).thenApply(ignored -> {
+            ClusterBuilder clusterBuilder = new ClusterBuilder();
+            if (clusterTask.join() != null) {
+                clusterBuilder = new ClusterBuilder(clusterTask.join());
+            } else {
+                complete.set(false);
             }
-        }
-        try {
-            final List<Detection> detections = detectionsFuture.get();
+            clusterBuilder.photos(photosTask.join());
+            final List<Detection> detections = detectionsTask.join();
             if (detections != null) {
                 Collections.sort(detections);
             }
             clusterBuilder.detections(detections);
-        } catch (final Exception ex) {
-            if (!PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
-                PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
+            final Cluster cluster = clusterBuilder.build();
+            if (complete.get()) {
+                clusterCache.put(cluster);
             }
-        }
-        executorService.shutdown();
-        return clusterBuilder.build();
+            return cluster;
+        });
     }
 
-    private Sequence retrieveSequencePhotos(final Long id) {
-        Sequence sequence = null;
-        try {
-            sequence = openStreetCamService.retrieveSequence(id);
-        } catch (final ServiceException e) {
-            if (!PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
-                PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
-            }
-        }
-        return sequence;
+    private CompletableFuture<List<Photo>> retrieveSequencePhotos(final Long id) {
+        return handleSequenceError(openStreetCamService.retrieveSequenceAsync(id), new AtomicBoolean())
+                .thenApply(sequence -> {
+                    List<Photo> photos = null;
+                    if (sequence != null && sequence.getPhotos() != null) {
+                        photos = sequence.getPhotos();
+                        sequenceCache.putPhotos(id, photos);
+                    }
+                    return photos;
+                });
     }
 
-    private List<Detection> retrieveSequenceDetections(final Long id) {
-        List<Detection> result = null;
-        try {
-            result = apolloService.retrieveSequenceDetections(id);
-        } catch (final ServiceException e) {
-            if (!PreferenceManager.getInstance().loadSequenceDetectionsErrorFlag()) {
+    private CompletableFuture<List<Detection>> retrieveSequenceDetections(final Long id) {
+        return withDeadline(apolloService.retrieveSequenceDetectionsAsync(id)).handleAsync((result, error) -> {
+            List<Detection> detections = null;
+            if (error == null) {
+                detections = result;
+                sequenceCache.putDetections(id, result != null ? result : Collections.emptyList());
+            } else if (!isCancellation(error) && !PreferenceManager.getInstance().loadSequenceDetectionsErrorFlag()) {
                 final boolean flag = handleException(GuiConfig.getInstance().getErrorDetectionRetrieveText());
                 PreferenceManager.getInstance().saveSequenceDetectionsErrorFlag(flag);
             }
-        }
-        return result;
+            return detections;
+        }, TaskExecutor.getInstance().executor());
+    }
+
+    /**
+     * Reports the failure of the given sequence or cluster download to the user. The failed download is read as
+     * null and clears the given flag.
+     */
+    private <T> CompletableFuture<T> handleSequenceError(final CompletableFuture<T> future,
+            final AtomicBoolean complete) {
+        // the error dialog must not block the thread that completed the future, for instance the timeout thread
+        return withDeadline(future).handleAsync((result, error) -> {
+            T value = result;
+            if (error != null) {
+                value = null;
+                complete.set(false);
+                if (!isCancellation(error) && !PreferenceManager.getInstance().loadSequenceErrorSuppressFlag()) {
+                    final boolean flag = handleException(GuiConfig.getInstance().getErrorSequenceText());
+                    PreferenceManager.getInstance().saveSequenceErrorSuppressFlag(flag);
+                }
+            }
+            return value;
+        }, TaskExecutor.getInstance().executor());
+    }
+
+    private static <T> CompletableFuture<T> withDeadline(final CompletableFuture<T> future) {
+        return ServiceFutures.withTimeout(future, Config.getInstance().getTaskDeadline(), TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean isCancellation(final Throwable error) {
+        // the operation was cancelled by the user, the user does not need to be notified
+        return error instanceof CancellationException || error.getCause() instanceof CancellationException;
     }
 
     /**
@@ -182,7 +267,7 @@ public final class ServiceHandler extends SearchServiceHandler {
     public List<Detection> retrievePhotoDetections(final Long sequenceId, final Integer sequenceIndex) {
         List<Detection> result = null;
         try {
-            result = apolloService.retrievePhotoDetections(sequenceId, sequenceIndex);
+            result = applyPendingEdits(apolloService.retrievePhotoDetections(sequenceId, sequenceIndex));
         } catch (final ServiceException e) {
             if (!PreferenceManager.getInstance().loadSequenceDetectionsErrorFlag()) {
                 final boolean flag = handleException(GuiConfig.getInstance().getErrorDetectionRetrieveText());
@@ -200,44 +285,62 @@ public final class ServiceHandler extends SearchServiceHandler {
      * might be several bounding boxes.
      * @param filter a {@code Filter} represents the user's search filters. Null values are ignored.
      * @param zoom the current zoom level
+     * @param listener a {@code PageListener} that receives the cached segments and then the segments of every page as
+     * soon as it is retrieved, such that they can be displayed before the search completes; might be null
      * @return a list of {@code Segment}s
      */
-    public List<Segment> listMatchedTracks(final List<BoundingBox> areas, final SearchFilter filter, final int zoom) {
-        List<Segment> finalResult = new ArrayList<>();
+    public List<Segment> listMatchedTracks(final List<BoundingBox> areas, final SearchFilter filter, final int zoom,
+            final PageListener<Segment> listener) {
         final Long osmUserId = filter != null ? filter.getOsmUserId() : null;
+        final TiledSearch<Segment> search = new TiledSearch<>(segmentTileCache, areas, osmUserId, zoom,
+                CacheConfig.getInstance().getTileCacheMaxTiles(), Segment::getGeometry);
+        final List<BoundingBox> missingAreas = search.getMissingAreas();
+        final SearchProgress<Segment> progress = new SearchProgress<>(listener, missingAreas);
+        if (!missingAreas.isEmpty()) {
+            progress.start(search.getResult());
+        }
         try {
-            if (areas.size() > 1) {
-                // special case: there are several different areas visible in the OSM data layer
-                final ExecutorService executor = Executors.newFixedThreadPool(areas.size());
-                final List<Future<List<Segment>>> futures = new ArrayList<>();
-                for (final BoundingBox bbox : areas) {
-                    final Callable<List<Segment>> callable =
-                            () -> openStreetCamService.listMatchedTracks(bbox, osmUserId, zoom);
-                            futures.add(executor.submit(callable));
+            if (missingAreas.size() > 1) {
+                // special case: there are several different areas to search
+                try (TaskScope scope = TaskScope.open(true)) {
+                    final Map<BoundingBox, TaskScope.Subtask<List<Segment>>> areaTasks = new LinkedHashMap<>();
+                    for (final BoundingBox bbox : missingAreas) {
+                        areaTasks.put(bbox, scope.fork(() -> openStreetCamService.listMatchedTracks(bbox, osmUserId,
+                                zoom, progress.forArea(bbox))));
+                    }
+                    scope.join();
+                    scope.throwIfFailed();
+                    for (final Map.Entry<BoundingBox, TaskScope.Subtask<List<Segment>>> areaTask : areaTasks
+                            .entrySet()) {
+                        final List<Segment> segments = areaTask.getValue().result();
+                        search.addResult(areaTask.getKey(), segments != null ? new HashSet<>(segments) : null, true);
+                    }
                 }
-                finalResult.addAll(readResult(futures));
-                executor.shutdown();
-            } else {
-                finalResult = openStreetCamService.listMatchedTracks(areas.get(0), osmUserId, zoom);
+            } else if (!missingAreas.isEmpty()) {
+                search.addResult(missingAreas.get(0), openStreetCamService.listMatchedTracks(missingAreas.get(0),
+                        osmUserId, zoom, progress.forArea(missingAreas.get(0))), true);
             }
         } catch (final ServiceException e) {
             if (!PreferenceManager.getInstance().loadSegmentsErrorSuppressFlag()) {
                 final boolean flag = handleException(GuiConfig.getInstance().getErrorSegmentListText());
                 PreferenceManager.getInstance().saveSegmentsErrorSuppressFlag(flag);
             }
+        } finally {
+            progress.complete();
         }
-        return finalResult;
+        return search.getResult();
     }
 
     /**
      * Retrieves the photo with the given name.
      *
      * @param photoName the name of a photo
+     * @param photoSize the size of the photo
      * @return the photo content in byte array format
      * @throws ServiceException if the download operation fails
      */
-    byte[] retrievePhoto(final String photoName) throws ServiceException {
-        return openStreetCamService.retrievePhoto(photoName);
+    byte[] retrievePhoto(final String photoName, final PhotoSize photoSize) throws ServiceException {
+        return openStreetCamService.retrievePhoto(photoName, photoSize);
     }
 
     /**
@@ -261,13 +364,17 @@ public final class ServiceHandler extends SearchServiceHandler {
     }
 
     /**
-     * Updates the edit status of the given detection.
+     * Updates the edit status of the given detection. The update is saved on the local disk and sent to the service
+     * in the background, such that it can be displayed immediately. Until the service accepts the update, it is applied
+     * on the detections returned by this handler. If the service rejects the update, the current version of the
+     * detection is passed to the registered {@code DetectionEditObserver}.
      *
      * @param detectionId the identifier of the detection that need to be updated
      * @param editStatus a new edit status
      * @param comment a descriptive comment for the update.
+     * @return true if the update was saved, false if the user is not authenticated
      */
-    public void updateDetection(final Long detectionId, final EditStatus editStatus, final String comment) {
+    public boolean updateDetection(final Long detectionId, final EditStatus editStatus, final String comment) {
         final Long userId = Util.getOsmUserId();
         final String userName = UserIdentityManager.getInstance().getUserName();
         if (userId == null) {
@@ -275,16 +382,72 @@ public final class ServiceHandler extends SearchServiceHandler {
                     GuiConfig.getInstance().getAuthenticationNeededErrorMessage(),
                     GuiConfig.getInstance().getWarningTitle(), JOptionPane.WARNING_MESSAGE, null);
         } else {
-            final Author author = new Author(userId.toString(), userName);
-            try {
-                apolloService.updateDetection(new Detection(detectionId, editStatus),
-                        new Contribution(author, comment));
-            } catch (final ServiceException e) {
-                if (!PreferenceManager.getInstance().loadDetectionUpdateErrorSuppressFlag()) {
-                    final boolean flag = handleException(GuiConfig.getInstance().getErrorDetectionUpdateText());
-                    PreferenceManager.getInstance().saveDetectionUpdateErrorSuppressFlag(flag);
+            detectionEditQueue.add(detectionId, editStatus, comment, new Author(userId.toString(), userName));
+        }
+        return userId != null;
+    }
+
+    /**
+     * Saves the detection updates that were not yet sent to the service. The method should be invoked before the
+     * application exits.
+     */
+    public void saveDetectionUpdates() {
+        detectionEditQueue.saveNow();
+    }
+
+    /**
+     * Registers the observer of the detection updates rejected by the service.
+     *
+     * @param observer a {@code DetectionEditObserver}
+     */
+    public void registerObserver(final DetectionEditObserver observer) {
+        detectionEditObserver = observer;
+    }
+
+    /**
+     * Replaces the edit status of the given detections with the status of their pending edits. The service returns
+     * the previous status until it accepts an edit, and the edits loaded after a restart are pending as well.
+     */
+    private List<Detection> applyPendingEdits(final List<Detection> detections) {
+        final Map<Long, EditStatus> editStatuses = detectionEditQueue.pendingEditStatuses();
+        List<Detection> result = detections;
+        if (detections != null && !editStatuses.isEmpty()) {
+            result = detections.stream().map(detection -> applyPendingEdit(detection, editStatuses))
+                    .collect(Collectors.toList());
+        }
+        return result;
+    }
+
+    private static Detection applyPendingEdit(final Detection detection, final Map<Long, EditStatus> editStatuses) {
+        final EditStatus editStatus = detection != null ? editStatuses.get(detection.getId()) : null;
+        return editStatus != null ? new Detection(detection, editStatus) : detection;
+    }
+
+    private void detectionEditsSent(final List<Long> appliedIds, final List<Long> conflictIds) {
+        final List<Long> detectionIds = Stream.concat(appliedIds.stream(), conflictIds.stream())
+                .collect(Collectors.toList());
+        if (!detectionIds.isEmpty()) {
+            clearDetectionTileCaches();
+            detectionIds.forEach(sequenceCache::invalidateDetection);
+            detectionIds.forEach(clusterCache::invalidateDetection);
+        }
+        if (!conflictIds.isEmpty()) {
+            for (final Long detectionId : conflictIds) {
+                try {
+                    final Detection detection = apolloService.retrieveDetection(detectionId);
+                    final DetectionEditObserver observer = detectionEditObserver;
+                    if (detection != null && observer != null) {
+                        observer.rejectDetectionEdit(detection);
+                    }
+                } catch (final ServiceException e) {
+                    Logging.warn("Could not reload detection " + detectionId, e);
                 }
             }
+            if (!PreferenceManager.getInstance().loadDetectionUpdateErrorSuppressFlag()) {
+                final boolean flag = handleException(
+                        String.format(GuiConfig.getInstance().getErrorDetectionConflictText(), conflictIds.size()));
+                PreferenceManager.getInstance().saveDetectionUpdateErrorSuppressFlag(flag);
+            }
         }
     }
 
@@ -297,7 +460,8 @@ public final class ServiceHandler extends SearchServiceHandler {
     public Detection retrieveDetection(final Long detectionId) {
         Detection result = null;
         try {
-            result = apolloService.retrieveDetection(detectionId);
+            result = applyPendingEdit(apolloService.retrieveDetection(detectionId),
+                    detectionEditQueue.pendingEditStatuses());
         } catch (final ServiceException e) {
             if (!PreferenceManager.getInstance().loadPhotosErrorSuppressFlag()) {
                 final boolean flag = handleException(GuiConfig.getInstance().getErrorPhotoLoadingText());
@@ -328,50 +492,69 @@ public final class ServiceHandler extends SearchServiceHandler {
     }
 
     /**
-     * Retrieves the full list of possible Sign Objects
+     * Retrieves the full list of possible Sign Objects. The signs saved on the local disk are returned if available.
      *
      * @return a List of Sign objects
      */
     public List<Sign> listSigns() {
-        List<Sign> result = null;
-        try {
-            result = apolloService.listSigns();
-        } catch (final ServiceException e) {
-            if (!PreferenceManager.getInstance().loadListSignsErrorSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorListSignsText());
-                PreferenceManager.getInstance().saveListSignsErrorSuppressFlag(flag);
+        List<Sign> result = signCatalogue.getSigns();
+        if (result == null) {
+            try {
+                result = apolloService.listSigns();
+                signCatalogue.update(result, null);
+            } catch (final ServiceException e) {
+                if (!PreferenceManager.getInstance().loadListSignsErrorSuppressFlag()) {
+                    final boolean flag = handleException(GuiConfig.getInstance().getErrorListSignsText());
+                    PreferenceManager.getInstance().saveListSignsErrorSuppressFlag(flag);
+                }
             }
+        } else {
+            refreshSignCatalogue();
         }
         return result;
     }
 
     /**
-     * Retrieves the list of Sign regions.
+     * Retrieves the list of Sign regions. The regions saved on the local disk are returned if available.
      *
      * @return a list of {@code String}s representing the supported regions
      */
     public List<String> listRegions() {
-        List<String> result = null;
-        try {
-            result = apolloService.listRegions();
-        } catch (final ServiceException e) {
-            if (!PreferenceManager.getInstance().loadListSignRegionsSuppressFlag()) {
-                final boolean flag = handleException(GuiConfig.getInstance().getErrorListRegionsText());
-                PreferenceManager.getInstance().saveListSignRegionErrorSuppressFlag(flag);
+        List<String> result = signCatalogue.getRegions();
+        if (result == null) {
+            try {
+                result = apolloService.listRegions();
+                signCatalogue.update(null, result);
+            } catch (final ServiceException e) {
+                if (!PreferenceManager.getInstance().loadListSignRegionsSuppressFlag()) {
+                    final boolean flag = handleException(GuiConfig.getInstance().getErrorListRegionsText());
+                    PreferenceManager.getInstance().saveListSignRegionErrorSuppressFlag(flag);
+                }
             }
+        } else {
+            refreshSignCatalogue();
         }
         return result;
     }
 
-    private <T> Set<T> readResult(final List<Future<List<T>>> futures) throws ServiceException {
-        final Set<T> result = new HashSet<>();
-        for (final Future<List<T>> future : futures) {
-            try {
-                result.addAll(future.get());
-            } catch (InterruptedException | ExecutionException e) {
-                throw new ServiceException(e);
-            }
+    /**
+     * Downloads the sign catalogue in the background, once per session. The downloaded catalogue is used from the
+     * next session on.
+     */
+    private void refreshSignCatalogue() {
+        if (signCatalogueRefreshed.compareAndSet(false, true)) {
+            ThreadPool.getInstance().execute(() -> {
+                try {
+                    signCatalogue.update(apolloService.listSigns(), apolloService.listRegions());
+                } catch (final ServiceException e) {
+                    Logging.warn("Could not refresh the sign catalogue", e);
+                }
+            });
         }
-        return result;
+    }
+
+    private static long pointCount(final List<Segment> segments) {
+        return segments.stream().mapToLong(segment -> segment.getGeometry() != null ? segment.getGeometry().size() : 0)
+                .sum();
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Sign;
+import org.openstreetmap.josm.plugins.openstreetcam.util.FileUtil;
+import org.openstreetmap.josm.tools.Logging;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+
+/**
+ * Persists the sign catalogue (the detectable signs and the sign regions) on the local disk, such that the plugin can
+ * start without downloading it. The saved catalogue carries a version stamp computed from its content; it is
+ * rewritten only if a downloaded catalogue has a different stamp.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class SignCatalogue {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final File file;
+    private final Gson gson = new Gson();
+    private Content content;
+
+
+    /**
+     * Builds a new catalogue. The previously saved catalogue is loaded from the given file.
+     *
+     * @param file the file in which the catalogue is saved
+     */
+    SignCatalogue(final File file) {
+        this.file = file;
+        content = load();
+    }
+
+
+    /**
+     * Returns the saved signs.
+     *
+     * @return a list of {@code Sign}s or null if no signs were saved
+     */
+    synchronized List<Sign> getSigns() {
+        return content.signs != null ? new ArrayList<>(content.signs) : null;
+    }
+
+    /**
+     * Returns the saved sign regions.
+     *
+     * @return a list of regions or null if no regions were saved
+     */
+    synchronized List<String> getRegions() {
+        return content.regions != null ? new ArrayList<>(content.regions) : null;
+    }
+
+    /**
+     * Saves the given signs and regions if they differ from the saved ones. Null arguments keep the saved values.
+     *
+     * @param signs a list of {@code Sign}s
+     * @param regions a list of regions
+     */
+    synchronized void update(final List<Sign> signs, final List<String> regions) {
+        final Content newContent = new Content();
+        newContent.formatVersion = FORMAT_VERSION;
+        newContent.signs = signs != null ? signs : content.signs;
+        newContent.regions = regions != null ? regions : content.regions;
+        newContent.version = FileUtil.sha1Hex(gson.toJson(newContent.signs) + gson.toJson(newContent.regions));
+        if (!newContent.version.equals(content.version)) {
+            content = newContent;
+            save();
+        }
+    }
+
+    private Content load() {
+        Content result = null;
+        if (file.exists()) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                result = gson.fromJson(reader, Content.class);
+            } catch (final IOException | JsonParseException e) {
+                Logging.warn("Could not read the saved sign catalogue, it is downloaded again", e);
+            }
+        }
+        if (result == null || result.formatVersion != FORMAT_VERSION) {
+            result = new Content();
+        }
+        return result;
+    }
+
+    private void save() {
+        final File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logging.warn("Could not create directory " + directory);
+        }
+        try {
+            FileUtil.replace(file, out -> {
+                final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                gson.toJson(content, writer);
+                writer.flush();
+            });
+        } catch (final IOException e) {
+            Logging.warn("Could not save the sign catalogue", e);
+        }
+    }
+
+
+    /**
+     * The saved content.
+     */
+    private static final class Content {
+
+        private int formatVersion;
+        private String version;
+        private List<Sign> signs;
+        private List<String> regions;
+    }
+}
\ No newline at end of file
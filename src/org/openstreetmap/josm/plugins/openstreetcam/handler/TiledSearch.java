@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.openstreetcam.cache.Tile;
+import org.openstreetmap.josm.plugins.openstreetcam.cache.TileCache;
+import com.grab.josm.common.argument.BoundingBox;
+
+
+/**
+ * Assembles the data of a map view from tiles. The data of the tiles that are already cached is reused; only the
+ * missing tiles are searched, merged into as few areas as possible. If the map view covers too many tiles, the search
+ * areas are searched directly and nothing is cached.
+ *
+ * @author beataj
+ * @version $Revision$
+ * @param <T> the type of the searched items
+ */
+final class TiledSearch<T> {
+
+    private final TileCache<T> cache;
+    private final Object qualifier;
+    private final int zoom;
+    private final Function<T, Collection<LatLon>> locations;
+    private final Set<Tile> missingTiles = new LinkedHashSet<>();
+    private final List<BoundingBox> missingAreas;
+    private final Set<T> result = new LinkedHashSet<>();
+
+
+    /**
+     * Builds a new search.
+     *
+     * @param cache the cache holding the already searched tiles
+     * @param areas the search areas
+     * @param qualifier identifies the search filters with which the items are searched
+     * @param zoom the zoom level of the tiles
+     * @param maxTiles the maximum number of tiles that are searched through the cache
+     * @param locations returns the points of an item; an item with several points is a polyline, cached with every
+     * tile the polyline crosses
+     */
+    TiledSearch(final TileCache<T> cache, final List<BoundingBox> areas, final Object qualifier, final int zoom,
+            final int maxTiles, final Function<T, Collection<LatLon>> locations) {
+        this.cache = cache;
+        this.qualifier = qualifier;
+        this.zoom = zoom;
+        this.locations = locations;
+        final long tileCount = areas.stream().mapToLong(area -> Tile.count(area, zoom)).sum();
+        if (tileCount <= maxTiles) {
+            final Set<Tile> tiles = new LinkedHashSet<>();
+            for (final BoundingBox area : areas) {
+                tiles.addAll(Tile.covering(area, zoom));
+            }
+            for (final Tile tile : tiles) {
+                final List<T> items = cache.get(tile, qualifier);
+                if (items != null) {
+                    result.addAll(items);
+                } else {
+                    missingTiles.add(tile);
+                }
+            }
+            missingAreas = missingTiles.isEmpty() ? Collections.emptyList() : Tile.mergedBounds(missingTiles);
+        } else {
+            missingAreas = areas;
+        }
+    }
+
+
+    /**
+     * Returns the areas that need to be searched.
+     *
+     * @return a list of {@code BoundingBox}es
+     */
+    List<BoundingBox> getMissingAreas() {
+        return missingAreas;
+    }
+
+    /**
+     * Adds the items found in the given missing area. If the search is complete the items are cached with the tiles
+     * they belong to.
+     *
+     * @param area one of the missing areas
+     * @param items the items found in the area
+     * @param complete true if all the items of the area were returned, false if the search result was truncated
+     */
+    void addResult(final BoundingBox area, final Collection<T> items, final boolean complete) {
+        if (items != null) {
+            result.addAll(items);
+            if (complete && !missingTiles.isEmpty()) {
+                final Map<Tile, List<T>> tileItems = new HashMap<>();
+                for (final Tile tile : missingTiles) {
+                    if (contains(area, tile.getBounds())) {
+                        tileItems.put(tile, new ArrayList<>());
+                    }
+                }
+                for (final T item : items) {
+                    final Collection<LatLon> points = locations.apply(item);
+                    if (points != null) {
+                        addToTiles(tileItems, item, points);
+                    }
+                }
+                cache.putAll(tileItems, qualifier);
+            }
+        }
+    }
+
+    private void addToTiles(final Map<Tile, List<T>> tileItems, final T item, final Collection<LatLon> points) {
+        final Set<Tile> tiles = new LinkedHashSet<>();
+        LatLon previous = null;
+        for (final LatLon point : points) {
+            if (point != null) {
+                // a line passing through a tile without a vertex in it is also displayed in that tile
+                tiles.addAll(previous != null
+                        ? Tile.crossedBy(previous.lat(), previous.lon(), point.lat(), point.lon(), zoom)
+                        : Collections.singleton(Tile.at(point.lat(), point.lon(), zoom)));
+                previous = point;
+            }
+        }
+        for (final Tile tile : tiles) {
+            final List<T> list = tileItems.get(tile);
+            if (list != null) {
+                list.add(item);
+            }
+        }
+    }
+
+    private static boolean contains(final BoundingBox area, final BoundingBox tileBounds) {
+        final double centerLat = (tileBounds.getNorth() + tileBounds.getSouth()) / 2;
+        final double centerLon = (tileBounds.getEast() + tileBounds.getWest()) / 2;
+        return centerLat <= area.getNorth() && centerLat >= area.getSouth() && centerLon <= area.getEast()
+                && centerLon >= area.getWest();
+    }
+
+    /**
+     * Returns the items of the map view.
+     *
+     * @return a list of items
+     */
+    List<T> getResult() {
+        return new ArrayList<>(result);
+    }
+}
\ No newline at end of file
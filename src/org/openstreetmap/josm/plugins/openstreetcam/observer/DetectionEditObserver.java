@@ -0,0 +1,27 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.observer;
+
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
+
+
+/**
+ * Observes the detection edits that were sent in the background.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public interface DetectionEditObserver {
+
+    /**
+     * Invoked when the OpenStreetCam service rejected the edit of a detection that was already displayed as edited.
+     * The method is invoked from a background thread.
+     *
+     * @param detection the current version of the detection, as retrieved from the service
+     */
+    void rejectDetectionEdit(final Detection detection);
+}
\ No newline at end of file
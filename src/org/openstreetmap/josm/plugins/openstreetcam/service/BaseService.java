@@ -6,22 +6,26 @@
  */
 package org.openstreetmap.josm.plugins.openstreetcam.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.UserAgent;
 import org.openstreetmap.josm.plugins.openstreetcam.service.entity.BaseResponse;
-import org.openstreetmap.josm.plugins.openstreetcam.service.photo.entity.ListResponse;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.EndpointMetrics;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import com.grab.josm.common.http.ContentType;
-import com.grab.josm.common.http.HttpConnector;
 import com.grab.josm.common.http.HttpConnectorException;
+import com.grab.josm.common.http.HttpUtil;
 
 
 /**
@@ -35,9 +39,20 @@ public abstract class BaseService {
     private static final String USER_AGENT = "User-Agent";
 
     private final Gson gson;
+    private final HttpClient httpClient;
 
     protected BaseService() {
+        this(HttpClient.getInstance());
+    }
+
+    /**
+     * Builds a new service that sends its requests through the given client.
+     *
+     * @param httpClient a {@code HttpClient}
+     */
+    protected BaseService(final HttpClient httpClient) {
         gson = createGson();
+        this.httpClient = httpClient;
     }
 
     protected abstract Gson createGson();
@@ -54,47 +69,69 @@ public abstract class BaseService {
      */
     protected <T> T executePost(final String url, final Map<String, String> arguments, final Type responseType)
             throws ServiceException {
-        final String response;
+        final EndpointMetrics metrics = Metrics.getInstance().endpoint(url);
+        final long startTime = System.nanoTime();
+        final CountingInputStream[] content = new CountingInputStream[1];
         try {
-            final HttpConnector connector = new HttpConnector(url, getHeaders());
-            response = connector.post(arguments, ContentType.X_WWW_FORM_URLENCODED);
-        } catch (final HttpConnectorException e) {
+            final T response = httpClient.post(url, getHeaders(), HttpUtil.utf8Encode(arguments),
+                    ContentType.X_WWW_FORM_URLENCODED, in -> parseResponse(content, in, responseType));
+            metrics.recordSuccess(startTime, content[0].getCount());
+            return response;
+        } catch (final HttpConnectorException | JsonParseException e) {
+            metrics.recordError(startTime);
             throw new ServiceException(e);
         }
-        return parseResponse(response, responseType);
     }
 
     protected <T> T executePost(final String url, final String content, final Class<T> responseType)
             throws ServiceException {
-        String response;
+        final EndpointMetrics metrics = Metrics.getInstance().endpoint(url);
+        final long startTime = System.nanoTime();
+        final CountingInputStream[] responseContent = new CountingInputStream[1];
         try {
-            response = new HttpConnector(url).post(content, ContentType.JSON);
-        } catch (final HttpConnectorException e) {
+            final T response = httpClient.post(url, null, content, ContentType.JSON,
+                    in -> parseResponse(responseContent, in, responseType));
+            metrics.recordSuccess(startTime, responseContent[0].getCount());
+            return response;
+        } catch (final HttpConnectorException | JsonParseException e) {
+            metrics.recordError(startTime);
             throw new ServiceException(e);
         }
-        return parseResponse(response, responseType);
     }
 
     protected <T> T executeGet(final String url, final Class<T> responseType) throws ServiceException {
-        String response;
+        final EndpointMetrics metrics = Metrics.getInstance().endpoint(url);
+        final long startTime = System.nanoTime();
+        final CountingInputStream[] content = new CountingInputStream[1];
         try {
-            response = new HttpConnector(url, getHeaders()).get();
-        } catch (final HttpConnectorException e) {
+            final T response = httpClient.get(url, getHeaders(), in -> parseResponse(content, in, responseType));
+            metrics.recordSuccess(startTime, content[0].getCount());
+            return response;
+        } catch (final HttpConnectorException | JsonParseException e) {
+            metrics.recordError(startTime);
             throw new ServiceException(e);
         }
-        return parseResponse(response, responseType);
     }
 
-    private <T> T parseResponse(final String response, final Type responseType) throws ServiceException {
-        T root = null;
-        if (response != null) {
-            try {
-                root = gson.fromJson(response, responseType);
-            } catch (final JsonSyntaxException e) {
-                throw new ServiceException(e);
+    /**
+     * Parses the response while it is read from the connection, without holding its text in memory. The counted
+     * stream is returned through the given holder, such that the payload size can be recorded.
+     */
+    private <T> T parseResponse(final CountingInputStream[] content, final InputStream in,
+            final Type responseType) throws IOException {
+        content[0] = new CountingInputStream(in);
+        final JsonReader reader = new JsonReader(new InputStreamReader(content[0], StandardCharsets.UTF_8));
+        // an empty response is read as null, same as an empty text
+        final T result = gson.fromJson(reader, responseType);
+        // same check as Gson.fromJson(Reader): content after the parsed document is an invalid response
+        try {
+            if (result != null && reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
             }
+        } catch (final MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
         }
-        return root;
+        return result;
     }
 
     /**
@@ -105,28 +142,12 @@ public abstract class BaseService {
      */
     protected void verifyResponseStatus(final BaseResponse response) throws ServiceException {
         if (response != null && response.getStatus() != null && response.getStatus().isErrorHttpCode()) {
-            throw new ServiceException(response.getStatus().getApiMessage());
+            throw new ServiceException(response.getStatus().getApiMessage(), response.getStatus().getHttpCode());
         }
     }
 
-    /**
-     * Read the results from the given list of {@code Future}s.
-     *
-     * @param <T> represents the type the objects that will be read
-     * @param futures a list of {@code Future}s containing the result of parallel executed threads
-     * @return a set of objects of the {@code T}
-     * @throws ServiceException if the thread execution failed or if the process was interrupted.
-     */
-    protected <T> Set<T> readResult(final List<Future<ListResponse<T>>> futures) throws ServiceException {
-        final Set<T> result = new HashSet<>();
-        for (final Future<ListResponse<T>> future : futures) {
-            try {
-                result.addAll(future.get().getCurrentPageItems());
-            } catch (InterruptedException | ExecutionException e) {
-                throw new ServiceException(e);
-            }
-        }
-        return result;
+    protected HttpClient getHttpClient() {
+        return httpClient;
     }
 
     protected Map<String, String> getHeaders() {
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+
+/**
+ * Cancels a group of service operations. The token is bound to the threads that execute the operations; the requests
+ * sent by the {@code HttpClient} from a thread bound to a cancelled token are aborted. The actions registered on the
+ * token (for instance cancelling the futures of the operations) are executed when the token is cancelled.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> cancelActions = new ArrayList<>();
+    private volatile boolean cancelled;
+
+
+    /**
+     * Returns the token bound to the current thread.
+     *
+     * @return a {@code CancellationToken} or null if the current thread is not bound to a token
+     */
+    public static CancellationToken current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Checks if the token bound to the current thread was cancelled.
+     *
+     * @return true if the current thread is bound to a cancelled token, false otherwise
+     */
+    public static boolean isCurrentCancelled() {
+        final CancellationToken token = CURRENT.get();
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * Binds the token of the current thread (if any) to the thread that will execute the given task.
+     *
+     * @param <T> the result type of the task
+     * @param task a {@code Callable} that will be executed by another thread
+     * @return a {@code Callable}
+     */
+    public static <T> Callable<T> propagate(final Callable<T> task) {
+        final CancellationToken token = CURRENT.get();
+        return token != null ? token.bind(task) : task;
+    }
+
+    /**
+     * Executes the given operation on the current thread, bound to this token.
+     *
+     * @param operation the operation to execute
+     */
+    public void run(final Runnable operation) {
+        final CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            operation.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Binds this token to the thread that will execute the given task.
+     *
+     * @param <T> the result type of the task
+     * @param task a {@code Callable} that will be executed by another thread
+     * @return a {@code Callable}
+     */
+    public <T> Callable<T> bind(final Callable<T> task) {
+        return () -> {
+            final CancellationToken previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Registers an action that is executed when the token is cancelled. If the token was already cancelled, the
+     * action is executed immediately.
+     *
+     * @param action the action to execute on cancellation
+     */
+    public void onCancel(final Runnable action) {
+        synchronized (cancelActions) {
+            if (!cancelled) {
+                cancelActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Removes a previously registered action. The method should be invoked after the operation completed.
+     *
+     * @param action the action registered with {@code onCancel}
+     */
+    public void removeOnCancel(final Runnable action) {
+        synchronized (cancelActions) {
+            cancelActions.remove(action);
+        }
+    }
+
+    /**
+     * Cancels the token and executes the registered actions.
+     */
+    public void cancel() {
+        final List<Runnable> actions;
+        synchronized (cancelActions) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            actions = new ArrayList<>(cancelActions);
+            cancelActions.clear();
+        }
+        actions.forEach(Runnable::run);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private static void restore(final CancellationToken previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.EndpointMetrics;
+
+
+/**
+ * Limits the number of concurrent requests sent to an endpoint. The limit adapts to the endpoint's behaviour (additive
+ * increase, multiplicative decrease): it grows slowly while the requests use the whole limit and the latency stays
+ * close to the lowest observed latency, and it is cut when the latency grows or the endpoint reports an overload.
+ * The limit is cut at most once per window: the requests sent before a cut report the load caused by the previous
+ * limit, so their slow responses do not cut it again. Requests above the limit wait for a free slot.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class ConcurrencyLimiter {
+
+    private static final double MIN_LIMIT = 1;
+    private static final double DECREASE_FACTOR = 0.7;
+    /* a latency above the baseline multiplied by this value is a sign of queueing on the server */
+    private static final double LATENCY_TOLERANCE = 2.0;
+    /* the baseline follows a slower endpoint slowly, such that the limiter is not stuck on an outdated minimum */
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final double maxLimit;
+    private final EndpointMetrics metrics;
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double baselineLatency;
+    /* incremented on every decrease, a request adapts the limit downwards only if it was sent after the last one */
+    private long window;
+
+
+    /**
+     * Builds a new limiter.
+     *
+     * @param initialLimit the initial number of concurrent requests
+     * @param maxLimit the maximum number of concurrent requests
+     * @param metrics the metrics of the endpoint, the current limit and queue depth are published there
+     */
+    ConcurrencyLimiter(final int initialLimit, final int maxLimit, final EndpointMetrics metrics) {
+        this.maxLimit = Math.max(MIN_LIMIT, maxLimit);
+        this.limit = Math.max(MIN_LIMIT, Math.min(initialLimit, this.maxLimit));
+        this.metrics = metrics;
+        publish();
+    }
+
+
+    /**
+     * Waits until the number of requests in flight is below the limit and reserves a slot.
+     *
+     * @return the window in which the request is sent, to be passed back when the slot is released
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    synchronized long acquire() throws InterruptedException {
+        queued++;
+        publish();
+        try {
+            while (inFlight >= (int) limit) {
+                wait();
+            }
+        } finally {
+            queued--;
+        }
+        inFlight++;
+        publish();
+        return window;
+    }
+
+    /**
+     * Releases a slot reserved by a request that received a response.
+     *
+     * @param latency the time from sending the request on an open connection to the response in nanoseconds; the
+     * connection set-up is not included, otherwise the requests on new connections would be compared to a baseline
+     * measured on kept-alive connections
+     * @param requestWindow the window returned by {@code acquire}
+     */
+    synchronized void onSuccess(final long latency, final long requestWindow) {
+        final boolean limitReached = inFlight + queued >= (int) limit;
+        inFlight--;
+        if (baselineLatency <= 0 || latency < baselineLatency) {
+            baselineLatency = latency;
+        } else {
+            baselineLatency += (latency - baselineLatency) * BASELINE_DRIFT;
+        }
+        if (latency > baselineLatency * LATENCY_TOLERANCE) {
+            decrease(requestWindow);
+        } else if (limitReached) {
+            // one more request per limit-sized round of successful requests
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        publish();
+        notifyAll();
+    }
+
+    /**
+     * Releases a slot reserved by a request that failed because the endpoint is overloaded or unreachable.
+     *
+     * @param requestWindow the window returned by {@code acquire}
+     */
+    synchronized void onOverload(final long requestWindow) {
+        inFlight--;
+        decrease(requestWindow);
+        publish();
+        notifyAll();
+    }
+
+    /**
+     * Releases a slot reserved by a request that did not complete, without adapting the limit.
+     */
+    synchronized void onIgnore() {
+        inFlight--;
+        publish();
+        notifyAll();
+    }
+
+    private void decrease(final long requestWindow) {
+        if (requestWindow == window) {
+            limit = Math.max(MIN_LIMIT, limit * DECREASE_FACTOR);
+            window++;
+        }
+    }
+
+    private void publish() {
+        metrics.updateConcurrency((int) limit, inFlight, queued);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Counts the bytes read from the underlying stream.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+
+    CountingInputStream(final InputStream in) {
+        super(in);
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        final int value = super.read();
+        if (value != -1) {
+            count++;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        final int result = super.read(buffer, offset, length);
+        if (result > 0) {
+            count += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(final long length) throws IOException {
+        final long result = super.skip(length);
+        count += result;
+        return result;
+    }
+
+    long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.EndpointMetrics;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
+import com.grab.josm.common.http.ContentType;
+import com.grab.josm.common.http.HttpConnectorException;
+
+
+/**
+ * HTTP client shared by the services. Unlike {@code HttpConnector}, the client never disconnects its connections and
+ * always consumes the response streams, such that the underlying connections are kept alive and reused by the
+ * following requests to the same host. Successful responses are passed as a stream to a {@code ResponseReader}, so the
+ * content can be parsed while it is received. The number of concurrent requests per host is limited; requests above the
+ * limit wait for a free slot instead of opening new connections. Within this limit, the concurrency of each endpoint
+ * adapts to its latency and overload responses, and the failed GET requests are retried with a jittered backoff, as
+ * long as the retry budget of the endpoint allows it.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class HttpClient {
+
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+    private static final String RESPONSE_CODE = ",responseCode:";
+    private static final String OBJECT_END = "}";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final HttpClient INSTANCE = new HttpClient(Config.getInstance().getHttpConnectTimeout(),
+            Config.getInstance().getHttpReadTimeout(), Config.getInstance().getHttpMaxConnectionsPerHost(),
+            Config.getInstance().getHttpConcurrencyInitialLimit(), Config.getInstance().getHttpRetryMaxAttempts(),
+            Config.getInstance().getHttpRetryBaseDelay(), Config.getInstance().getHttpRetryBudgetRatio());
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int maxConnectionsPerHost;
+    private final int concurrencyInitialLimit;
+    private final int retryMaxAttempts;
+    private final long retryBaseDelay;
+    private final double retryBudgetRatio;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+
+    /**
+     * Builds a new client that does not retry the failed requests.
+     *
+     * @param connectTimeout the connect timeout in milliseconds
+     * @param readTimeout the read timeout in milliseconds
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to the same host
+     */
+    public HttpClient(final int connectTimeout, final int readTimeout, final int maxConnectionsPerHost) {
+        this(connectTimeout, readTimeout, maxConnectionsPerHost, maxConnectionsPerHost, 1, 0, 0);
+    }
+
+    /**
+     * Builds a new client.
+     *
+     * @param connectTimeout the connect timeout in milliseconds
+     * @param readTimeout the read timeout in milliseconds
+     * @param maxConnectionsPerHost the maximum number of concurrent requests to the same host; this is also the
+     * upper bound of the adaptive limit of an endpoint
+     * @param concurrencyInitialLimit the initial number of concurrent requests to an endpoint
+     * @param retryMaxAttempts the maximum number of attempts of a GET request
+     * @param retryBaseDelay the base delay between two attempts in milliseconds; the delay doubles on each retry
+     * @param retryBudgetRatio the number of retries allowed per request sent to an endpoint
+     */
+    public HttpClient(final int connectTimeout, final int readTimeout, final int maxConnectionsPerHost,
+            final int concurrencyInitialLimit, final int retryMaxAttempts, final long retryBaseDelay,
+            final double retryBudgetRatio) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.concurrencyInitialLimit = concurrencyInitialLimit;
+        this.retryMaxAttempts = Math.max(1, retryMaxAttempts);
+        this.retryBaseDelay = retryBaseDelay;
+        this.retryBudgetRatio = retryBudgetRatio;
+    }
+
+
+    /**
+     * Returns the client shared by the services, configured from the plugin properties.
+     *
+     * @return a {@code HttpClient}
+     */
+    public static HttpClient getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Executes a HTTP GET request and passes the response stream to the given reader.
+     *
+     * @param <T> the type of the object read from the response
+     * @param url the request URL
+     * @param headers the request headers
+     * @param reader reads the response content; for an unsuccessful response the reader receives the error content
+     * extended with the response code
+     * @return the object returned by the reader
+     * @throws HttpConnectorException if the request fails
+     */
+    public <T> T get(final String url, final Map<String, String> headers, final ResponseReader<T> reader)
+            throws HttpConnectorException {
+        return execute(url, Metrics.endpointName(url), GET, headers, null, null, (code, in) -> read(code, in, reader));
+    }
+
+    /**
+     * Executes a HTTP GET request and returns the response bytes.
+     *
+     * @param url the request URL
+     * @param endpointName the name under which the requests are limited and measured; used for URLs that do not
+     * identify an endpoint (for instance the URLs of files)
+     * @param headers the request headers
+     * @return the response content
+     * @throws HttpConnectorException if the request fails or if the response is unsuccessful
+     */
+    public byte[] getBytes(final String url, final String endpointName, final Map<String, String> headers)
+            throws HttpConnectorException {
+        final Response response = execute(url, endpointName, GET, headers, null, null, HttpClient::readResponse);
+        if (!response.isSuccessful()) {
+            throw new HttpConnectorException("Unexpected response code " + response.code + " for " + url);
+        }
+        return response.content;
+    }
+
+    /**
+     * Executes a HTTP POST request and passes the response stream to the given reader.
+     *
+     * @param <T> the type of the object read from the response
+     * @param url the request URL
+     * @param headers the request headers
+     * @param content the request body
+     * @param contentType the type of the request body
+     * @param reader reads the response content; for an unsuccessful response the reader receives the error content
+     * extended with the response code
+     * @return the object returned by the reader
+     * @throws HttpConnectorException if the request fails
+     */
+    public <T> T post(final String url, final Map<String, String> headers, final String content,
+            final ContentType contentType, final ResponseReader<T> reader) throws HttpConnectorException {
+        return execute(url, Metrics.endpointName(url), POST, headers, content, contentType,
+                (code, in) -> read(code, in, reader));
+    }
+
+    private <T> T execute(final String url, final String endpointName, final String method,
+            final Map<String, String> headers, final String content, final ContentType contentType,
+            final ResponseHandler<T> handler) throws HttpConnectorException {
+        final URL target;
+        try {
+            target = new URL(url);
+        } catch (final IOException e) {
+            throw new HttpConnectorException("Invalid URL " + url, e);
+        }
+        final Endpoint endpoint = endpoints.computeIfAbsent(endpointName, name -> new Endpoint(
+                concurrencyInitialLimit, maxConnectionsPerHost, retryBudgetRatio, Metrics.getInstance().endpoint(name)));
+        final CancellationToken token = CancellationToken.current();
+        // only the GET requests are idempotent, the other requests are never sent twice
+        final int maxAttempts = GET.equals(method) ? retryMaxAttempts : 1;
+        endpoint.retryBudget.onRequest();
+        for (int attempt = 1;; attempt++) {
+            if (token != null && token.isCancelled()) {
+                throw new HttpConnectorException("Request cancelled " + url);
+            }
+            final boolean retryAllowed = attempt < maxAttempts;
+            try {
+                return execute(target, endpoint, method, headers, content, contentType, handler, token,
+                        retryAllowed);
+            } catch (final RetryableException e) {
+                endpoint.metrics.recordRetry();
+            } catch (final IOException e) {
+                if (!retryAllowed || isCancelled(token) || !endpoint.retryBudget.tryRetry()) {
+                    throw new HttpConnectorException(e);
+                }
+                endpoint.metrics.recordRetry();
+            }
+            backoff(attempt, url);
+        }
+    }
+
+    /**
+     * Executes a single attempt of the request and passes the response to the given handler. If the calling thread is
+     * bound to a {@code CancellationToken}, the connection is closed when the token is cancelled.
+     *
+     * @throws IOException if the request could not be sent or no response was received; the request may be retried
+     * @throws HttpConnectorException if the request failed and should not be retried
+     */
+    private <T> T execute(final URL url, final Endpoint endpoint, final String method,
+            final Map<String, String> headers, final String content, final ContentType contentType,
+            final ResponseHandler<T> handler, final CancellationToken token, final boolean retryAllowed)
+            throws IOException, HttpConnectorException {
+        final Semaphore permits = hostPermits.computeIfAbsent(url.getHost() + ":" + url.getPort(),
+                host -> new Semaphore(maxConnectionsPerHost, true));
+        final long window;
+        try {
+            window = endpoint.limiter.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpConnectorException("Interrupted while waiting for a connection to " + url.getHost(), e);
+        }
+        long latency = -1;
+        boolean overloaded = false;
+        Runnable abort = null;
+        try {
+            permits.acquire();
+            try {
+                final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                if (token != null) {
+                    // closing the socket from the cancelling thread unblocks the pending read
+                    abort = connection::disconnect;
+                    token.onCancel(abort);
+                }
+                connection.setInstanceFollowRedirects(true);
+                connection.setConnectTimeout(connectTimeout);
+                connection.setReadTimeout(readTimeout);
+                connection.setRequestMethod(method);
+                if (headers != null) {
+                    for (final Map.Entry<String, String> header : headers.entrySet()) {
+                        connection.addRequestProperty(header.getKey(), header.getValue());
+                    }
+                }
+                if (content != null) {
+                    connection.setDoOutput(true);
+                    connection.setRequestProperty(CONTENT_TYPE, contentTypeValue(contentType));
+                }
+                // the latency is measured from the open connection: the set-up of a new connection (TCP and TLS
+                // handshakes) is not a sign of queueing on the server, and most requests reuse a kept-alive connection
+                connection.connect();
+                final long startTime = System.nanoTime();
+                if (content != null) {
+                    try (OutputStream out = connection.getOutputStream()) {
+                        out.write(content.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                final int code = connection.getResponseCode();
+                latency = System.nanoTime() - startTime;
+                overloaded = isOverloaded(code);
+                final InputStream in = code < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream()
+                        : connection.getErrorStream();
+                if (overloaded && retryAllowed && endpoint.retryBudget.tryRetry()) {
+                    if (in != null) {
+                        readFully(in);
+                    }
+                    throw new RetryableException();
+                }
+                return handler.handle(code, in);
+            } catch (final RetryableException e) {
+                throw e;
+            } catch (final IOException e) {
+                // timeouts and connection failures are signs of an overloaded endpoint, unless the request was cancelled
+                overloaded = !isCancelled(token);
+                throw e;
+            } finally {
+                permits.release();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpConnectorException("Interrupted while waiting for a connection to " + url.getHost(), e);
+        } finally {
+            if (abort != null) {
+                token.removeOnCancel(abort);
+            }
+            if (overloaded) {
+                endpoint.limiter.onOverload(window);
+            } else if (latency >= 0) {
+                endpoint.limiter.onSuccess(latency, window);
+            } else {
+                endpoint.limiter.onIgnore();
+            }
+        }
+    }
+
+    private static <T> T read(final int code, final InputStream in, final ResponseReader<T> reader)
+            throws HttpConnectorException {
+        try {
+            if (Response.isSuccessful(code) && in != null) {
+                try (InputStream stream = in) {
+                    final T result = reader.read(stream);
+                    // the stream is read to its end and closed, so the connection returns to the keep-alive cache
+                    drain(stream);
+                    return result;
+                }
+            }
+            // error responses are small: the content is read fully, such that the response code can be appended
+            return reader.read(new ByteArrayInputStream(errorContent(readResponse(code, in))));
+        } catch (final IOException e) {
+            // the content was partially consumed, the request is not retried
+            throw new HttpConnectorException(e);
+        }
+    }
+
+    private static Response readResponse(final int code, final InputStream in) throws IOException {
+        return new Response(code, in != null ? readFully(in) : null);
+    }
+
+    private void backoff(final int attempt, final String url) throws HttpConnectorException {
+        // exponential backoff with full jitter, such that the retries of parallel requests are spread in time
+        final long maxDelay = retryBaseDelay << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpConnectorException("Interrupted while waiting to retry " + url, e);
+        }
+    }
+
+    private static boolean isOverloaded(final int code) {
+        return code == HTTP_TOO_MANY_REQUESTS || code == HttpURLConnection.HTTP_BAD_GATEWAY
+                || code == HttpURLConnection.HTTP_UNAVAILABLE || code == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+    }
+
+    private static boolean isCancelled(final CancellationToken token) {
+        return token != null && token.isCancelled();
+    }
+
+    private static byte[] errorContent(final Response response) {
+        byte[] result = new byte[0];
+        if (response.content != null) {
+            // same format as HttpConnector: the service status parser reads the response code from the content
+            result = new String(response.content, StandardCharsets.UTF_8)
+                    .replace(OBJECT_END, RESPONSE_CODE + response.code + OBJECT_END).getBytes(StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    private static String contentTypeValue(final ContentType contentType) {
+        // ContentType does not expose its header value outside of its package
+        return contentType == ContentType.JSON ? JSON_CONTENT_TYPE : FORM_CONTENT_TYPE;
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void drain(final InputStream in) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        while (in.read(buffer) != -1) {
+            // the unread bytes are skipped, otherwise the connection would not be reused
+        }
+    }
+
+
+    /**
+     * Reads an object from the content of a response. The stream is closed by the client.
+     *
+     * @param <T> the type of the object read from the response
+     */
+    @FunctionalInterface
+    public interface ResponseReader<T> {
+
+        /**
+         * Reads the response content.
+         *
+         * @param in the response content
+         * @return the object read from the response
+         * @throws IOException if the content cannot be read
+         */
+        T read(InputStream in) throws IOException;
+    }
+
+    /**
+     * Handles the response of a request attempt: reads its content and closes the stream.
+     *
+     * @param <T> the type of the object returned by the request
+     */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+
+        T handle(int code, InputStream in) throws IOException, HttpConnectorException;
+    }
+
+    /**
+     * Holds the concurrency limiter and the retry budget of an endpoint.
+     */
+    private static final class Endpoint {
+
+        /* the maximum number of retries an endpoint can save up while it responds correctly */
+        private static final double MAX_RETRY_TOKENS = 10;
+
+        private final ConcurrencyLimiter limiter;
+        private final RetryBudget retryBudget;
+        private final EndpointMetrics metrics;
+
+
+        private Endpoint(final int initialLimit, final int maxLimit, final double retryBudgetRatio,
+                final EndpointMetrics metrics) {
+            this.limiter = new ConcurrencyLimiter(initialLimit, maxLimit, metrics);
+            this.retryBudget = new RetryBudget(retryBudgetRatio, MAX_RETRY_TOKENS);
+            this.metrics = metrics;
+        }
+    }
+
+
+    /**
+     * Signals an overload response that will be retried.
+     */
+    private static final class RetryableException extends IOException {
+
+        private static final long serialVersionUID = 6196582409874163018L;
+    }
+
+
+    /**
+     * Holds the code and the content of a response.
+     */
+    private static final class Response {
+
+        private final int code;
+        private final byte[] content;
+
+
+        private Response(final int code, final byte[] content) {
+            this.code = code;
+            this.content = content;
+        }
+
+
+        private boolean isSuccessful() {
+            return isSuccessful(code);
+        }
+
+        private static boolean isSuccessful(final int code) {
+            return code == HttpURLConnection.HTTP_OK || code == HttpURLConnection.HTTP_CREATED
+                    || code == HttpURLConnection.HTTP_NO_CONTENT;
+        }
+    }
+}
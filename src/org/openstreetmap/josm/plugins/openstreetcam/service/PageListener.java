@@ -0,0 +1,32 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.util.List;
+
+
+/**
+ * Receives the pages of a paginated search as soon as they are retrieved, such that the items can be displayed before
+ * the whole search completes.
+ *
+ * @author beataj
+ * @version $Revision$
+ * @param <T> the type of the searched items
+ */
+@FunctionalInterface
+public interface PageListener<T> {
+
+    /**
+     * Invoked when a page was retrieved. The method is invoked from the threads retrieving the pages, possibly
+     * concurrently; the same item might be returned in several pages.
+     *
+     * @param items the items of the page
+     * @param loadedPages the number of pages retrieved so far, including this one
+     * @param totalPages the number of pages known so far
+     */
+    void onPage(List<T> items, int loadedPages, int totalPages);
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+
+/**
+ * Limits the retries sent to an endpoint to a fraction of its requests, such that the retries do not multiply the
+ * load of an endpoint that is already failing. Every request deposits the given ratio, every retry withdraws one
+ * token.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+final class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+
+    /**
+     * Builds a new budget.
+     *
+     * @param ratio the number of retries allowed per request
+     * @param maxTokens the maximum number of retries that can be saved up
+     */
+    RetryBudget(final double ratio, final double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+
+    synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Withdraws a retry from the budget.
+     *
+     * @return true if the retry is allowed, false if the budget is exhausted
+     */
+    synchronized boolean tryRetry() {
+        boolean allowed = false;
+        if (tokens >= 1) {
+            tokens--;
+            allowed = true;
+        }
+        return allowed;
+    }
+}
\ No newline at end of file
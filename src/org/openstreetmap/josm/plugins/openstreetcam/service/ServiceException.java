@@ -17,6 +17,9 @@ public class ServiceException extends Exception {
 
     private static final long serialVersionUID = -7049128049723081647L;
 
+    /** the HTTP status code of the error response, null if the service did not answer with an error status */
+    private final Integer httpCode;
+
     /**
      * Builds a new object with the given message.
      *
@@ -24,6 +27,18 @@ public class ServiceException extends Exception {
      */
     public ServiceException(final String msg) {
         super(msg);
+        this.httpCode = null;
+    }
+
+    /**
+     * Builds a new object with the given message and the HTTP status code returned by the service.
+     *
+     * @param msg a {@code String}
+     * @param httpCode the HTTP status code of the error response
+     */
+    public ServiceException(final String msg, final Integer httpCode) {
+        super(msg);
+        this.httpCode = httpCode;
     }
 
     /**
@@ -33,6 +48,7 @@ public class ServiceException extends Exception {
      */
     public ServiceException(final Throwable cause) {
         super(cause);
+        this.httpCode = null;
     }
 
     /**
@@ -43,5 +59,15 @@ public class ServiceException extends Exception {
      */
     public ServiceException(final String msg, final Throwable cause) {
         super(msg, cause);
+        this.httpCode = null;
+    }
+
+    /**
+     * Returns the HTTP status code of the error response.
+     *
+     * @return the status code, or null if the operation failed before the service answered with an error status
+     */
+    public Integer getHttpCode() {
+        return httpCode;
     }
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
+
+
+/**
+ * Utility class, executes service operations asynchronously on the {@code TaskExecutor} and composes their results.
+ * Every operation runs bound to its own {@code CancellationToken}: cancelling the returned future, or completing it
+ * with a timeout, aborts the underlying HTTP request. If the operation is started from a thread bound to a token,
+ * cancelling that token cancels the operation as well.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class ServiceFutures {
+
+    private static final String TIMER_THREAD_NAME = "openstreetcam-timer-";
+
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private ServiceFutures() {}
+
+
+    /**
+     * Executes the given service operation asynchronously.
+     *
+     * @param <T> the result type of the operation
+     * @param call the service operation
+     * @return a {@code CompletableFuture} completed with the result of the operation, or exceptionally with the
+     * {@code ServiceException} thrown by the operation
+     */
+    public static <T> CompletableFuture<T> supply(final ServiceCall<T> call) {
+        final CancellationToken token = new CancellationToken();
+        final CancellationToken parentToken = CancellationToken.current();
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Runnable parentRegistration = () -> future.cancel(false);
+        // a future completed from outside (cancelled or timed out) aborts the request in progress
+        future.whenComplete((result, error) -> {
+            token.cancel();
+            if (parentToken != null) {
+                parentToken.removeOnCancel(parentRegistration);
+            }
+        });
+        if (parentToken != null) {
+            parentToken.onCancel(parentRegistration);
+        }
+        TaskExecutor.getInstance().executor().execute(() -> {
+            if (!future.isDone()) {
+                // the future is completed after the token was unbound from this thread: the dependent stages that
+                // this thread executes must not run bound to the token of the completed operation
+                try {
+                    future.complete(token.bind(call::call).call());
+                } catch (final Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Executes the given service operation asynchronously. The request is aborted if the operation does not complete
+     * within the given time.
+     *
+     * @param <T> the result type of the operation
+     * @param call the service operation
+     * @param timeout the time in milliseconds the operation is allowed to run
+     * @return a {@code CompletableFuture} completed with the result of the operation, or exceptionally with the
+     * {@code ServiceException} thrown by the operation or with a {@code TimeoutException}
+     */
+    public static <T> CompletableFuture<T> supply(final ServiceCall<T> call, final long timeout) {
+        return withTimeout(supply(call), timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes the given future exceptionally with a {@code TimeoutException} if it is not completed within the
+     * given time. The request of a future returned by {@code supply} is aborted on timeout.
+     *
+     * @param <T> the result type of the future
+     * @param future a {@code CompletableFuture}
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the given future
+     */
+    public static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final long timeout,
+            final TimeUnit unit) {
+        if (!future.isDone()) {
+            final Future<?> timer = TIMER.schedule(
+                    () -> future.completeExceptionally(new TimeoutException("Timeout after " + timeout + " " + unit)),
+                    timeout, unit);
+            future.whenComplete((result, error) -> timer.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * Combines the given futures into a future of their results, in the same order. If one of the futures fails, the
+     * returned future fails with the same error and the other futures are cancelled.
+     *
+     * @param <T> the result type of the futures
+     * @param futures a list of {@code CompletableFuture}s
+     * @return a {@code CompletableFuture} of the list of results
+     */
+    public static <T> CompletableFuture<List<T>> allAsList(final List<CompletableFuture<T>> futures) {
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            if (error == null) {
+                final List<T> values = new ArrayList<>(futures.size());
+                futures.forEach(future -> values.add(future.join()));
+                result.complete(values);
+            }
+        });
+        for (final CompletableFuture<T> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null && result.completeExceptionally(unwrap(error))) {
+                    futures.forEach(other -> other.cancel(false));
+                }
+            });
+        }
+        // cancelling the combined future, or completing it with a timeout, cancels the remaining operations
+        result.whenComplete((values, error) -> {
+            if (error != null) {
+                futures.forEach(future -> future.cancel(false));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Merges the lists returned by the given futures, removing the duplicates. This is the typical result of a fan-out
+     * over several pages or areas.
+     *
+     * @param <T> the type of the merged elements
+     * @param futures a list of {@code CompletableFuture}s of lists; a null list is ignored
+     * @return a {@code CompletableFuture} of the set of elements
+     */
+    public static <T> CompletableFuture<Set<T>> merge(final List<CompletableFuture<List<T>>> futures) {
+        return allAsList(futures).thenApply(lists -> {
+            final Set<T> result = new HashSet<>();
+            for (final List<T> list : lists) {
+                if (list != null) {
+                    result.addAll(list);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Waits for the result of the given future, at most the configured task deadline. The errors of the operation are
+     * reported as a {@code ServiceException}.
+     *
+     * @param <T> the result type of the future
+     * @param future a {@code CompletableFuture}
+     * @return the result of the future
+     * @throws ServiceException if the operation failed, was cancelled or timed out, or if the thread was interrupted
+     */
+    public static <T> T get(final CompletableFuture<T> future) throws ServiceException {
+        return get(future, Config.getInstance().getTaskDeadline());
+    }
+
+    /**
+     * Waits for the result of the given future, at most the given time. The future is cancelled if it is not
+     * completed in time, which aborts the request of a future returned by {@code supply}. The errors of the operation
+     * are reported as a {@code ServiceException}.
+     *
+     * @param <T> the result type of the future
+     * @param future a {@code CompletableFuture}
+     * @param timeout the maximum time to wait, in milliseconds
+     * @return the result of the future
+     * @throws ServiceException if the operation failed, was cancelled or timed out, or if the thread was interrupted
+     */
+    public static <T> T get(final CompletableFuture<T> future, final long timeout) throws ServiceException {
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new ServiceException(e);
+        } catch (final TimeoutException e) {
+            future.cancel(false);
+            throw new ServiceException(e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = unwrap(e);
+            throw cause instanceof ServiceException ? (ServiceException) cause : new ServiceException(cause);
+        } catch (final CancellationException e) {
+            throw new ServiceException(e);
+        }
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        Throwable result = error;
+        while ((result instanceof CompletionException || result instanceof ExecutionException)
+                && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new TimerThreadFactory());
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+
+    /**
+     * A service operation that can be executed asynchronously.
+     *
+     * @param <T> the result type of the operation
+     */
+    @FunctionalInterface
+    public interface ServiceCall<T> {
+
+        /**
+         * Executes the operation.
+         *
+         * @return the result of the operation
+         * @throws ServiceException if the operation fails
+         */
+        T call() throws ServiceException;
+    }
+
+
+    /**
+     * Creates daemon threads, such that the pending timeouts do not prevent JOSM from exiting.
+     */
+    private static final class TimerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, TIMER_THREAD_NAME + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
+import org.openstreetmap.josm.tools.Logging;
+
+
+/**
+ * Executes the service tasks of the plugin. If the runtime supports virtual threads, every task runs on its own
+ * virtual thread; otherwise the tasks run on a shared pool of daemon threads. The pool is bounded: when all of its
+ * threads are busy, a new task runs on the thread that submitted it, such that tasks waiting for their own subtasks
+ * can never exhaust the pool.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class TaskExecutor {
+
+    private static final String THREAD_NAME = "openstreetcam-task-";
+    private static final String VIRTUAL_EXECUTOR_FACTORY = "newVirtualThreadPerTaskExecutor";
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private static final TaskExecutor INSTANCE = new TaskExecutor();
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+
+    private TaskExecutor() {
+        ExecutorService virtualExecutor = null;
+        try {
+            // the plugin is compiled for Java 8, the factory of the Java 21 runtime is looked up
+            virtualExecutor = (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR_FACTORY).invoke(null);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            Logging.debug("Virtual threads are not supported, the service tasks run on a shared pool");
+        }
+        virtual = virtualExecutor != null;
+        executor = virtual ? virtualExecutor : new ThreadPoolExecutor(0, Config.getInstance().getTaskPoolSize(),
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), new TaskThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+
+    public static TaskExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the executor of the service tasks. The executor is shared and must not be shut down.
+     *
+     * @return an {@code ExecutorService}
+     */
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Checks if the tasks run on virtual threads.
+     *
+     * @return true if the tasks run on virtual threads, false if they run on the shared pool
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+
+    /**
+     * Creates daemon threads, such that the pending tasks do not prevent JOSM from exiting.
+     */
+    private static final class TaskThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, THREAD_NAME + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
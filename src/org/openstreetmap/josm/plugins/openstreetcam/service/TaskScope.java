@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.Config;
+
+
+/**
+ * Executes a group of subtasks on the {@code TaskExecutor} and waits for them, with structured concurrency semantics:
+ * the subtasks do not outlive the scope. The scope is used in a try-with-resources block; closing it cancels the
+ * subtasks that did not complete, including their HTTP requests. The subtasks are cancelled as well when the deadline
+ * of the scope expires, when the cancellation token of the thread that opened the scope is cancelled, and, for a
+ * fail-fast scope, when one of the subtasks fails.
+ *
+ * <pre>
+ * try (TaskScope scope = TaskScope.open(true)) {
+ *     final TaskScope.Subtask&lt;List&lt;Segment&gt;&gt; first = scope.fork(() -&gt; ...);
+ *     final TaskScope.Subtask&lt;List&lt;Segment&gt;&gt; second = scope.fork(() -&gt; ...);
+ *     scope.join();
+ *     scope.throwIfFailed();
+ *     ... first.result() ... second.result()
+ * }
+ * </pre>
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private final boolean failFast;
+    private final long deadline;
+    private final CancellationToken token = new CancellationToken();
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final Object lock = new Object();
+    private final CancellationToken parentToken;
+    private final Runnable parentRegistration;
+    private int pending;
+    private Throwable failure;
+    private boolean expired;
+    private boolean interrupted;
+
+
+    private TaskScope(final boolean failFast, final long timeout) {
+        this.failFast = failFast;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        parentToken = CancellationToken.current();
+        parentRegistration = token::cancel;
+        if (parentToken != null) {
+            parentToken.onCancel(parentRegistration);
+        }
+        token.onCancel(this::cancelSubtasks);
+    }
+
+
+    /**
+     * Opens a new scope with the default deadline.
+     *
+     * @param failFast if true the first failed subtask cancels the other subtasks and the scope fails
+     * @return a {@code TaskScope}
+     */
+    public static TaskScope open(final boolean failFast) {
+        return new TaskScope(failFast, Config.getInstance().getTaskDeadline());
+    }
+
+    /**
+     * Opens a new scope.
+     *
+     * @param failFast if true the first failed subtask cancels the other subtasks and the scope fails
+     * @param timeout the time in milliseconds the subtasks are allowed to run
+     * @return a {@code TaskScope}
+     */
+    public static TaskScope open(final boolean failFast, final long timeout) {
+        return new TaskScope(failFast, timeout);
+    }
+
+    /**
+     * Starts the given task. The task runs bound to the cancellation token of the scope.
+     *
+     * @param <T> the result type of the task
+     * @param task the task to execute
+     * @return a {@code Subtask} holding the result of the task
+     */
+    public <T> Subtask<T> fork(final Callable<T> task) {
+        final Subtask<T> subtask = new Subtask<>(token.bind(task));
+        synchronized (lock) {
+            subtasks.add(subtask);
+            pending++;
+        }
+        if (token.isCancelled()) {
+            subtask.cancel(true);
+        } else {
+            TaskExecutor.getInstance().executor().execute(subtask);
+            if (subtask.runner == Thread.currentThread() && subtask.isCancelled()) {
+                // the pool was saturated and the subtask ran on this thread: its cancellation must not leave the
+                // thread interrupted
+                Thread.interrupted();
+            }
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until all the subtasks completed, or, for a fail-fast scope, until the first subtask failed. The
+     * subtasks that are still running when the deadline expires, or when the waiting thread is interrupted, are
+     * cancelled.
+     */
+    public void join() {
+        final boolean cancel;
+        synchronized (lock) {
+            try {
+                while (pending > 0 && (!failFast || failure == null)) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        expired = true;
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+            }
+            cancel = expired || interrupted || (failFast && failure != null);
+        }
+        if (cancel) {
+            token.cancel();
+        }
+    }
+
+    /**
+     * Reports the failure of the scope. The method should be invoked after {@code join}.
+     *
+     * @throws ServiceException if a subtask failed, the deadline expired or the waiting thread was interrupted
+     */
+    public void throwIfFailed() throws ServiceException {
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure instanceof ServiceException ? (ServiceException) failure : new ServiceException(failure);
+            }
+            if (expired) {
+                throw new ServiceException(new TimeoutException("The subtasks did not complete before the deadline"));
+            }
+            if (interrupted) {
+                throw new ServiceException(new InterruptedException("The scope was interrupted"));
+            }
+        }
+    }
+
+    /**
+     * Cancels the subtasks that did not complete.
+     */
+    @Override
+    public void close() {
+        token.cancel();
+        if (parentToken != null) {
+            parentToken.removeOnCancel(parentRegistration);
+        }
+    }
+
+    private void cancelSubtasks() {
+        final List<Subtask<?>> running;
+        synchronized (lock) {
+            running = new ArrayList<>(subtasks);
+        }
+        running.forEach(subtask -> subtask.cancel(true));
+    }
+
+    private void onDone(final Subtask<?> subtask) {
+        synchronized (lock) {
+            pending--;
+            if (failure == null && !subtask.isCancelled()) {
+                try {
+                    subtask.get();
+                } catch (final ExecutionException e) {
+                    failure = e.getCause();
+                } catch (final InterruptedException | CancellationException e) {
+                    // not possible, the subtask is done and was not cancelled
+                }
+            }
+            lock.notifyAll();
+        }
+    }
+
+
+    /**
+     * A task forked in a scope.
+     *
+     * @param <T> the result type of the task
+     */
+    public final class Subtask<T> extends FutureTask<T> {
+
+        private volatile Thread runner;
+
+
+        private Subtask(final Callable<T> task) {
+            super(task);
+        }
+
+
+        @Override
+        public void run() {
+            runner = Thread.currentThread();
+            super.run();
+        }
+
+        @Override
+        protected void done() {
+            onDone(this);
+        }
+
+        /**
+         * Returns the result of the completed subtask. The method does not wait, it should be invoked after
+         * {@code TaskScope.join}; in a scope that is not fail-fast it reports the failure of the individual subtask.
+         *
+         * @return the result of the subtask
+         * @throws ServiceException if the subtask failed, was cancelled or did not complete
+         */
+        public T result() throws ServiceException {
+            if (!isDone()) {
+                throw new ServiceException("The subtask did not complete");
+            }
+            try {
+                return get();
+            } catch (final ExecutionException e) {
+                throw e.getCause() instanceof ServiceException ? (ServiceException) e.getCause()
+                        : new ServiceException(e.getCause());
+            } catch (final InterruptedException | CancellationException e) {
+                throw new ServiceException(e);
+            }
+        }
+    }
+}
\ No newline at end of file
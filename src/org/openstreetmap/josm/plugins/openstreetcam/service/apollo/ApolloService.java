@@ -9,20 +9,25 @@ package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.openstreetmap.josm.data.coor.LatLon;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Cluster;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.ClusterConfidenceLevel;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Contribution;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.EditStatus;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.OsmElement;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Sign;
 import org.openstreetmap.josm.plugins.openstreetcam.service.BaseService;
+import org.openstreetmap.josm.plugins.openstreetcam.service.HttpClient;
 import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceFutures;
 import org.openstreetmap.josm.plugins.openstreetcam.service.apollo.entity.Request;
 import org.openstreetmap.josm.plugins.openstreetcam.service.apollo.entity.Response;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
 import com.grab.josm.common.argument.BoundingBox;
 
 /**
@@ -35,12 +40,40 @@ public class ApolloService extends BaseService {
 
 	private static final double AREA_EXTEND = 0.004;
 
+
+	public ApolloService() {
+		super();
+	}
+
+	/**
+	 * Builds a new service that sends its requests through the given client.
+	 *
+	 * @param httpClient a {@code HttpClient}
+	 */
+	public ApolloService(final HttpClient httpClient) {
+		super(httpClient);
+	}
+
 	@Override
 	public Gson createGson() {
+		final LatLonTypeAdapter latLonAdapter = new LatLonTypeAdapter();
+		final SignTypeAdapter signAdapter = new SignTypeAdapter();
+		final OsmElementTypeAdapter osmElementAdapter = new OsmElementTypeAdapter();
+		final EditStatusTypeAdapter editStatusAdapter = new EditStatusTypeAdapter();
+		final ClusterConfidenceLevelTypeAdapter confidenceLevelAdapter = new ClusterConfidenceLevelTypeAdapter();
+		final DetectionTypeAdapter detectionAdapter =
+				new DetectionTypeAdapter(latLonAdapter, signAdapter, osmElementAdapter, editStatusAdapter);
 		final GsonBuilder builder = new GsonBuilder();
-		builder.registerTypeAdapter(EditStatus.class, new EditStatusTypeAdapter());
-		builder.registerTypeAdapter(LatLon.class, new LatLonDeserializer());
-		builder.registerTypeAdapter(ClusterConfidenceLevel.class, new ClusterConfidenceLevelDeserializer());
+		builder.registerTypeAdapter(EditStatus.class, editStatusAdapter);
+		builder.registerTypeAdapter(LatLon.class, latLonAdapter);
+		builder.registerTypeAdapter(ClusterConfidenceLevel.class, confidenceLevelAdapter);
+		builder.registerTypeAdapter(Sign.class, signAdapter);
+		builder.registerTypeAdapter(OsmElement.class, osmElementAdapter);
+		builder.registerTypeAdapter(Detection.class, detectionAdapter);
+		// the photos are read by reflection, their nested entities are read by the adapters registered above
+		final TypeAdapter<Photo> photoAdapter = builder.create().getAdapter(Photo.class);
+		builder.registerTypeAdapter(Cluster.class, new ClusterTypeAdapter(latLonAdapter, signAdapter,
+				confidenceLevelAdapter, osmElementAdapter, detectionAdapter, photoAdapter));
 		return builder.create();
 	}
 
@@ -133,4 +166,60 @@ public class ApolloService extends BaseService {
 		verifyResponseStatus(response);
 		return response.getRegions();
 	}
+
+	/* asynchronous variants; cancelling a returned future aborts the request */
+
+	public CompletableFuture<List<Detection>> searchDetectionsAsync(final BoundingBox area, final Date date,
+			final Long osmUserId, final DetectionFilter detectionFilter) {
+		return ServiceFutures.supply(() -> searchDetections(area, date, osmUserId, detectionFilter));
+	}
+
+	public CompletableFuture<List<Cluster>> searchClustersAsync(final BoundingBox area, final Date date,
+			final DetectionFilter detectionFilter) {
+		return ServiceFutures.supply(() -> searchClusters(area, date, detectionFilter));
+	}
+
+	public CompletableFuture<Void> updateDetectionAsync(final Detection detection, final Contribution contribution) {
+		return ServiceFutures.supply(() -> {
+			updateDetection(detection, contribution);
+			return null;
+		});
+	}
+
+	public CompletableFuture<List<Detection>> retrieveSequenceDetectionsAsync(final Long sequenceId) {
+		return ServiceFutures.supply(() -> retrieveSequenceDetections(sequenceId));
+	}
+
+	public CompletableFuture<List<Detection>> retrievePhotoDetectionsAsync(final Long sequenceId,
+			final Integer sequenceIndex) {
+		return ServiceFutures.supply(() -> retrievePhotoDetections(sequenceId, sequenceIndex));
+	}
+
+	public CompletableFuture<Detection> retrieveDetectionAsync(final Long id) {
+		return ServiceFutures.supply(() -> retrieveDetection(id));
+	}
+
+	public CompletableFuture<Cluster> retrieveClusterAsync(final Long id) {
+		return ServiceFutures.supply(() -> retrieveCluster(id));
+	}
+
+	public CompletableFuture<List<Detection>> retrieveClusterDetectionsAsync(final Long id) {
+		return ServiceFutures.supply(() -> retrieveClusterDetections(id));
+	}
+
+	public CompletableFuture<List<Photo>> retrieveClusterPhotosAsync(final Long id) {
+		return ServiceFutures.supply(() -> retrieveClusterPhotos(id));
+	}
+
+	public CompletableFuture<Photo> retrievePhotoAsync(final Long sequenceId, final Integer sequenceIndex) {
+		return ServiceFutures.supply(() -> retrievePhoto(sequenceId, sequenceIndex));
+	}
+
+	public CompletableFuture<List<Sign>> listSignsAsync() {
+		return ServiceFutures.supply(this::listSigns);
+	}
+
+	public CompletableFuture<List<String>> listRegionsAsync() {
+		return ServiceFutures.supply(this::listRegions);
+	}
 }
\ No newline at end of file
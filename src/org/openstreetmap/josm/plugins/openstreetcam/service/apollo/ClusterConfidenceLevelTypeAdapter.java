@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.IOException;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.ClusterConfidenceLevel;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Custom type adapter for the {@code ClusterConfidenceLevel} object. The confidence level is given either as an
+ * object or, by older clusters, as a single number representing the overall confidence.
+ *
+ * @author beata.tautan
+ */
+class ClusterConfidenceLevelTypeAdapter extends TypeAdapter<ClusterConfidenceLevel> {
+
+    private static final String OVERALL_CONFIDENCE = "overallConfidence";
+    private static final String OCR_CONFIDENCE = "ocrConfidence";
+
+    @Override
+    public ClusterConfidenceLevel read(final JsonReader reader) throws IOException {
+        Double overallConfidence = null;
+        Double ocrConfidence = null;
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case OVERALL_CONFIDENCE:
+                        overallConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    case OCR_CONFIDENCE:
+                        ocrConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        } else {
+            overallConfidence = ReaderUtil.readDouble(reader);
+        }
+        return overallConfidence != null || ocrConfidence != null
+                ? new ClusterConfidenceLevel(overallConfidence, ocrConfidence) : null;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final ClusterConfidenceLevel confidenceLevel) throws IOException {
+        if (confidenceLevel == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(OVERALL_CONFIDENCE).value(confidenceLevel.getOverallConfidence());
+            writer.name(OCR_CONFIDENCE).value(confidenceLevel.getOcrConfidence());
+            writer.endObject();
+        }
+    }
+}
\ No newline at end of file
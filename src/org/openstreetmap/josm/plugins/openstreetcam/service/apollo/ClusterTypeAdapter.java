@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Cluster;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.ClusterBuilder;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.OsmComparison;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Custom type adapter for the {@code Cluster} object. The photos of a cluster are read by the given photo adapter.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+class ClusterTypeAdapter extends TypeAdapter<Cluster> {
+
+    private static final String ID = "id";
+    private static final String LATEST_CHANGE_TIMESTAMP = "latestChangeTimestamp";
+    private static final String POINT = "point";
+    private static final String FACING = "facing";
+    private static final String SIGN = "sign";
+    private static final String CONFIDENCE_LEVEL = "confidenceLevel";
+    private static final String DETECTION_IDS = "detectionIds";
+    private static final String OSM_COMPARISON = "osmComparison";
+    private static final String OSM_ELEMENTS = "osmElements";
+    private static final String DETECTIONS = "detections";
+    private static final String PHOTOS = "photos";
+    private static final String OCR_VALUE = "ocrValue";
+    private static final String LANE_COUNT = "laneCount";
+
+    private final LatLonTypeAdapter latLonAdapter;
+    private final SignTypeAdapter signAdapter;
+    private final ClusterConfidenceLevelTypeAdapter confidenceLevelAdapter;
+    private final OsmElementTypeAdapter osmElementAdapter;
+    private final DetectionTypeAdapter detectionAdapter;
+    private final TypeAdapter<Photo> photoAdapter;
+
+
+    ClusterTypeAdapter(final LatLonTypeAdapter latLonAdapter, final SignTypeAdapter signAdapter,
+            final ClusterConfidenceLevelTypeAdapter confidenceLevelAdapter,
+            final OsmElementTypeAdapter osmElementAdapter, final DetectionTypeAdapter detectionAdapter,
+            final TypeAdapter<Photo> photoAdapter) {
+        this.latLonAdapter = latLonAdapter;
+        this.signAdapter = signAdapter;
+        this.confidenceLevelAdapter = confidenceLevelAdapter;
+        this.osmElementAdapter = osmElementAdapter;
+        this.detectionAdapter = detectionAdapter;
+        this.photoAdapter = photoAdapter;
+    }
+
+
+    @Override
+    public Cluster read(final JsonReader reader) throws IOException {
+        Cluster result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            final ClusterBuilder builder = new ClusterBuilder();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case ID:
+                        builder.id(ReaderUtil.readLong(reader));
+                        break;
+                    case LATEST_CHANGE_TIMESTAMP:
+                        builder.latestChangeTimestamp(ReaderUtil.readLong(reader));
+                        break;
+                    case POINT:
+                        builder.point(latLonAdapter.read(reader));
+                        break;
+                    case FACING:
+                        builder.facing(ReaderUtil.readDouble(reader));
+                        break;
+                    case SIGN:
+                        builder.sign(signAdapter.read(reader));
+                        break;
+                    case CONFIDENCE_LEVEL:
+                        builder.confidenceLevel(confidenceLevelAdapter.read(reader));
+                        break;
+                    case DETECTION_IDS:
+                        builder.detectionIds(readIds(reader));
+                        break;
+                    case OSM_COMPARISON:
+                        builder.osmComparison(ReaderUtil.readEnum(reader, OsmComparison.class));
+                        break;
+                    case OSM_ELEMENTS:
+                        builder.osmElements(osmElementAdapter.readList(reader));
+                        break;
+                    case DETECTIONS:
+                        builder.detections(detectionAdapter.readList(reader));
+                        break;
+                    case PHOTOS:
+                        builder.photos(readPhotos(reader));
+                        break;
+                    case OCR_VALUE:
+                        builder.componentValue(ReaderUtil.readString(reader));
+                        break;
+                    case LANE_COUNT:
+                        final Integer laneCount = ReaderUtil.readInt(reader);
+                        builder.laneCount(laneCount != null ? laneCount.shortValue() : null);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = builder.build();
+        }
+        return result;
+    }
+
+    private List<Long> readIds(final JsonReader reader) throws IOException {
+        List<Long> result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(ReaderUtil.readLong(reader));
+            }
+            reader.endArray();
+        }
+        return result;
+    }
+
+    private List<Photo> readPhotos(final JsonReader reader) throws IOException {
+        List<Photo> result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(photoAdapter.read(reader));
+            }
+            reader.endArray();
+        }
+        return result;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final Cluster cluster) throws IOException {
+        if (cluster == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(ID).value(cluster.getId());
+            writer.name(LATEST_CHANGE_TIMESTAMP).value(cluster.getLatestChangeTimestamp());
+            writer.name(POINT);
+            latLonAdapter.write(writer, cluster.getPoint());
+            writer.name(FACING).value(cluster.getFacing());
+            writer.name(SIGN);
+            signAdapter.write(writer, cluster.getSign());
+            writer.name(CONFIDENCE_LEVEL);
+            confidenceLevelAdapter.write(writer, cluster.getConfidenceLevel());
+            writer.name(DETECTION_IDS);
+            if (cluster.getDetectionIds() == null) {
+                writer.nullValue();
+            } else {
+                writer.beginArray();
+                for (final Long detectionId : cluster.getDetectionIds()) {
+                    writer.value(detectionId);
+                }
+                writer.endArray();
+            }
+            writer.name(OSM_COMPARISON)
+                    .value(cluster.getOsmComparison() != null ? cluster.getOsmComparison().name() : null);
+            writer.name(OSM_ELEMENTS);
+            osmElementAdapter.writeList(writer, cluster.getOsmElements());
+            writer.name(DETECTIONS);
+            detectionAdapter.writeList(writer, cluster.getDetections());
+            writer.name(PHOTOS);
+            if (cluster.getPhotos() == null) {
+                writer.nullValue();
+            } else {
+                writer.beginArray();
+                for (final Photo photo : cluster.getPhotos()) {
+                    photoAdapter.write(writer, photo);
+                }
+                writer.endArray();
+            }
+            writer.name(OCR_VALUE).value(cluster.getOcrValue());
+            writer.name(LANE_COUNT).value(cluster.getLaneCount());
+            writer.endObject();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Author;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Detection;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.DetectionBuilder;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.DetectionConfidenceLevel;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.DetectionMode;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.OsmComparison;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Rectangle;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.ValidationStatus;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Custom type adapter for the {@code Detection} object. The detections are read in a single pass over the response,
+ * without building an intermediate JSON tree.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+class DetectionTypeAdapter extends TypeAdapter<Detection> {
+
+    /* detection object fields */
+    private static final String ID = "id";
+    private static final String SEQUENCE_ID = "sequenceId";
+    private static final String SEQUENCE_INDEX = "sequenceIndex";
+    private static final String CREATION_TIMESTAMP = "creationTimestamp";
+    private static final String LATEST_CHANGE_TIMESTAMP = "latestChangeTimestamp";
+    private static final String POINT = "point";
+    private static final String SIGN = "sign";
+    private static final String LOCATION_ON_PHOTO = "locationOnPhoto";
+    private static final String VALIDATION_STATUS = "validationStatus";
+    private static final String EDIT_STATUS = "editStatus";
+    private static final String OSM_COMPARISON = "osmComparison";
+    private static final String OSM_ELEMENTS = "osmElements";
+    private static final String MODE = "mode";
+    private static final String AUTHOR = "author";
+    private static final String FACING = "facing";
+    private static final String DISTANCE = "distance";
+    private static final String ANGLE_FROM_CENTER = "angleFromCenter";
+    private static final String ORIENTATION = "orientation";
+    private static final String CONFIDENCE_LEVEL = "confidenceLevel";
+    private static final String TRACKING_ID = "trackingId";
+    private static final String AUTOMATIC_OCR_VALUE = "automaticOcrValue";
+    private static final String MANUAL_OCR_VALUE = "manualOcrValue";
+
+    /* rectangle object fields */
+    private static final String X = "x";
+    private static final String Y = "y";
+    private static final String WIDTH = "width";
+    private static final String HEIGHT = "height";
+
+    /* author object fields */
+    private static final String EXTERNAL_ID = "externalId";
+    private static final String USER_NAME = "userName";
+    private static final String TYPE = "type";
+
+    /* confidence level object fields */
+    private static final String DETECTION_CONFIDENCE = "detectionConfidence";
+    private static final String FACING_CONFIDENCE = "facingConfidence";
+    private static final String POSITIONING_CONFIDENCE = "positioningConfidence";
+    private static final String KEY_POINTS_CONFIDENCE = "keyPointsConfidence";
+    private static final String TRACKING_CONFIDENCE = "trackingConfidence";
+    private static final String OCR_CONFIDENCE = "ocrConfidence";
+
+    private final LatLonTypeAdapter latLonAdapter;
+    private final SignTypeAdapter signAdapter;
+    private final OsmElementTypeAdapter osmElementAdapter;
+    private final EditStatusTypeAdapter editStatusAdapter;
+
+
+    DetectionTypeAdapter(final LatLonTypeAdapter latLonAdapter, final SignTypeAdapter signAdapter,
+            final OsmElementTypeAdapter osmElementAdapter, final EditStatusTypeAdapter editStatusAdapter) {
+        this.latLonAdapter = latLonAdapter;
+        this.signAdapter = signAdapter;
+        this.osmElementAdapter = osmElementAdapter;
+        this.editStatusAdapter = editStatusAdapter;
+    }
+
+
+    @Override
+    public Detection read(final JsonReader reader) throws IOException {
+        Detection result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            final DetectionBuilder builder = new DetectionBuilder();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case ID:
+                        builder.id(ReaderUtil.readLong(reader));
+                        break;
+                    case SEQUENCE_ID:
+                        builder.sequenceId(ReaderUtil.readLong(reader));
+                        break;
+                    case SEQUENCE_INDEX:
+                        builder.sequenceIndex(ReaderUtil.readInt(reader));
+                        break;
+                    case CREATION_TIMESTAMP:
+                        builder.creationTimestamp(ReaderUtil.readLong(reader));
+                        break;
+                    case LATEST_CHANGE_TIMESTAMP:
+                        builder.latestChangeTimestamp(ReaderUtil.readLong(reader));
+                        break;
+                    case POINT:
+                        builder.point(latLonAdapter.read(reader));
+                        break;
+                    case SIGN:
+                        builder.sign(signAdapter.read(reader));
+                        break;
+                    case LOCATION_ON_PHOTO:
+                        builder.locationOnPhoto(readRectangle(reader));
+                        break;
+                    case VALIDATION_STATUS:
+                        builder.validationStatus(ReaderUtil.readEnum(reader, ValidationStatus.class));
+                        break;
+                    case EDIT_STATUS:
+                        builder.editStatus(editStatusAdapter.read(reader));
+                        break;
+                    case OSM_COMPARISON:
+                        builder.osmComparison(ReaderUtil.readEnum(reader, OsmComparison.class));
+                        break;
+                    case OSM_ELEMENTS:
+                        builder.osmElements(osmElementAdapter.readList(reader));
+                        break;
+                    case MODE:
+                        builder.mode(ReaderUtil.readEnum(reader, DetectionMode.class));
+                        break;
+                    case AUTHOR:
+                        builder.author(readAuthor(reader));
+                        break;
+                    case FACING:
+                        builder.facing(ReaderUtil.readDouble(reader));
+                        break;
+                    case DISTANCE:
+                        builder.distance(ReaderUtil.readFloat(reader));
+                        break;
+                    case ANGLE_FROM_CENTER:
+                        builder.angleFromCenter(ReaderUtil.readFloat(reader));
+                        break;
+                    case ORIENTATION:
+                        builder.orientation(ReaderUtil.readFloat(reader));
+                        break;
+                    case CONFIDENCE_LEVEL:
+                        builder.confidenceLevel(readConfidenceLevel(reader));
+                        break;
+                    case TRACKING_ID:
+                        builder.trackingId(ReaderUtil.readString(reader));
+                        break;
+                    case AUTOMATIC_OCR_VALUE:
+                        builder.automaticOcrValue(ReaderUtil.readString(reader));
+                        break;
+                    case MANUAL_OCR_VALUE:
+                        builder.manualOcrValue(ReaderUtil.readString(reader));
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = builder.build();
+        }
+        return result;
+    }
+
+    /**
+     * Reads a list of detections.
+     *
+     * @param reader a {@code JsonReader} object
+     * @return a list of {@code Detection}s or null if the value is null
+     * @throws IOException if the read operation failed
+     */
+    List<Detection> readList(final JsonReader reader) throws IOException {
+        List<Detection> result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(read(reader));
+            }
+            reader.endArray();
+        }
+        return result;
+    }
+
+    private Rectangle readRectangle(final JsonReader reader) throws IOException {
+        Rectangle result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            Double x = null;
+            Double y = null;
+            Double width = null;
+            Double height = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case X:
+                        x = ReaderUtil.readDouble(reader);
+                        break;
+                    case Y:
+                        y = ReaderUtil.readDouble(reader);
+                        break;
+                    case WIDTH:
+                        width = ReaderUtil.readDouble(reader);
+                        break;
+                    case HEIGHT:
+                        height = ReaderUtil.readDouble(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = new Rectangle(x, y, width, height);
+        }
+        return result;
+    }
+
+    private Author readAuthor(final JsonReader reader) throws IOException {
+        Author result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            String externalId = null;
+            String userName = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case EXTERNAL_ID:
+                        externalId = ReaderUtil.readString(reader);
+                        break;
+                    case USER_NAME:
+                        userName = ReaderUtil.readString(reader);
+                        break;
+                    default:
+                        // the author type is always OSM
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = new Author(externalId, userName);
+        }
+        return result;
+    }
+
+    private DetectionConfidenceLevel readConfidenceLevel(final JsonReader reader) throws IOException {
+        DetectionConfidenceLevel result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            Double detectionConfidence = null;
+            Double facingConfidence = null;
+            Double positioningConfidence = null;
+            Double keyPointsConfidence = null;
+            Double trackingConfidence = null;
+            Double ocrConfidence = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case DETECTION_CONFIDENCE:
+                        detectionConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    case FACING_CONFIDENCE:
+                        facingConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    case POSITIONING_CONFIDENCE:
+                        positioningConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    case KEY_POINTS_CONFIDENCE:
+                        keyPointsConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    case TRACKING_CONFIDENCE:
+                        trackingConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    case OCR_CONFIDENCE:
+                        ocrConfidence = ReaderUtil.readDouble(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = new DetectionConfidenceLevel(detectionConfidence, facingConfidence, positioningConfidence,
+                    keyPointsConfidence, trackingConfidence, ocrConfidence);
+        }
+        return result;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final Detection detection) throws IOException {
+        if (detection == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(ID).value(detection.getId());
+            writer.name(SEQUENCE_ID).value(detection.getSequenceId());
+            writer.name(SEQUENCE_INDEX).value(detection.getSequenceIndex());
+            writer.name(CREATION_TIMESTAMP).value(detection.getCreationTimestamp());
+            writer.name(LATEST_CHANGE_TIMESTAMP).value(detection.getLatestChangeTimestamp());
+            writer.name(POINT);
+            latLonAdapter.write(writer, detection.getPoint());
+            writer.name(SIGN);
+            signAdapter.write(writer, detection.getSign());
+            writer.name(LOCATION_ON_PHOTO);
+            writeRectangle(writer, detection.getLocationOnPhoto());
+            writer.name(VALIDATION_STATUS).value(
+                    detection.getValidationStatus() != null ? detection.getValidationStatus().name() : null);
+            writer.name(EDIT_STATUS);
+            editStatusAdapter.write(writer, detection.getEditStatus());
+            writer.name(OSM_COMPARISON)
+                    .value(detection.getOsmComparison() != null ? detection.getOsmComparison().name() : null);
+            writer.name(OSM_ELEMENTS);
+            osmElementAdapter.writeList(writer, detection.getOsmElements());
+            writer.name(MODE).value(detection.getMode() != null ? detection.getMode().name() : null);
+            writer.name(AUTHOR);
+            writeAuthor(writer, detection.getAuthor());
+            writer.name(FACING).value(detection.getFacing());
+            writer.name(DISTANCE).value(detection.getDistance());
+            writer.name(ANGLE_FROM_CENTER).value(detection.getAngleFromCenter());
+            writer.name(ORIENTATION).value(detection.getOrientation());
+            writer.name(CONFIDENCE_LEVEL);
+            writeConfidenceLevel(writer, detection.getConfidenceLevel());
+            writer.name(TRACKING_ID).value(detection.getTrackingId());
+            writer.name(AUTOMATIC_OCR_VALUE).value(detection.getAutomaticOcrValue());
+            writer.name(MANUAL_OCR_VALUE).value(detection.getManualOcrValue());
+            writer.endObject();
+        }
+    }
+
+    /**
+     * Writes a list of detections.
+     *
+     * @param writer a {@code JsonWriter} object
+     * @param detections a list of {@code Detection}s, might be null
+     * @throws IOException if the write operation failed
+     */
+    void writeList(final JsonWriter writer, final List<Detection> detections) throws IOException {
+        if (detections == null) {
+            writer.nullValue();
+        } else {
+            writer.beginArray();
+            for (final Detection detection : detections) {
+                write(writer, detection);
+            }
+            writer.endArray();
+        }
+    }
+
+    private void writeRectangle(final JsonWriter writer, final Rectangle rectangle) throws IOException {
+        if (rectangle == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(X).value(rectangle.getX());
+            writer.name(Y).value(rectangle.getY());
+            writer.name(WIDTH).value(rectangle.getWidth());
+            writer.name(HEIGHT).value(rectangle.getHeight());
+            writer.endObject();
+        }
+    }
+
+    private void writeAuthor(final JsonWriter writer, final Author author) throws IOException {
+        if (author == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(EXTERNAL_ID).value(author.getExternalId());
+            writer.name(USER_NAME).value(author.getUserName());
+            writer.name(TYPE).value(author.getType());
+            writer.endObject();
+        }
+    }
+
+    private void writeConfidenceLevel(final JsonWriter writer, final DetectionConfidenceLevel confidenceLevel)
+            throws IOException {
+        if (confidenceLevel == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(DETECTION_CONFIDENCE).value(confidenceLevel.getDetectionConfidence());
+            writer.name(FACING_CONFIDENCE).value(confidenceLevel.getFacingConfidence());
+            writer.name(POSITIONING_CONFIDENCE).value(confidenceLevel.getPositioningConfidence());
+            writer.name(KEY_POINTS_CONFIDENCE).value(confidenceLevel.getKeyPointsConfidence());
+            writer.name(TRACKING_CONFIDENCE).value(confidenceLevel.getTrackingConfidence());
+            writer.name(OCR_CONFIDENCE).value(confidenceLevel.getOcrConfidence());
+            writer.endObject();
+        }
+    }
+}
\ No newline at end of file
@@ -6,30 +6,28 @@
  */
 package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.EditStatus;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 
 /**
+ * Custom type adapter for the {@code EditStatus} object. The service reports the mapped detections as fixed.
  *
  * @author beataj
  * @version $Revision$
  */
-public class EditStatusTypeAdapter implements JsonSerializer<EditStatus>, JsonDeserializer<EditStatus> {
+public class EditStatusTypeAdapter extends TypeAdapter<EditStatus> {
 
     private static final String FIXED = "FIXED";
     private static final String ALREADY_FIXED = "ALREADY_FIXED";
 
     @Override
-    public EditStatus deserialize(final JsonElement jsonElement, final Type type,
-            final JsonDeserializationContext context) {
-        final String editStatusValue = jsonElement.getAsString();
+    public EditStatus read(final JsonReader reader) throws IOException {
+        final String editStatusValue = ReaderUtil.readString(reader);
         EditStatus editStatus = null;
         if (editStatusValue != null && !editStatusValue.isEmpty()) {
             editStatus = FIXED.equals(editStatusValue) || ALREADY_FIXED.equals(editStatusValue) ? EditStatus.MAPPED
@@ -39,9 +37,9 @@ public class EditStatusTypeAdapter implements JsonSerializer<EditStatus>, JsonDe
     }
 
     @Override
-    public JsonElement serialize(final EditStatus editStatus, final Type type, final JsonSerializationContext context) {
+    public void write(final JsonWriter writer, final EditStatus editStatus) throws IOException {
         final String editStatusValue =
                 editStatus != null ? editStatus.equals(EditStatus.MAPPED) ? FIXED : editStatus.name() : null;
-                return editStatusValue != null ? new JsonPrimitive(editStatusValue) : null;
+        writer.value(editStatusValue);
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.IOException;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Custom type adapter for the {@code LatLon} object.
+ *
+ * @author Beata
+ * @version $Revision$
+ */
+class LatLonTypeAdapter extends TypeAdapter<LatLon> {
+
+    private static final String LATITUDE = "lat";
+    private static final String LONGITUDE = "lon";
+
+
+    @Override
+    public LatLon read(final JsonReader reader) throws IOException {
+        LatLon result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            Double latitude = null;
+            Double longitude = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case LATITUDE:
+                        latitude = ReaderUtil.readDouble(reader);
+                        break;
+                    case LONGITUDE:
+                        longitude = ReaderUtil.readDouble(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            if (latitude != null && longitude != null) {
+                result = new LatLon(latitude, longitude);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final LatLon point) throws IOException {
+        if (point == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(LATITUDE).value(point.lat());
+            writer.name(LONGITUDE).value(point.lon());
+            writer.endObject();
+        }
+    }
+}
\ No newline at end of file
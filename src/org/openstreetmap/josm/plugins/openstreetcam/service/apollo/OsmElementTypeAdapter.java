@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.OsmElement;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.OsmElementType;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Custom type adapter for the {@code OsmElement} object. The members of a relation are read recursively.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+class OsmElementTypeAdapter extends TypeAdapter<OsmElement> {
+
+    private static final String OSM_ID = "osmId";
+    private static final String FROM_ID = "fromId";
+    private static final String TO_ID = "toId";
+    private static final String TYPE = "type";
+    private static final String TAG = "tag";
+    private static final String MEMBERS = "members";
+
+
+    @Override
+    public OsmElement read(final JsonReader reader) throws IOException {
+        OsmElement result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            Long osmId = null;
+            Long fromId = null;
+            Long toId = null;
+            OsmElementType type = null;
+            String tag = null;
+            List<OsmElement> members = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case OSM_ID:
+                        osmId = ReaderUtil.readLong(reader);
+                        break;
+                    case FROM_ID:
+                        fromId = ReaderUtil.readLong(reader);
+                        break;
+                    case TO_ID:
+                        toId = ReaderUtil.readLong(reader);
+                        break;
+                    case TYPE:
+                        type = ReaderUtil.readEnum(reader, OsmElementType.class);
+                        break;
+                    case TAG:
+                        tag = ReaderUtil.readString(reader);
+                        break;
+                    case MEMBERS:
+                        members = readList(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = new OsmElement(osmId, type, members, fromId, toId, tag);
+        }
+        return result;
+    }
+
+    /**
+     * Reads a list of OSM elements.
+     *
+     * @param reader a {@code JsonReader} object
+     * @return a list of {@code OsmElement}s or null if the value is null
+     * @throws IOException if the read operation failed
+     */
+    List<OsmElement> readList(final JsonReader reader) throws IOException {
+        List<OsmElement> result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(read(reader));
+            }
+            reader.endArray();
+        }
+        return result;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final OsmElement element) throws IOException {
+        if (element == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(OSM_ID).value(element.getOsmId());
+            writer.name(FROM_ID).value(element.getFromId());
+            writer.name(TO_ID).value(element.getToId());
+            writer.name(TYPE).value(element.getType() != null ? element.getType().name() : null);
+            writer.name(TAG).value(element.getTag());
+            writer.name(MEMBERS);
+            writeList(writer, element.getMembers());
+            writer.endObject();
+        }
+    }
+
+    /**
+     * Writes a collection of OSM elements.
+     *
+     * @param writer a {@code JsonWriter} object
+     * @param elements a collection of {@code OsmElement}s, might be null
+     * @throws IOException if the write operation failed
+     */
+    void writeList(final JsonWriter writer, final Collection<OsmElement> elements) throws IOException {
+        if (elements == null) {
+            writer.nullValue();
+        } else {
+            writer.beginArray();
+            for (final OsmElement element : elements) {
+                write(writer, element);
+            }
+            writer.endArray();
+        }
+    }
+}
\ No newline at end of file
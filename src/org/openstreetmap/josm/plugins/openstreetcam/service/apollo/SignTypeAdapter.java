@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.service.apollo;
+
+import java.io.IOException;
+import org.openstreetmap.josm.plugins.openstreetcam.entity.Sign;
+import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.ReaderUtil;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Custom type adapter for the {@code Sign} object.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+class SignTypeAdapter extends TypeAdapter<Sign> {
+
+    private static final String NAME = "name";
+    private static final String INTERNAL_NAME = "internalName";
+    private static final String ICON_NAME = "iconName";
+    private static final String REGION = "region";
+    private static final String TYPE = "type";
+
+
+    @Override
+    public Sign read(final JsonReader reader) throws IOException {
+        Sign result = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            String name = null;
+            String internalName = null;
+            String iconName = null;
+            String region = null;
+            String type = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case NAME:
+                        name = ReaderUtil.readString(reader);
+                        break;
+                    case INTERNAL_NAME:
+                        internalName = ReaderUtil.readString(reader);
+                        break;
+                    case ICON_NAME:
+                        iconName = ReaderUtil.readString(reader);
+                        break;
+                    case REGION:
+                        region = ReaderUtil.readString(reader);
+                        break;
+                    case TYPE:
+                        type = ReaderUtil.readString(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            result = new Sign(name, internalName, iconName, region, type);
+        }
+        return result;
+    }
+
+    @Override
+    public void write(final JsonWriter writer, final Sign sign) throws IOException {
+        if (sign == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name(NAME).value(sign.getName());
+            writer.name(INTERNAL_NAME).value(sign.getInternalName());
+            writer.name(ICON_NAME).value(sign.getIconName());
+            writer.name(REGION).value(sign.getRegion());
+            writer.name(TYPE).value(sign.getType());
+            writer.endObject();
+        }
+    }
+}
\ No newline at end of file
@@ -13,27 +13,31 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Photo;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.PhotoDataSet;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Segment;
 import org.openstreetmap.josm.plugins.openstreetcam.entity.Sequence;
 import org.openstreetmap.josm.plugins.openstreetcam.service.BaseService;
+import org.openstreetmap.josm.plugins.openstreetcam.service.HttpClient;
+import org.openstreetmap.josm.plugins.openstreetcam.service.PageListener;
 import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceException;
+import org.openstreetmap.josm.plugins.openstreetcam.service.ServiceFutures;
+import org.openstreetmap.josm.plugins.openstreetcam.service.TaskScope;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.PhotoTypeAdapter;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.adapter.SegmentTypeAdapter;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.entity.ListResponse;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.entity.PhotoDetailsResponse;
 import org.openstreetmap.josm.plugins.openstreetcam.service.photo.entity.SequencePhotoListResponse;
 import org.openstreetmap.josm.plugins.openstreetcam.util.cnf.OpenStreetCamServiceConfig;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.EndpointMetrics;
+import org.openstreetmap.josm.plugins.openstreetcam.util.metrics.Metrics;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.grab.josm.common.argument.BoundingBox;
-import com.grab.josm.common.http.HttpConnector;
 import com.grab.josm.common.http.HttpConnectorException;
 
 
@@ -47,6 +51,20 @@ public class OpenStreetCamService extends BaseService {
 
     private static final int SECOND_PAGE = 2;
 
+
+    public OpenStreetCamService() {
+        super();
+    }
+
+    /**
+     * Builds a new service that sends its requests through the given client.
+     *
+     * @param httpClient a {@code HttpClient}
+     */
+    public OpenStreetCamService(final HttpClient httpClient) {
+        super(httpClient);
+    }
+
     @Override
     public Gson createGson() {
         final GsonBuilder builder = new GsonBuilder();
@@ -109,18 +127,23 @@ public class OpenStreetCamService extends BaseService {
      * Retrieves the photo with the given name.
      *
      * @param photoName represents the full name (contains also the path) of an image
+     * @param photoSize the size of the image, the downloads of each size are limited and measured separately
      * @return the photo in byte format
      * @throws ServiceException if the operation failed
      */
-    public byte[] retrievePhoto(final String photoName) throws ServiceException {
+    public byte[] retrievePhoto(final String photoName, final PhotoSize photoSize) throws ServiceException {
         final String url = OpenStreetCamServiceConfig.getInstance().getServiceBaseUrl().concat(photoName);
         byte[] image;
+        final String endpointName = Metrics.photoEndpointName(photoSize);
+        final EndpointMetrics metrics = Metrics.getInstance().endpoint(endpointName);
+        final long startTime = System.nanoTime();
         try {
-            final HttpConnector connector = new HttpConnector(url, getHeaders());
-            image = connector.getBytes();
+            image = getHttpClient().getBytes(url, endpointName, getHeaders());
         } catch (final HttpConnectorException e) {
+            metrics.recordError(startTime);
             throw new ServiceException(e);
         }
+        metrics.recordSuccess(startTime, image != null ? image.length : 0);
         return image;
     }
 
@@ -136,32 +159,66 @@ public class OpenStreetCamService extends BaseService {
      */
     public List<Segment> listMatchedTracks(final BoundingBox area, final Long osmUserId, final int zoom)
             throws ServiceException {
+        return listMatchedTracks(area, osmUserId, zoom, null);
+    }
+
+    /**
+     * Returns a list of segments that has OpenStreetCam coverage from the given area. The segments of every page are
+     * passed to the given listener as soon as the page is retrieved; the pages following the first one are retrieved
+     * in parallel.
+     *
+     * @param area a {@code BoundingBox} represents the current area
+     * @param osmUserId a {@code Long} specifies the user's OSM identifier; if not null return only the photos that were
+     * uploaded by the logged in user
+     * @param zoom represents the current zoom level
+     * @param listener a {@code PageListener} that receives the segments of every page; might be null
+     * @return a list of {@code Segment}s
+     * @throws ServiceException if the operation fails
+     */
+    public List<Segment> listMatchedTracks(final BoundingBox area, final Long osmUserId, final int zoom,
+            final PageListener<Segment> listener) throws ServiceException {
         final ListResponse<Segment> listSegmentResponse =
                 listMatchedTacks(area, osmUserId, zoom, Paging.TRACKS_DEFAULT);
         final Set<Segment> segments = new HashSet<>();
         if (listSegmentResponse != null) {
             segments.addAll(listSegmentResponse.getCurrentPageItems());
-            if (listSegmentResponse.getTotalItems() > OpenStreetCamServiceConfig.getInstance().getTracksMaxItems()) {
-                final int pages = listSegmentResponse.getTotalItems() > OpenStreetCamServiceConfig.getInstance()
-                        .getTracksMaxItems()
-                        ? (listSegmentResponse.getTotalItems()
-                                / OpenStreetCamServiceConfig.getInstance().getTracksMaxItems()) + 1
-                                : SECOND_PAGE;
-                final ExecutorService executor = Executors.newFixedThreadPool(pages);
-                final List<Future<ListResponse<Segment>>> futures = new ArrayList<>();
-                for (int i = SECOND_PAGE; i <= pages; i++) {
-                    final Paging paging = new Paging(i, OpenStreetCamServiceConfig.getInstance().getTracksMaxItems());
-                    final Callable<ListResponse<Segment>> callable =
-                            () -> listMatchedTacks(area, osmUserId, zoom, paging);
-                            futures.add(executor.submit(callable));
+            final int maxItems = OpenStreetCamServiceConfig.getInstance().getTracksMaxItems();
+            final int totalItems = listSegmentResponse.getTotalItems();
+            final int pages = totalItems > maxItems ? (totalItems / maxItems) + 1 : 1;
+            final AtomicInteger loadedPages = new AtomicInteger();
+            notifyPage(listener, listSegmentResponse, loadedPages.incrementAndGet(), pages);
+            if (pages > 1) {
+                try (TaskScope scope = TaskScope.open(true)) {
+                    final List<TaskScope.Subtask<ListResponse<Segment>>> pageTasks = new ArrayList<>();
+                    for (int i = SECOND_PAGE; i <= pages; i++) {
+                        final Paging paging = new Paging(i, maxItems);
+                        pageTasks.add(scope.fork(() -> {
+                            final ListResponse<Segment> page = listMatchedTacks(area, osmUserId, zoom, paging);
+                            notifyPage(listener, page, loadedPages.incrementAndGet(), pages);
+                            return page;
+                        }));
+                    }
+                    scope.join();
+                    scope.throwIfFailed();
+                    for (final TaskScope.Subtask<ListResponse<Segment>> pageTask : pageTasks) {
+                        final ListResponse<Segment> page = pageTask.result();
+                        if (page != null) {
+                            segments.addAll(page.getCurrentPageItems());
+                        }
+                    }
                 }
-                segments.addAll(readResult(futures));
-                executor.shutdown();
             }
         }
         return new ArrayList<>(segments);
     }
 
+    private static void notifyPage(final PageListener<Segment> listener, final ListResponse<Segment> page,
+            final int loadedPages, final int totalPages) {
+        if (listener != null && page != null && page.getCurrentPageItems() != null) {
+            listener.onPage(page.getCurrentPageItems(), loadedPages, totalPages);
+        }
+    }
+
     private ListResponse<Segment> listMatchedTacks(final BoundingBox area, final Long osmUserId, final int zoom,
             final Paging paging) throws ServiceException {
         final Map<String, String> arguments = new HttpContentBuilder(area, osmUserId, zoom, paging).getContent();
@@ -181,4 +238,84 @@ public class OpenStreetCamService extends BaseService {
         verifyResponseStatus(result);
         return result != null && result.getOsv() != null ? result.getOsv().getPhotoObject() : null;
     }
+
+
+    /* asynchronous variants; cancelling a returned future aborts the request(s) */
+
+    /**
+     * Asynchronous variant of {@link #listNearbyPhotos(BoundingBox, Date, Long, Paging)}.
+     *
+     * @param area a {@code BoundingBox} defines the searching area
+     * @param date a {@code Date} if not null, then the photos uploaded after the date are returned
+     * @param osmUserId a {@code Long} specifies the user's OSM identifier
+     * @param paging a {@code Paging} represents the pagination for the data set
+     * @return a {@code CompletableFuture} of the {@code PhotoDataSet}
+     */
+    public CompletableFuture<PhotoDataSet> listNearbyPhotosAsync(final BoundingBox area, final Date date,
+            final Long osmUserId, final Paging paging) {
+        return ServiceFutures.supply(() -> listNearbyPhotos(area, date, osmUserId, paging));
+    }
+
+    /**
+     * Asynchronous variant of {@link #retrieveSequence(Long)}.
+     *
+     * @param id a sequence identifier
+     * @return a {@code CompletableFuture} of the {@code Sequence}
+     */
+    public CompletableFuture<Sequence> retrieveSequenceAsync(final Long id) {
+        return ServiceFutures.supply(() -> retrieveSequence(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #retrievePhoto(String, PhotoSize)}.
+     *
+     * @param photoName represents the full name (contains also the path) of an image
+     * @param photoSize the size of the image
+     * @return a {@code CompletableFuture} of the photo in byte format
+     */
+    public CompletableFuture<byte[]> retrievePhotoAsync(final String photoName, final PhotoSize photoSize) {
+        return ServiceFutures.supply(() -> retrievePhoto(photoName, photoSize));
+    }
+
+    /**
+     * Asynchronous variant of {@link #listMatchedTracks(BoundingBox, Long, int)}. The pages following the first one
+     * are requested in parallel, without blocking a thread while they are loaded.
+     *
+     * @param area a {@code BoundingBox} represents the current area
+     * @param osmUserId a {@code Long} specifies the user's OSM identifier
+     * @param zoom represents the current zoom level
+     * @return a {@code CompletableFuture} of the list of {@code Segment}s
+     */
+    public CompletableFuture<List<Segment>> listMatchedTracksAsync(final BoundingBox area, final Long osmUserId,
+            final int zoom) {
+        final int maxItems = OpenStreetCamServiceConfig.getInstance().getTracksMaxItems();
+        return ServiceFutures.supply(() -> listMatchedTacks(area, osmUserId, zoom, Paging.TRACKS_DEFAULT))
+                .thenCompose(firstPage -> {
+                    final List<CompletableFuture<List<Segment>>> pages = new ArrayList<>();
+                    if (firstPage != null) {
+                        pages.add(CompletableFuture.completedFuture(firstPage.getCurrentPageItems()));
+                        final int pageCount = firstPage.getTotalItems() > maxItems
+                                ? (firstPage.getTotalItems() / maxItems) + 1 : 1;
+                        for (int i = SECOND_PAGE; i <= pageCount; i++) {
+                            final Paging paging = new Paging(i, maxItems);
+                            pages.add(ServiceFutures.supply(() -> {
+                                final ListResponse<Segment> page = listMatchedTacks(area, osmUserId, zoom, paging);
+                                return page != null ? page.getCurrentPageItems() : null;
+                            }));
+                        }
+                    }
+                    return ServiceFutures.merge(pages);
+                }).thenApply(ArrayList::new);
+    }
+
+    /**
+     * Asynchronous variant of {@link #retrievePhotoDetails(Long, Integer)}.
+     *
+     * @param sequenceId the identifier of the sequence
+     * @param sequenceIndex the photo index in the given sequence
+     * @return a {@code CompletableFuture} of the {@code Photo}
+     */
+    public CompletableFuture<Photo> retrievePhotoDetailsAsync(final Long sequenceId, final Integer sequenceIndex) {
+        return ServiceFutures.supply(() -> retrievePhotoDetails(sequenceId, sequenceIndex));
+    }
 }
\ No newline at end of file
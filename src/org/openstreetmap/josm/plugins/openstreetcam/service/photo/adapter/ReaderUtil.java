@@ -15,16 +15,17 @@ import com.google.gson.stream.JsonToken;
 
 
 /**
- * Utility class, reads different object types from {@code JsonReader}
+ * Utility class, reads different object types from {@code JsonReader}. The methods are shared by the type adapters
+ * of the OpenStreetCam and Apollo services.
  *
  * @author beataj
  * @version $Revision$
  */
-final class ReaderUtil {
+public final class ReaderUtil {
 
     private ReaderUtil() {}
 
-    static Double readDouble(final JsonReader reader) throws IOException {
+    public static Double readDouble(final JsonReader reader) throws IOException {
         Double value = null;
         if (reader.peek() == JsonToken.NULL) {
             reader.nextNull();
@@ -34,7 +35,7 @@ final class ReaderUtil {
         return value;
     }
 
-    static Long readLong(final JsonReader reader) throws IOException {
+    public static Long readLong(final JsonReader reader) throws IOException {
         Long value = null;
         if (reader.peek() == JsonToken.NULL) {
             reader.nextNull();
@@ -44,7 +45,7 @@ final class ReaderUtil {
         return value;
     }
 
-    static Integer readInt(final JsonReader reader) throws IOException {
+    public static Integer readInt(final JsonReader reader) throws IOException {
         Integer value = null;
         if (reader.peek() == JsonToken.NULL) {
             reader.nextNull();
@@ -54,7 +55,17 @@ final class ReaderUtil {
         return value;
     }
 
-    static String readString(final JsonReader reader) throws IOException {
+    public static Float readFloat(final JsonReader reader) throws IOException {
+        Float value = null;
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+        } else {
+            value = (float) reader.nextDouble();
+        }
+        return value;
+    }
+
+    public static String readString(final JsonReader reader) throws IOException {
         String value = null;
         if (reader.peek() == JsonToken.NULL) {
             reader.nextNull();
@@ -64,6 +75,30 @@ final class ReaderUtil {
         return value;
     }
 
+    /**
+     * Reads an enum constant given by its name. Similarly to the default GSON enum handling, an unknown name is read
+     * as null.
+     *
+     * @param <E> the type of the enum
+     * @param reader a {@code JsonReader} object
+     * @param enumType the class of the enum
+     * @return the enum constant, or null if the value is null or unknown
+     * @throws IOException if the read operation failed
+     */
+    public static <E extends Enum<E>> E readEnum(final JsonReader reader, final Class<E> enumType)
+            throws IOException {
+        final String name = readString(reader);
+        E value = null;
+        if (name != null) {
+            try {
+                value = Enum.valueOf(enumType, name);
+            } catch (final IllegalArgumentException e) {
+                // unknown constant, the value is ignored
+            }
+        }
+        return value;
+    }
+
     /**
      * Reads a geometry that has the following format: [[lat1,lon1], [lat2,lon2],...[latn,lonn]].
      *
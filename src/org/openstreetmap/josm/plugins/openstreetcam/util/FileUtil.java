@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+
+/**
+ * Utility class, holds helper methods for the files saved by the plugin on the local disk.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class FileUtil {
+
+    private static final String HASH_ALGORITHM = "SHA-1";
+    private static final String HEX_FORMAT = "%02x";
+    private static final String TEMP_FILE_PREFIX = "tmp";
+
+
+    private FileUtil() {}
+
+
+    /**
+     * Returns the SHA-1 hash of the given text, used for naming and versioning the saved files.
+     *
+     * @param value a text
+     * @return the hash as a lower case hexadecimal string
+     */
+    public static String sha1Hex(final String value) {
+        final StringBuilder result = new StringBuilder();
+        try {
+            final byte[] hash =
+                    MessageDigest.getInstance(HASH_ALGORITHM).digest(value.getBytes(StandardCharsets.UTF_8));
+            for (final byte hashByte : hash) {
+                result.append(String.format(HEX_FORMAT, hashByte));
+            }
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-1 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes the given file, replacing it in one step. The content is written to a temporary file of the same
+     * directory, forced to the disk and moved over the file, atomically if the file system supports it. A crash
+     * leaves either the previous or the new content, never a partially written file.
+     *
+     * @param file the file to write; its directory must exist
+     * @param writer writes the content
+     * @throws IOException if the file could not be written
+     */
+    public static void replace(final File file, final ContentWriter writer) throws IOException {
+        write(file, writer, true);
+    }
+
+    /**
+     * Writes the given new file in one step, see {@link #replace(File, ContentWriter)}. An existing file is not
+     * replaced.
+     *
+     * @param file the file to write; its directory must exist
+     * @param writer writes the content
+     * @throws java.nio.file.FileAlreadyExistsException if the file exists, for instance because it was created by
+     * another JOSM instance in the meantime
+     * @throws IOException if the file could not be written
+     */
+    public static void create(final File file, final ContentWriter writer) throws IOException {
+        write(file, writer, false);
+    }
+
+    private static void write(final File file, final ContentWriter writer, final boolean replaceFlag)
+            throws IOException {
+        final File tempFile = File.createTempFile(TEMP_FILE_PREFIX, null, file.getParentFile());
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(tempFile);
+                    OutputStream out = new BufferedOutputStream(fileOut)) {
+                writer.write(out);
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            if (replaceFlag) {
+                move(tempFile, file);
+            } else {
+                // an atomic move replaces an existing file on some platforms
+                Files.move(tempFile.toPath(), file.toPath());
+            }
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+    }
+
+    private static void move(final File source, final File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        /**
+         * Writes the content to the given stream. The streams wrapped around the given stream have to be flushed, the
+         * given stream is flushed and closed by the caller.
+         *
+         * @param out the stream of the file
+         * @throws IOException if the content could not be written
+         */
+        void write(OutputStream out) throws IOException;
+    }
+}
\ No newline at end of file
@@ -20,35 +20,122 @@ public final class CacheConfig extends BaseConfig {
     private static final String CONFIG_FILE = "openstreetcam_cache.properties";
     private static final int DEFAULT_MEMORY_COUNT = 50;
     private static final int DEFAULT_DISK_COUNT = 5000;
+    private static final int DEFAULT_DISK_SIZE = 1024;
+    private static final int DEFAULT_DISK_EXPIRY = 30;
     private static final int DEFAULT_PREV_NEXT_COUNT = 5;
     private static final int DEFAULT_NEARBY_COUNT = 10;
+    private static final int DEFAULT_PREFETCH_THREAD_COUNT = 3;
+    private static final int DEFAULT_DECODED_MEMORY_SIZE = 128;
+    private static final int DEFAULT_DOWNLOAD_WAIT_TIMEOUT = 60;
+    private static final int DEFAULT_SEGMENT_SIZE = 64;
+    private static final int DEFAULT_TILE_CACHE_TTL = 10;
+    private static final int DEFAULT_TILE_CACHE_MAX_ITEMS = 100000;
+    private static final int DEFAULT_TILE_CACHE_MAX_TILES = 256;
+    private static final int DEFAULT_SEGMENT_CACHE_TTL = 60;
+    private static final int DEFAULT_SEGMENT_CACHE_MAX_POINTS = 1000000;
+    private static final int DEFAULT_SEQUENCE_CACHE_COUNT = 20;
+    private static final int DEFAULT_SEQUENCE_CACHE_PHOTOS_TTL = 60;
+    private static final int DEFAULT_SEQUENCE_CACHE_DETECTIONS_TTL = 2;
+    private static final int DEFAULT_CLUSTER_CACHE_COUNT = 50;
+    private static final int DEFAULT_PHOTO_PAGE_CACHE_COUNT = 6;
+    private static final int DEFAULT_PHOTO_PAGE_CACHE_TTL = 2;
     private static final CacheConfig INSTANCE = new CacheConfig();
 
     /* default values to use if there is no user specific cache settings */
     private final int defaultMemoryCount;
     private final int defaultDiskCount;
+    private final int defaultDiskSize;
+    private final int defaultDiskExpiry;
     private final int defaultPrevNextCount;
     private final int defaultNearbyCount;
 
     /* maximum values for cache settings */
     private final int maxMemoryCount;
     private final int maxDiskCount;
+    private final int maxDiskSize;
+    private final int maxDiskExpiry;
     private final int maxPrevNextCount;
     private final int maxNearbyCount;
 
+    /* the number of threads used for loading the prev/next and nearby photos */
+    private final int prefetchThreadCount;
+
+    /* the maximum size in MB of the decoded photos kept in memory */
+    private final int decodedMemorySize;
+
+    /* the maximum number of seconds to wait for a photo that is downloaded by another request */
+    private final int downloadWaitTimeout;
+
+    /* flag indicating if the saved photos are kept in memory-mapped segment files instead of separate files */
+    private final boolean mappedPhotoStoreFlag;
+
+    /* the size in MB of a memory-mapped segment file */
+    private final int segmentSize;
+
+    /* the time in minutes after which the cached map data of a tile expires */
+    private final int tileCacheTtl;
+
+    /* the maximum number of map data items kept in the tile caches */
+    private final int tileCacheMaxItems;
+
+    /* the maximum number of tiles of a map view, larger views are loaded without the tile caches */
+    private final int tileCacheMaxTiles;
+
+    /* the time in minutes after which the cached coverage segments of a tile expire */
+    private final int segmentCacheTtl;
+
+    /* the maximum number of geometry points of the cached coverage segments */
+    private final int segmentCacheMaxPoints;
+
+    /* the maximum number of recently selected sequences kept in memory */
+    private final int sequenceCacheCount;
+
+    /* the time in minutes after which the photos, respectively the detections of a cached sequence are reloaded */
+    private final int sequenceCachePhotosTtl;
+    private final int sequenceCacheDetectionsTtl;
+
+    /* the maximum number of recently selected clusters kept in memory */
+    private final int clusterCacheCount;
+
+    /* the maximum number of cached photo search pages, and the time in minutes after which they expire */
+    private final int photoPageCacheCount;
+    private final int photoPageCacheTtl;
+
 
     private CacheConfig() {
         super(CONFIG_FILE);
 
         defaultMemoryCount = readIntegerProperty("default.memory.count", DEFAULT_MEMORY_COUNT);
         defaultDiskCount = readIntegerProperty("default.disk.count", DEFAULT_DISK_COUNT);
+        defaultDiskSize = readIntegerProperty("default.disk.size", DEFAULT_DISK_SIZE);
+        defaultDiskExpiry = readIntegerProperty("default.disk.expiry", DEFAULT_DISK_EXPIRY);
         defaultPrevNextCount = readIntegerProperty("default.prevNext.count", DEFAULT_PREV_NEXT_COUNT);
         defaultNearbyCount = readIntegerProperty("default.nearby.count", DEFAULT_NEARBY_COUNT);
 
         maxMemoryCount = readIntegerProperty("max.memory.count", DEFAULT_MEMORY_COUNT);
         maxDiskCount = readIntegerProperty("max.disk.count", DEFAULT_DISK_COUNT);
+        maxDiskSize = readIntegerProperty("max.disk.size", DEFAULT_DISK_SIZE);
+        maxDiskExpiry = readIntegerProperty("max.disk.expiry", DEFAULT_DISK_EXPIRY);
         maxPrevNextCount = readIntegerProperty("max.prevNext.count", DEFAULT_PREV_NEXT_COUNT);
         maxNearbyCount = readIntegerProperty("max.nearby.count", DEFAULT_NEARBY_COUNT);
+
+        prefetchThreadCount = readIntegerProperty("prefetch.thread.count", DEFAULT_PREFETCH_THREAD_COUNT);
+        decodedMemorySize = readIntegerProperty("decoded.memory.size", DEFAULT_DECODED_MEMORY_SIZE);
+        downloadWaitTimeout = readIntegerProperty("download.wait.timeout", DEFAULT_DOWNLOAD_WAIT_TIMEOUT);
+        mappedPhotoStoreFlag = Boolean.parseBoolean(readProperty("photo.store.mapped"));
+        segmentSize = readIntegerProperty("photo.store.segment.size", DEFAULT_SEGMENT_SIZE);
+        tileCacheTtl = readIntegerProperty("tile.cache.ttl", DEFAULT_TILE_CACHE_TTL);
+        tileCacheMaxItems = readIntegerProperty("tile.cache.max.items", DEFAULT_TILE_CACHE_MAX_ITEMS);
+        tileCacheMaxTiles = readIntegerProperty("tile.cache.max.tiles", DEFAULT_TILE_CACHE_MAX_TILES);
+        segmentCacheTtl = readIntegerProperty("segment.cache.ttl", DEFAULT_SEGMENT_CACHE_TTL);
+        segmentCacheMaxPoints = readIntegerProperty("segment.cache.max.points", DEFAULT_SEGMENT_CACHE_MAX_POINTS);
+        sequenceCacheCount = readIntegerProperty("sequence.cache.count", DEFAULT_SEQUENCE_CACHE_COUNT);
+        sequenceCachePhotosTtl = readIntegerProperty("sequence.cache.photos.ttl", DEFAULT_SEQUENCE_CACHE_PHOTOS_TTL);
+        sequenceCacheDetectionsTtl =
+                readIntegerProperty("sequence.cache.detections.ttl", DEFAULT_SEQUENCE_CACHE_DETECTIONS_TTL);
+        clusterCacheCount = readIntegerProperty("cluster.cache.count", DEFAULT_CLUSTER_CACHE_COUNT);
+        photoPageCacheCount = readIntegerProperty("photo.page.cache.count", DEFAULT_PHOTO_PAGE_CACHE_COUNT);
+        photoPageCacheTtl = readIntegerProperty("photo.page.cache.ttl", DEFAULT_PHOTO_PAGE_CACHE_TTL);
     }
 
 
@@ -65,6 +152,14 @@ public final class CacheConfig extends BaseConfig {
         return defaultDiskCount;
     }
 
+    public int getDefaultDiskSize() {
+        return defaultDiskSize;
+    }
+
+    public int getDefaultDiskExpiry() {
+        return defaultDiskExpiry;
+    }
+
     public int getDefaultPrevNextCount() {
         return defaultPrevNextCount;
     }
@@ -81,6 +176,14 @@ public final class CacheConfig extends BaseConfig {
         return maxDiskCount;
     }
 
+    public int getMaxDiskSize() {
+        return maxDiskSize;
+    }
+
+    public int getMaxDiskExpiry() {
+        return maxDiskExpiry;
+    }
+
     public int getMaxPrevNextCount() {
         return maxPrevNextCount;
     }
@@ -88,4 +191,68 @@ public final class CacheConfig extends BaseConfig {
     public int getMaxNearbyCount() {
         return maxNearbyCount;
     }
+
+    public int getPrefetchThreadCount() {
+        return prefetchThreadCount;
+    }
+
+    public int getDecodedMemorySize() {
+        return decodedMemorySize;
+    }
+
+    public int getDownloadWaitTimeout() {
+        return downloadWaitTimeout;
+    }
+
+    public boolean isMappedPhotoStoreFlag() {
+        return mappedPhotoStoreFlag;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getTileCacheTtl() {
+        return tileCacheTtl;
+    }
+
+    public int getTileCacheMaxItems() {
+        return tileCacheMaxItems;
+    }
+
+    public int getTileCacheMaxTiles() {
+        return tileCacheMaxTiles;
+    }
+
+    public int getSegmentCacheTtl() {
+        return segmentCacheTtl;
+    }
+
+    public int getSegmentCacheMaxPoints() {
+        return segmentCacheMaxPoints;
+    }
+
+    public int getSequenceCacheCount() {
+        return sequenceCacheCount;
+    }
+
+    public int getSequenceCachePhotosTtl() {
+        return sequenceCachePhotosTtl;
+    }
+
+    public int getSequenceCacheDetectionsTtl() {
+        return sequenceCacheDetectionsTtl;
+    }
+
+    public int getClusterCacheCount() {
+        return clusterCacheCount;
+    }
+
+    public int getPhotoPageCacheCount() {
+        return photoPageCacheCount;
+    }
+
+    public int getPhotoPageCacheTtl() {
+        return photoPageCacheTtl;
+    }
 }
\ No newline at end of file
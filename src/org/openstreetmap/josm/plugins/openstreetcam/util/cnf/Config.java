@@ -30,6 +30,19 @@ public final class Config extends BaseConfig {
     private static final int AUTOPLAY_MAX_DELAY = 2000;
     private static final double FACING_THRESHOLD = 30.0;
     private static final double DISTANCE_THRESHOLD = 30.0;
+    private static final int HTTP_CONNECT_TIMEOUT = 10000;
+    private static final int HTTP_READ_TIMEOUT = 60000;
+    private static final int HTTP_MAX_CONNECTIONS_PER_HOST = 5;
+    private static final int HTTP_CONCURRENCY_INITIAL_LIMIT = 2;
+    private static final int HTTP_RETRY_MAX_ATTEMPTS = 3;
+    private static final int HTTP_RETRY_BASE_DELAY = 200;
+    private static final double HTTP_RETRY_BUDGET_RATIO = 0.1;
+    private static final int TASK_POOL_SIZE = 32;
+    private static final int TASK_DEADLINE = 180000;
+    private static final int DETECTION_EDIT_BATCH_SIZE = 20;
+    private static final int DETECTION_EDIT_FLUSH_DELAY = 1000;
+    private static final int DETECTION_EDIT_RETRY_BASE_DELAY = 2000;
+    private static final int DETECTION_EDIT_RETRY_MAX_DELAY = 300000;
 
 
     private final int closestPhotosMaxItems;
@@ -43,6 +56,19 @@ public final class Config extends BaseConfig {
     private final int autoplayMaxDelay;
     private final double clusterFacingThreshold;
     private final double clusterDistanceThreshold;
+    private final int httpConnectTimeout;
+    private final int httpReadTimeout;
+    private final int httpMaxConnectionsPerHost;
+    private final int httpConcurrencyInitialLimit;
+    private final int httpRetryMaxAttempts;
+    private final int httpRetryBaseDelay;
+    private final double httpRetryBudgetRatio;
+    private final int taskPoolSize;
+    private final int taskDeadline;
+    private final int detectionEditBatchSize;
+    private final int detectionEditFlushDelay;
+    private final int detectionEditRetryBaseDelay;
+    private final int detectionEditRetryMaxDelay;
 
 
     private Config() {
@@ -60,6 +86,25 @@ public final class Config extends BaseConfig {
 
         clusterFacingThreshold = readDoubleProperty("cluster.facing.threshold", FACING_THRESHOLD);
         clusterDistanceThreshold = readDoubleProperty("cluster.distance.threshold", DISTANCE_THRESHOLD);
+
+        httpConnectTimeout = readIntegerProperty("http.connectTimeout", HTTP_CONNECT_TIMEOUT);
+        httpReadTimeout = readIntegerProperty("http.readTimeout", HTTP_READ_TIMEOUT);
+        httpMaxConnectionsPerHost = readIntegerProperty("http.maxConnectionsPerHost", HTTP_MAX_CONNECTIONS_PER_HOST);
+        httpConcurrencyInitialLimit =
+                readIntegerProperty("http.concurrency.initialLimit", HTTP_CONCURRENCY_INITIAL_LIMIT);
+        httpRetryMaxAttempts = readIntegerProperty("http.retry.maxAttempts", HTTP_RETRY_MAX_ATTEMPTS);
+        httpRetryBaseDelay = readIntegerProperty("http.retry.baseDelay", HTTP_RETRY_BASE_DELAY);
+        httpRetryBudgetRatio = readDoubleProperty("http.retry.budgetRatio", HTTP_RETRY_BUDGET_RATIO);
+
+        taskPoolSize = readIntegerProperty("task.poolSize", TASK_POOL_SIZE);
+        taskDeadline = readIntegerProperty("task.deadline", TASK_DEADLINE);
+
+        detectionEditBatchSize = readIntegerProperty("detection.edit.batchSize", DETECTION_EDIT_BATCH_SIZE);
+        detectionEditFlushDelay = readIntegerProperty("detection.edit.flushDelay", DETECTION_EDIT_FLUSH_DELAY);
+        detectionEditRetryBaseDelay =
+                readIntegerProperty("detection.edit.retry.baseDelay", DETECTION_EDIT_RETRY_BASE_DELAY);
+        detectionEditRetryMaxDelay =
+                readIntegerProperty("detection.edit.retry.maxDelay", DETECTION_EDIT_RETRY_MAX_DELAY);
     }
 
 
@@ -111,4 +156,56 @@ public final class Config extends BaseConfig {
     public double getClusterDistanceThreshold() {
         return clusterDistanceThreshold;
     }
+
+    public int getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    public int getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    public int getHttpMaxConnectionsPerHost() {
+        return httpMaxConnectionsPerHost;
+    }
+
+    public int getHttpConcurrencyInitialLimit() {
+        return httpConcurrencyInitialLimit;
+    }
+
+    public int getHttpRetryMaxAttempts() {
+        return httpRetryMaxAttempts;
+    }
+
+    public int getHttpRetryBaseDelay() {
+        return httpRetryBaseDelay;
+    }
+
+    public double getHttpRetryBudgetRatio() {
+        return httpRetryBudgetRatio;
+    }
+
+    public int getTaskPoolSize() {
+        return taskPoolSize;
+    }
+
+    public int getTaskDeadline() {
+        return taskDeadline;
+    }
+
+    public int getDetectionEditBatchSize() {
+        return detectionEditBatchSize;
+    }
+
+    public int getDetectionEditFlushDelay() {
+        return detectionEditFlushDelay;
+    }
+
+    public int getDetectionEditRetryBaseDelay() {
+        return detectionEditRetryBaseDelay;
+    }
+
+    public int getDetectionEditRetryMaxDelay() {
+        return detectionEditRetryMaxDelay;
+    }
 }
\ No newline at end of file
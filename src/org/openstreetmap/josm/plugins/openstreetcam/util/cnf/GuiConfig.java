@@ -27,6 +27,8 @@ public final class GuiConfig extends BaseConfig {
     private final String pluginShortcutLongText;
     private final String pluginDetectionShortcutText;
     private final String pluginDetectionShortcutLongText;
+    private final String pluginDiagnosticsShortcutText;
+    private final String pluginDiagnosticsShortcutLongText;
 
     private final String prefMapViewLbl;
     private final String prefPhotoZoomLbl;
@@ -53,8 +55,14 @@ public final class GuiConfig extends BaseConfig {
     private final String prefCacheLbl;
     private final String prefMemoryLbl;
     private final String prefDiskLbl;
+    private final String prefDiskSizeLbl;
+    private final String prefDiskExpiryLbl;
     private final String prefPrevNextLbl;
     private final String prefNearbyLbl;
+    private final String prefEvictionPolicyLbl;
+    private final String prefEvictionPolicyLruLbl;
+    private final String prefEvictionPolicyTinyLfuLbl;
+    private final String prefEvictionPolicySequenceLbl;
 
     private final String btnPreviousTlt;
     private final String btnPreviousShortcutText;
@@ -115,9 +123,11 @@ public final class GuiConfig extends BaseConfig {
     private final String incorrectDateFilterText;
     private final String unacceptedDateFilterText;
     private final String errorSequenceSaveText;
+    private final String errorDiagnosticsExportText;
     private final String errorSegmentListText;
     private final String errorDetectionRetrieveText;
     private final String errorDetectionUpdateText;
+    private final String errorDetectionConflictText;
     private final String errorClusterRetrieveText;
     private final String errorListSignsText;
     private final String errorListRegionsText;
@@ -142,12 +152,15 @@ public final class GuiConfig extends BaseConfig {
     private final String infoMatchedWayTitle;
     private final String infoDownloadNextPhotosTitle;
     private final String infoDownloadPreviousPhotosTitle;
+    private final String infoSegmentProgressText;
     private final String infoFileExistsTitle;
     private final String infoFileExistsText;
     private final String gpxTrackDescription;
 
     private final String detectionDialogTitleName;
     private final String clusterDialogTitleName;
+    private final String diagnosticsDialogTitleName;
+    private final String btnDiagnosticsExportLbl;
     private final String btnFixDetectionShortcutText;
     private final String btnFixDetectionTlt;
     private final String btnAlreadyFixedDetectionShortcutText;
@@ -216,6 +229,8 @@ public final class GuiConfig extends BaseConfig {
         pluginShortcutLongText = readProperty("plugin.shortcut.longText");
         pluginDetectionShortcutText = readProperty("plugin.detection.shortcut.text");
         pluginDetectionShortcutLongText = readProperty("plugin.detection.shortcut.longText");
+        pluginDiagnosticsShortcutText = readProperty("plugin.diagnostics.shortcut.text");
+        pluginDiagnosticsShortcutLongText = readProperty("plugin.diagnostics.shortcut.longText");
 
         prefMapViewLbl = readProperty("preferences.mapView.lbl");
         prefPhotoZoomLbl = readProperty("preferences.mapView.zoom.lbl");
@@ -241,8 +256,14 @@ public final class GuiConfig extends BaseConfig {
         prefCacheLbl = readProperty("preference.cache.lbl");
         prefMemoryLbl = readProperty("preference.cache.memory.lbl");
         prefDiskLbl = readProperty("preference.cache.disk.lbl");
+        prefDiskSizeLbl = readProperty("preference.cache.diskSize.lbl");
+        prefDiskExpiryLbl = readProperty("preference.cache.diskExpiry.lbl");
         prefPrevNextLbl = readProperty("preference.cache.prevNext.lbl");
         prefNearbyLbl = readProperty("preference.cache.nearby.lbl");
+        prefEvictionPolicyLbl = readProperty("preference.cache.evictionPolicy.lbl");
+        prefEvictionPolicyLruLbl = readProperty("preference.cache.evictionPolicy.lru");
+        prefEvictionPolicyTinyLfuLbl = readProperty("preference.cache.evictionPolicy.tinyLfu");
+        prefEvictionPolicySequenceLbl = readProperty("preference.cache.evictionPolicy.sequence");
 
         btnPreviousTlt = readProperty("btn.previous.tlt");
         btnPreviousShortcutText = readProperty("btn.previous.shortcut.text");
@@ -301,8 +322,10 @@ public final class GuiConfig extends BaseConfig {
         errorFeedbackPageText = readProperty("error.feedback.page");
         errorSegmentListText = readProperty("error.segment.list");
         errorSequenceSaveText = readProperty("error.track.save");
+        errorDiagnosticsExportText = readProperty("error.diagnostics.export");
         errorDetectionRetrieveText = readProperty("error.detection.retrieve");
         errorDetectionUpdateText = readProperty("error.detection.update");
+        errorDetectionConflictText = readProperty("error.detection.conflict");
         errorClusterRetrieveText = readProperty("error.cluster.retrieve");
         errorListSignsText = readProperty("error.sign.list");
         errorListRegionsText = readProperty("error.sign.region.list");
@@ -327,6 +350,7 @@ public final class GuiConfig extends BaseConfig {
         infoMatchedWayTitle = readProperty("info.matchedWay.title");
         infoDownloadNextPhotosTitle = readProperty("info.download.next.title");
         infoDownloadPreviousPhotosTitle = readProperty("info.download.previous.title");
+        infoSegmentProgressText = readProperty("info.segment.progress.text");
         infoFileExistsTitle = readProperty("info.file.exists.title");
         infoFileExistsText = readProperty("info.file.exists.text");
 
@@ -351,6 +375,8 @@ public final class GuiConfig extends BaseConfig {
 
         detectionDialogTitleName = readProperty("detection.dialog.title");
         clusterDialogTitleName = readProperty("cluster.dialog.title");
+        diagnosticsDialogTitleName = readProperty("diagnostics.dialog.title");
+        btnDiagnosticsExportLbl = readProperty("btn.diagnostics.export.lbl");
         detectedDetectionText = readProperty("detection.detected.text");
         detectionOnOsmText = readProperty("detection.osm.text");
         detectionModeText = readProperty("detection.mode.text");
@@ -414,6 +440,14 @@ public final class GuiConfig extends BaseConfig {
         return pluginDetectionShortcutLongText;
     }
 
+    public String getPluginDiagnosticsShortcutText() {
+        return pluginDiagnosticsShortcutText;
+    }
+
+    public String getPluginDiagnosticsShortcutLongText() {
+        return pluginDiagnosticsShortcutLongText;
+    }
+
     public String getPluginTlt() {
         return pluginTlt;
     }
@@ -510,6 +544,14 @@ public final class GuiConfig extends BaseConfig {
         return prefDiskLbl;
     }
 
+    public String getPrefDiskSizeLbl() {
+        return prefDiskSizeLbl;
+    }
+
+    public String getPrefDiskExpiryLbl() {
+        return prefDiskExpiryLbl;
+    }
+
     public String getPrefPrevNextLbl() {
         return prefPrevNextLbl;
     }
@@ -518,6 +560,22 @@ public final class GuiConfig extends BaseConfig {
         return prefNearbyLbl;
     }
 
+    public String getPrefEvictionPolicyLbl() {
+        return prefEvictionPolicyLbl;
+    }
+
+    public String getPrefEvictionPolicyLruLbl() {
+        return prefEvictionPolicyLruLbl;
+    }
+
+    public String getPrefEvictionPolicyTinyLfuLbl() {
+        return prefEvictionPolicyTinyLfuLbl;
+    }
+
+    public String getPrefEvictionPolicySequenceLbl() {
+        return prefEvictionPolicySequenceLbl;
+    }
+
     public String getBtnPreviousTlt() {
         return btnPreviousTlt;
     }
@@ -678,6 +736,10 @@ public final class GuiConfig extends BaseConfig {
         return errorDetectionUpdateText;
     }
 
+    public String getErrorDetectionConflictText() {
+        return errorDetectionConflictText;
+    }
+
     public String getErrorClusterRetrieveText() {
         return errorClusterRetrieveText;
     }
@@ -710,6 +772,10 @@ public final class GuiConfig extends BaseConfig {
         return errorSequenceSaveText;
     }
 
+    public String getErrorDiagnosticsExportText() {
+        return errorDiagnosticsExportText;
+    }
+
     public String getErrorSegmentListText() {
         return errorSegmentListText;
     }
@@ -818,6 +884,10 @@ public final class GuiConfig extends BaseConfig {
         return infoDownloadPreviousPhotosTitle;
     }
 
+    public String getInfoSegmentProgressText() {
+        return infoSegmentProgressText;
+    }
+
     public String getLayerPreferenceMenuItemLbl() {
         return layerPreferenceMenuItemLbl;
     }
@@ -950,6 +1020,14 @@ public final class GuiConfig extends BaseConfig {
         return detectionDialogTitleName;
     }
 
+    public String getDiagnosticsDialogTitleName() {
+        return diagnosticsDialogTitleName;
+    }
+
+    public String getBtnDiagnosticsExportLbl() {
+        return btnDiagnosticsExportLbl;
+    }
+
     public String getDetectionTaskStatusText() {
         return detectionTaskStatusText;
     }
@@ -33,6 +33,7 @@ public final class IconConfig extends BaseConfig {
     private final String pluginIconName;
     private final String dialogShortcutName;
     private final String detectionDialogShortcutName;
+    private final String diagnosticsDialogShortcutName;
     private final String deleteIconName;
     private final String layerIconName;
     private final String downloadIconName;
@@ -97,6 +98,7 @@ public final class IconConfig extends BaseConfig {
         pluginIconName = readProperty("plugin.icon");
         dialogShortcutName = readProperty("dialog.shortcut");
         detectionDialogShortcutName = readProperty("dialog.detection.shortcut");
+        diagnosticsDialogShortcutName = readProperty("dialog.diagnostics.shortcut");
         deleteIconName = readProperty("delete.icon");
         layerIconName = readProperty("layer.icon");
         downloadIconName = readProperty("download.icon");
@@ -197,6 +199,10 @@ public final class IconConfig extends BaseConfig {
         return detectionDialogShortcutName;
     }
 
+    public String getDiagnosticsDialogShortcutName() {
+        return diagnosticsDialogShortcutName;
+    }
+
 
     public String getDeleteIconName() {
         return deleteIconName;
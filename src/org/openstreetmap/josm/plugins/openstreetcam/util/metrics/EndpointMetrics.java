@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.util.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Collects the metrics of the requests sent to a service endpoint: the latency in microseconds, the size of the
+ * response payload in bytes, the number of failed, retried and coalesced requests, and the current state of the
+ * endpoint's concurrency limiter.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class EndpointMetrics {
+
+    private final Histogram latency = new Histogram();
+    private final Histogram payloadSize = new Histogram();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private volatile int concurrencyLimit;
+    private volatile int inFlight;
+    private volatile int queueDepth;
+
+
+    EndpointMetrics() {}
+
+
+    /**
+     * Records a successful request.
+     *
+     * @param startTime the value of {@code System.nanoTime()} when the request was sent
+     * @param size the size of the response payload in bytes
+     */
+    public void recordSuccess(final long startTime, final long size) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+        payloadSize.record(size);
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param startTime the value of {@code System.nanoTime()} when the request was sent
+     */
+    public void recordError(final long startTime) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+        errorCount.increment();
+    }
+
+    /**
+     * Records a retried request.
+     */
+    public void recordRetry() {
+        retryCount.increment();
+    }
+
+    /**
+     * Records a request that was not sent because it was served by the identical request already in progress.
+     */
+    public void recordCoalesced() {
+        coalescedCount.increment();
+    }
+
+    /**
+     * Updates the state of the endpoint's concurrency limiter.
+     *
+     * @param limit the current number of concurrent requests allowed
+     * @param inFlight the number of requests in progress
+     * @param queueDepth the number of requests waiting for a free slot
+     */
+    public void updateConcurrency(final int limit, final int inFlight, final int queueDepth) {
+        this.concurrencyLimit = limit;
+        this.inFlight = inFlight;
+        this.queueDepth = queueDepth;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Histogram getPayloadSize() {
+        return payloadSize;
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+}
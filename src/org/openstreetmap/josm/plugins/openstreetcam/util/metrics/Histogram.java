@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Lock-free histogram of non-negative values. The values are counted in logarithmic buckets, every power of two
+ * being split in 8 linear sub-buckets; this bounds the relative error of the reported percentiles to 12.5% while
+ * using a fixed amount of memory. Recording a value only updates atomic counters, so the histogram can be used from
+ * any thread without locking.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+
+    /**
+     * Records the given value. Negative values are recorded as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(final long value) {
+        final long positiveValue = Math.max(0, value);
+        counts.incrementAndGet(index(positiveValue));
+        count.increment();
+        sum.add(positiveValue);
+        max.accumulate(positiveValue);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean value or 0 if no value was recorded
+     */
+    public double getMean() {
+        final long totalCount = count.sum();
+        return totalCount > 0 ? (double) sum.sum() / totalCount : 0;
+    }
+
+    /**
+     * Returns an estimation of the given percentile. The returned value is the upper bound of the bucket containing
+     * the percentile, but never more than the maximum recorded value.
+     *
+     * @param percentile a value between 0 and 100
+     * @return the estimated value or 0 if no value was recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long[] snapshot = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            totalCount += snapshot[i];
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * totalCount));
+        long result = 0;
+        long cumulatedCount = 0;
+        for (int i = 0; i < BUCKET_COUNT && totalCount > 0; i++) {
+            cumulatedCount += snapshot[i];
+            if (cumulatedCount >= rank) {
+                result = Math.min(upperBound(i), max.get());
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static int index(final long value) {
+        int index;
+        if (value < SUB_BUCKET_COUNT) {
+            index = (int) value;
+        } else {
+            final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            index = (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+        }
+        return index;
+    }
+
+    private static long upperBound(final int index) {
+        long bound;
+        if (index < SUB_BUCKET_COUNT) {
+            bound = index;
+        } else {
+            final int shift = index / SUB_BUCKET_COUNT - 1;
+            final long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+            bound = index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : ((subBucket + 1) << shift) - 1;
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.util.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSize;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+
+/**
+ * Collects the performance metrics of the plugin: the latency, payload size and errors of the service endpoints and
+ * the photo decoding time. The metrics are recorded with lock-free counters, such that recording them does not slow
+ * down the photo loading and the service calls.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class Metrics {
+
+    private static final Pattern QUERY = Pattern.compile("[?#].*$");
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^[a-zA-Z]+://[^/]*");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String ID_SEGMENT = "/{id}";
+    private static final String PHOTO_ENDPOINT = "photo/";
+    private static final double[] PERCENTILES = { 50, 90, 99 };
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Histogram decodeTime = new Histogram();
+
+    private static final Metrics INSTANCE = new Metrics();
+
+
+    private Metrics() {}
+
+    /**
+     * Returns the unique instance of the metrics registry.
+     *
+     * @return a {@code Metrics} object
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+
+    /**
+     * Returns the metrics of the given endpoint. The URLs are grouped by path: the query and the numeric path
+     * segments (identifiers) are ignored.
+     *
+     * @param url the URL of the endpoint or an endpoint name
+     * @return an {@code EndpointMetrics} object
+     */
+    public EndpointMetrics endpoint(final String url) {
+        return endpoints.computeIfAbsent(endpointName(url), name -> new EndpointMetrics());
+    }
+
+    /**
+     * Records the time spent decoding a photo.
+     *
+     * @param startTime the value of {@code System.nanoTime()} when the decoding started
+     */
+    public void recordDecode(final long startTime) {
+        decodeTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+    }
+
+    public Histogram getDecodeTime() {
+        return decodeTime;
+    }
+
+    /**
+     * Returns the metrics of the endpoints that were used, ordered by endpoint name.
+     *
+     * @return a map of endpoint name - metrics
+     */
+    public Map<String, EndpointMetrics> getEndpoints() {
+        return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+    }
+
+    /**
+     * Exports the current metrics, together with the given cache statistics, in JSON format. The latencies are
+     * exported in milliseconds and the sizes in bytes.
+     *
+     * @param tiers the statistics of the cache tiers
+     * @return a JSON document
+     */
+    public String toJson(final List<TierStatistics> tiers) {
+        final JsonObject root = new JsonObject();
+        final JsonArray cache = new JsonArray();
+        for (final TierStatistics tier : tiers) {
+            final JsonObject tierObject = new JsonObject();
+            tierObject.addProperty("name", tier.getName());
+            tierObject.addProperty("hits", tier.getHitCount());
+            tierObject.addProperty("misses", tier.getMissCount());
+            tierObject.addProperty("hitRatio", tier.getHitRatio());
+            tierObject.addProperty("evictions", tier.getEvictionCount());
+            tierObject.addProperty("entries", tier.getEntryCount());
+            tierObject.addProperty("bytes", tier.getSize());
+            cache.add(tierObject);
+        }
+        root.add("cache", cache);
+        root.add("decodeTimeMs", toJson(decodeTime, MICROS_PER_MILLI));
+        final JsonObject endpointsObject = new JsonObject();
+        for (final Map.Entry<String, EndpointMetrics> entry : getEndpoints().entrySet()) {
+            final JsonObject endpointObject = new JsonObject();
+            endpointObject.add("latencyMs", toJson(entry.getValue().getLatency(), MICROS_PER_MILLI));
+            endpointObject.add("payloadBytes", toJson(entry.getValue().getPayloadSize(), 1));
+            endpointObject.addProperty("errors", entry.getValue().getErrorCount());
+            endpointObject.addProperty("retries", entry.getValue().getRetryCount());
+            endpointObject.addProperty("coalesced", entry.getValue().getCoalescedCount());
+            endpointObject.addProperty("concurrencyLimit", entry.getValue().getConcurrencyLimit());
+            endpointObject.addProperty("inFlight", entry.getValue().getInFlight());
+            endpointObject.addProperty("queued", entry.getValue().getQueueDepth());
+            endpointsObject.add(entry.getKey(), endpointObject);
+        }
+        root.add("endpoints", endpointsObject);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static JsonObject toJson(final Histogram histogram, final double unit) {
+        final JsonObject result = new JsonObject();
+        result.addProperty("count", histogram.getCount());
+        result.addProperty("mean", histogram.getMean() / unit);
+        for (final double percentile : PERCENTILES) {
+            result.addProperty("p" + (int) percentile, histogram.getPercentile(percentile) / unit);
+        }
+        result.addProperty("max", histogram.getMax() / unit);
+        return result;
+    }
+
+    /**
+     * Returns the name of the endpoint of the given URL: the path of the URL without the query, with the numeric path
+     * segments (identifiers) replaced by a placeholder.
+     *
+     * @param url the URL of the endpoint
+     * @return the endpoint name
+     */
+    public static String endpointName(final String url) {
+        String name = QUERY.matcher(url).replaceFirst("");
+        name = SCHEME_AND_HOST.matcher(name).replaceFirst("");
+        return NUMERIC_SEGMENT.matcher(name).replaceAll(ID_SEGMENT);
+    }
+
+    /**
+     * Returns the name of the endpoint used for the downloads of the photos of the given size. The photo URLs are file
+     * paths that do not identify an endpoint; every size has its own endpoint, since the latency of a thumbnail is
+     * not comparable with the latency of a high quality photo.
+     *
+     * @param photoSize the size of the downloaded photos
+     * @return the endpoint name
+     */
+    public static String photoEndpointName(final PhotoSize photoSize) {
+        return PHOTO_ENDPOINT + photoSize.name().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
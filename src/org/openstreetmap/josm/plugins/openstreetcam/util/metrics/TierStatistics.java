@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Grabtaxi Holdings PTE LTE (GRAB), All rights reserved.
+ *
+ * Use of this source code is governed by an MIT-style license that can be found in the LICENSE file.
+ *
+ */
+package org.openstreetmap.josm.plugins.openstreetcam.util.metrics;
+
+/**
+ * Describes the state of a cache tier at a given moment.
+ *
+ * @author beataj
+ * @version $Revision$
+ */
+public final class TierStatistics {
+
+    private final String name;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long entryCount;
+    private final long size;
+
+
+    /**
+     * Builds a new object with the given arguments.
+     *
+     * @param name the name of the cache tier
+     * @param hitCount the number of requests served by the tier
+     * @param missCount the number of requests not found in the tier
+     * @param evictionCount the number of entries evicted from the tier
+     * @param entryCount the number of entries currently in the tier
+     * @param size the number of bytes currently occupied by the entries
+     */
+    public TierStatistics(final String name, final long hitCount, final long missCount, final long evictionCount,
+            final long entryCount, final long size) {
+        this.name = name;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.size = size;
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the ratio of the requests served by the tier.
+     *
+     * @return a value between 0 and 1, or 0 if there was no request
+     */
+    public double getHitRatio() {
+        final long requestCount = hitCount + missCount;
+        return requestCount > 0 ? (double) hitCount / requestCount : 0;
+    }
+}
@@ -0,0 +1 @@
+package org.openstreetmap.josm.plugins.openstreetcam.util.metrics;
\ No newline at end of file
@@ -77,8 +77,11 @@ final class Keys {
     /* cache related user preference settings */
     static final String CACHE_MEMORY_COUNT = "openstreetcam.preferences.cache.memory";
     static final String CACHE_DISK_COUNT = "openstreetcam.preferences.cache.disk";
+    static final String CACHE_DISK_SIZE = "openstreetcam.preferences.cache.diskSize";
+    static final String CACHE_DISK_EXPIRY = "openstreetcam.preferences.cache.diskExpiry";
     static final String CACHE_PREV_NEXT_COUNT = "openstreetcam.preferences.cache.prevNext";
     static final String CACHE_NEARBY_COUNT = "openstreetcam.preferences.cache.nearby";
+    static final String CACHE_EVICTION_POLICY = "openstreetcam.preferences.cache.evictionPolicy";
 
     /* map view related user preference settings */
     static final String MAP_VIEW_PHOTO_ZOOM = "openstreetcam.preferences.mapView.photoZoom";
@@ -10,6 +10,9 @@ import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.AUTOPL
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.AUTOPLAY_LENGTH;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.AUTOPLAY_STARTED;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_DISK_COUNT;
+import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_DISK_EXPIRY;
+import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_DISK_SIZE;
+import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_EVICTION_POLICY;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_MEMORY_COUNT;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_NEARBY_COUNT;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_PREV_NEXT_COUNT;
@@ -62,6 +65,7 @@ import org.openstreetmap.josm.plugins.openstreetcam.argument.AutoplaySettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.CacheSettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.ClusterSettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.DataType;
+import org.openstreetmap.josm.plugins.openstreetcam.argument.EvictionPolicy;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.MapViewSettings;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.MapViewType;
 import org.openstreetmap.josm.plugins.openstreetcam.argument.PhotoSettings;
@@ -299,11 +303,27 @@ final class LoadManager {
                 CacheConfig.getInstance().getMaxMemoryCount());
         final int diskCount = loadIntValue(CACHE_DISK_COUNT, CacheConfig.getInstance().getDefaultDiskCount(),
                 CacheConfig.getInstance().getMaxDiskCount());
+        final int diskSize = loadIntValue(CACHE_DISK_SIZE, CacheConfig.getInstance().getDefaultDiskSize(),
+                CacheConfig.getInstance().getMaxDiskSize());
+        final int diskExpiry = loadIntValue(CACHE_DISK_EXPIRY, CacheConfig.getInstance().getDefaultDiskExpiry(),
+                CacheConfig.getInstance().getMaxDiskExpiry());
         final int prevNextCount = loadIntValue(CACHE_PREV_NEXT_COUNT,
                 CacheConfig.getInstance().getDefaultPrevNextCount(), CacheConfig.getInstance().getMaxPrevNextCount());
         final int nearbyCount = loadIntValue(CACHE_NEARBY_COUNT, CacheConfig.getInstance().getMaxNearbyCount(),
                 CacheConfig.getInstance().getDefaultNearbyCount());
-        return new CacheSettings(memoryCount, diskCount, prevNextCount, nearbyCount);
+        return new CacheSettings(memoryCount, diskCount, diskSize, diskExpiry, prevNextCount, nearbyCount,
+                loadEvictionPolicy());
+    }
+
+    private EvictionPolicy loadEvictionPolicy() {
+        final String value = Preferences.main().get(CACHE_EVICTION_POLICY);
+        EvictionPolicy evictionPolicy;
+        try {
+            evictionPolicy = EvictionPolicy.valueOf(value);
+        } catch (final RuntimeException e) {
+            evictionPolicy = EvictionPolicy.LRU;
+        }
+        return evictionPolicy;
     }
 
     boolean loadLayerOpenedFlag() {
@@ -10,6 +10,9 @@ import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.AUTOPL
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.AUTOPLAY_LENGTH;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.AUTOPLAY_STARTED;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_DISK_COUNT;
+import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_DISK_EXPIRY;
+import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_DISK_SIZE;
+import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_EVICTION_POLICY;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_MEMORY_COUNT;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_NEARBY_COUNT;
 import static org.openstreetmap.josm.plugins.openstreetcam.util.pref.Keys.CACHE_PREV_NEXT_COUNT;
@@ -281,8 +284,11 @@ final class SaveManager {
     void saveCacheSettings(final CacheSettings cacheSettings) {
         Preferences.main().putInt(CACHE_MEMORY_COUNT, cacheSettings.getMemoryCount());
         Preferences.main().putInt(CACHE_DISK_COUNT, cacheSettings.getDiskCount());
+        Preferences.main().putInt(CACHE_DISK_SIZE, cacheSettings.getDiskSize());
+        Preferences.main().putInt(CACHE_DISK_EXPIRY, cacheSettings.getDiskExpiry());
         Preferences.main().putInt(CACHE_PREV_NEXT_COUNT, cacheSettings.getPrevNextCount());
         Preferences.main().putInt(CACHE_NEARBY_COUNT, cacheSettings.getNearbyCount());
+        Preferences.main().put(CACHE_EVICTION_POLICY, cacheSettings.getEvictionPolicy().name());
     }
 
     void saveLayerOpenedFlag(final boolean isLayerOpened) {